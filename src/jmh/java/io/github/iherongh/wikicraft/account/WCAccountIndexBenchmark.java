@@ -0,0 +1,143 @@
+package io.github.iherongh.wikicraft.account;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks account bridge lookups by UUID and by MediaWiki account.
+ * <p>{@link WCAccountBridge} needs a running server, so this benchmarks the {@link WCAccountIndex} both account
+ * storages look links up in, loaded the way account_bridge.json is.
+ *
+ * @author iHeronGH
+ *
+ * @version 0.2.0
+ *
+ * @since 0.2.0
+ *
+ * @see WCAccountIndex
+ */
+@State ( Scope.Benchmark )
+@BenchmarkMode ( Mode.AverageTime )
+@OutputTimeUnit ( TimeUnit.NANOSECONDS )
+public class WCAccountIndexBenchmark {
+
+    /**
+     * A UUID no account is linked to.
+     */
+    private static final UUID UNKNOWN_UUID = new UUID( 0, 0 );
+
+    /**
+     * The number of linked accounts.
+     */
+    @Param ( { "1000", "100000" } )
+    public int size;
+
+    /**
+     * The contents of account_bridge.json.
+     */
+    private JsonObject data;
+
+    /**
+     * The index being benchmarked.
+     */
+    private WCAccountIndex index;
+
+    /**
+     * A linked UUID.
+     */
+    private UUID linkedUUID;
+
+    /**
+     * A MediaWiki account linked to {@link #linkedUUID}.
+     */
+    private String linkedWikiUser;
+
+    /**
+     * Constructs a new {@code WCAccountIndexBenchmark} object.
+     */
+    public WCAccountIndexBenchmark() {}
+
+    /**
+     * Builds account_bridge.json and the index from a fixed seed, so every run sees the same data.
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random( 42 );
+        JsonArray accounts = new JsonArray();
+
+        for ( int i = 0; i < size; i++ ) {
+            UUID uuid = new UUID( random.nextLong(), random.nextLong() );
+            accounts.add( new WCAccountLink( uuid, "Player" + i, true, i, 0 ).toJson() );
+
+            if ( i == size / 2 ) {
+                linkedUUID = uuid;
+                linkedWikiUser = "Player" + i;
+
+            }
+
+        }
+
+        data = new JsonObject();
+        data.add( "accounts", accounts );
+        index = WCAccountIndex.fromJson( data );
+
+    }
+
+    /**
+     * Looks up the MediaWiki account of a linked player.
+     *
+     * @return The MediaWiki account.
+     */
+    @Benchmark
+    public String wikiUserByUUID() {
+        return index.getWikiUser( linkedUUID );
+
+    }
+
+    /**
+     * Looks up the MediaWiki account of a player who never linked one.
+     *
+     * @return {@code null}.
+     */
+    @Benchmark
+    public String wikiUserByUnknownUUID() {
+        return index.getWikiUser( UNKNOWN_UUID );
+
+    }
+
+    /**
+     * Looks up the UUID linked to a MediaWiki account.
+     *
+     * @return The UUID.
+     */
+    @Benchmark
+    public UUID uuidByWikiUser() {
+        return index.getUUID( linkedWikiUser );
+
+    }
+
+    /**
+     * Loads the index from account_bridge.json, as on startup.
+     *
+     * @return The index.
+     */
+    @Benchmark
+    @OutputTimeUnit ( TimeUnit.MICROSECONDS )
+    public WCAccountIndex load() {
+        return WCAccountIndex.fromJson( data );
+
+    }
+
+}
@@ -0,0 +1,90 @@
+package io.github.iherongh.wikicraft.messages;
+
+import net.kyori.adventure.text.Component;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks building the components of player messages.
+ * <p>Every reply to a command is built by {@link WCMessages#message(String, String, boolean)}, and listings such as
+ * search results build one per line.
+ *
+ * @author iHeronGH
+ *
+ * @version 0.2.0
+ *
+ * @since 0.2.0
+ *
+ * @see WCMessages
+ */
+@State ( Scope.Benchmark )
+@BenchmarkMode ( Mode.AverageTime )
+@OutputTimeUnit ( TimeUnit.NANOSECONDS )
+public class WCMessagesBenchmark {
+
+    /**
+     * A typical one-line reply.
+     */
+    private String text = "Listed 25 pages matching \"iron golem\".";
+
+    /**
+     * A typical line of a listing, already a component.
+     */
+    private Component line = Component.text( "Iron Golem Farm" );
+
+    /**
+     * Constructs a new {@code WCMessagesBenchmark} object.
+     */
+    public WCMessagesBenchmark() {}
+
+    /**
+     * Builds an info message with the WikiCraft prefix.
+     *
+     * @return The message.
+     */
+    @Benchmark
+    public Component infoWithPrefix() {
+        return WCMessages.message( "info", text );
+
+    }
+
+    /**
+     * Builds an error message with the WikiCraft prefix.
+     *
+     * @return The message.
+     */
+    @Benchmark
+    public Component errorWithPrefix() {
+        return WCMessages.message( "error", text );
+
+    }
+
+    /**
+     * Builds an info message without the prefix, as each line after the first of a reply is.
+     *
+     * @return The message.
+     */
+    @Benchmark
+    public Component infoWithoutPrefix() {
+        return WCMessages.message( "info", text, false );
+
+    }
+
+    /**
+     * Builds an info message around a component, as hyperlinks in listings are.
+     *
+     * @return The message.
+     */
+    @Benchmark
+    public Component infoFromComponent() {
+        return WCMessages.message( "info", line, false );
+
+    }
+
+}
@@ -0,0 +1,166 @@
+package io.github.iherongh.wikicraft.wiki;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the page index behind {@code /wiki pages} argument validation and tab completion.
+ * <p>Every keystroke in a page argument runs {@link WCPageIndex#suggest(String, int)}, and every command run validates
+ * its page with {@link WCPageIndex#contains(String)}, both on the server thread.
+ *
+ * @author iHeronGH
+ *
+ * @version 0.2.0
+ *
+ * @since 0.2.0
+ *
+ * @see WCPageIndex
+ */
+@State ( Scope.Benchmark )
+@BenchmarkMode ( Mode.AverageTime )
+@OutputTimeUnit ( TimeUnit.NANOSECONDS )
+public class WCPageIndexBenchmark {
+
+    /**
+     * The syllables titles are made of, so that prefixes are shared as they are on a real wiki.
+     */
+    private static final String[] SYLLABLES = { "ka", "mi", "ro", "den", "stone", "iron", "tor", "vel", "an", "qu", "ly", "mor" };
+
+    /**
+     * The default of {@code max-suggestions} in config.yml.
+     */
+    private static final int MAX_SUGGESTIONS = 50;
+
+    /**
+     * The number of titles in the index.
+     */
+    @Param ( { "10000", "100000", "1000000" } )
+    public int size;
+
+    /**
+     * The titles in the index, in the order the wiki returned them.
+     */
+    private List<String> titles;
+
+    /**
+     * The index being benchmarked.
+     */
+    private WCPageIndex index;
+
+    /**
+     * A title in the index.
+     */
+    private String present;
+
+    /**
+     * Constructs a new {@code WCPageIndexBenchmark} object.
+     */
+    public WCPageIndexBenchmark() {}
+
+    /**
+     * Builds the titles and the index from a fixed seed, so every run sees the same data.
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random( 42 );
+        titles = new ArrayList<>( size );
+
+        for ( int i = 0; i < size; i++ ) {
+            titles.add( word( random ) + " " + word( random ) + " " + i );
+
+        }
+
+        index = WCPageIndex.of( titles );
+        present = titles.get( size / 2 );
+
+    }
+
+    /**
+     * Validates a page argument that exists.
+     *
+     * @return Whether the title is in the index.
+     */
+    @Benchmark
+    public boolean containsPresent() {
+        return index.contains( present );
+
+    }
+
+    /**
+     * Validates a page argument that does not exist.
+     *
+     * @return Whether the title is in the index.
+     */
+    @Benchmark
+    public boolean containsMissing() {
+        return index.contains( "Missing page" );
+
+    }
+
+    /**
+     * Suggests titles after the first keystroke, when the most titles match.
+     *
+     * @return The suggestions.
+     */
+    @Benchmark
+    public List<String> suggestShortPrefix() {
+        return index.suggest( "k", MAX_SUGGESTIONS );
+
+    }
+
+    /**
+     * Suggests titles for a prefix only a few titles match.
+     *
+     * @return The suggestions.
+     */
+    @Benchmark
+    public List<String> suggestLongPrefix() {
+        return index.suggest( present.substring( 0, present.length() - 1 ), MAX_SUGGESTIONS );
+
+    }
+
+    /**
+     * Builds the index from a full page listing, as each page cache refresh does.
+     *
+     * @return The index.
+     */
+    @Benchmark
+    @OutputTimeUnit ( TimeUnit.MILLISECONDS )
+    public WCPageIndex build() {
+        return WCPageIndex.of( titles );
+
+    }
+
+    /**
+     * Makes a capitalised word of two to four syllables.
+     *
+     * @param random The source of randomness.
+     *
+     * @return The word.
+     */
+    private static String word( Random random ) {
+        StringBuilder word = new StringBuilder();
+        int syllables = 2 + random.nextInt( 3 );
+
+        for ( int i = 0; i < syllables; i++ ) {
+            word.append( SYLLABLES[ random.nextInt( SYLLABLES.length ) ] );
+
+        }
+
+        word.setCharAt( 0, Character.toUpperCase( word.charAt( 0 ) ) );
+        return word.toString();
+
+    }
+
+}
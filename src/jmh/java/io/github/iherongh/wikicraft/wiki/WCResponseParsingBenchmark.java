@@ -0,0 +1,131 @@
+package io.github.iherongh.wikicraft.wiki;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks parsing {@code list=allpages} and {@code list=allusers} responses.
+ * <p>Page listings are parsed on every page cache refresh, one batch per request, and user listings every time an
+ * account is checked.
+ *
+ * @author iHeronGH
+ *
+ * @version 0.2.0
+ *
+ * @since 0.2.0
+ *
+ * @see WCPageBatch#parse(String)
+ * @see WCUserBatch#parse(String)
+ */
+@State ( Scope.Benchmark )
+@BenchmarkMode ( Mode.AverageTime )
+@OutputTimeUnit ( TimeUnit.MICROSECONDS )
+public class WCResponseParsingBenchmark {
+
+    /**
+     * The number of results in each response: the {@code max} limit for users and for bots, respectively.
+     */
+    @Param ( { "500", "5000" } )
+    public int batch;
+
+    /**
+     * A {@code list=allpages} response, as sent with {@code formatversion=2}.
+     */
+    private String allPages;
+
+    /**
+     * A {@code list=allusers} response, as sent with {@code formatversion=2}.
+     */
+    private String allUsers;
+
+    /**
+     * Constructs a new {@code WCResponseParsingBenchmark} object.
+     */
+    public WCResponseParsingBenchmark() {}
+
+    /**
+     * Builds the responses.
+     */
+    @Setup
+    public void setUp() {
+        JsonArray pages = new JsonArray();
+        JsonArray users = new JsonArray();
+
+        for ( int i = 0; i < batch; i++ ) {
+            JsonObject page = new JsonObject();
+            page.addProperty( "pageid", 1000 + i );
+            page.addProperty( "ns", 0 );
+            page.addProperty( "title", "Generated page title " + i );
+            pages.add( page );
+
+            JsonObject user = new JsonObject();
+            user.addProperty( "userid", 1000 + i );
+            user.addProperty( "name", "Player" + i );
+            users.add( user );
+
+        }
+
+        allPages = response( "allpages", pages, "apcontinue", "Generated_page_title_" + batch );
+        allUsers = response( "allusers", users, "aufrom", "Player" + batch );
+
+    }
+
+    /**
+     * Parses a batch of page titles.
+     *
+     * @return The batch.
+     */
+    @Benchmark
+    public WCPageBatch parseAllPages() {
+        return WCPageBatch.parse( allPages );
+
+    }
+
+    /**
+     * Parses a batch of user names.
+     *
+     * @return The batch.
+     */
+    @Benchmark
+    public WCUserBatch parseAllUsers() {
+        return WCUserBatch.parse( allUsers );
+
+    }
+
+    /**
+     * Builds a listing response with a continuation.
+     *
+     * @param list         The name of the list module.
+     * @param results      The results of the list.
+     * @param continueKey  The continuation parameter of the list module.
+     * @param continueFrom The value of the continuation parameter.
+     *
+     * @return The body of the response.
+     */
+    private static String response( String list, JsonArray results, String continueKey, String continueFrom ) {
+        JsonObject json = new JsonObject();
+        JsonObject query = new JsonObject();
+        JsonObject next = new JsonObject();
+
+        json.addProperty( "batchcomplete", true );
+        next.addProperty( continueKey, continueFrom );
+        next.addProperty( "continue", "-||" );
+        json.add( "continue", next );
+        query.add( list, results );
+        json.add( "query", query );
+
+        return json.toString();
+
+    }
+
+}
@@ -3,9 +3,17 @@ package io.github.iherongh.wikicraft;
 import dev.jorel.commandapi.CommandAPI;
 import dev.jorel.commandapi.CommandAPIPaperConfig;
 import io.github.iherongh.wikicraft.account.WCAccountBridge;
+import io.github.iherongh.wikicraft.async.WCAsync;
 import io.github.iherongh.wikicraft.commands.WCCommandWiki;
+import io.github.iherongh.wikicraft.config.WCConfigUtils;
+import io.github.iherongh.wikicraft.listeners.WCPlayerListener;
 import io.github.iherongh.wikicraft.messages.WCMessages;
+import io.github.iherongh.wikicraft.wiki.WCEditOutbox;
+import io.github.iherongh.wikicraft.wiki.WCEditQueue;
+import io.github.iherongh.wikicraft.wiki.WCHttpClient;
+import io.github.iherongh.wikicraft.wiki.WCTitleBatcher;
 import io.github.iherongh.wikicraft.wiki.WCWiki;
+import io.github.iherongh.wikicraft.wiki.WCWikiUtils;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.TextComponent;
 import net.kyori.adventure.text.format.TextColor;
@@ -14,6 +22,8 @@ import org.bukkit.Bukkit;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.File;
+
 /**
  * The main class for WikiCraft.
  */
@@ -63,7 +73,7 @@ public class WikiCraft extends JavaPlugin {
     /**
      * The singleton instance of the WikiCraft plugin.
      */
-    private static WikiCraft instance;
+    private static volatile WikiCraft instance;
 
     /**
      * The constructor for the WikiCraft plugin.
@@ -123,6 +133,24 @@ public class WikiCraft extends JavaPlugin {
             // Disable CommandAPI
             CommandAPI.onDisable();
 
+            // Stop refreshing caches
+            WCWikiUtils.stopCaches();
+
+            // Stop retrying page writes; unsaved writes stay in edit_outbox.json
+            WCEditQueue.getInstance().shutdown();
+
+            // Send any page lookups still waiting to be batched
+            WCTitleBatcher.getInstance().shutdown();
+
+            // Close idle connections to the wiki
+            WCHttpClient.shutdown();
+
+            // Cancel in-flight wiki requests
+            WCAsync.shutdown();
+
+            // Write pending account link changes to account_bridge.json
+            WCAccountBridge.flushAccountData();
+
         } catch ( Exception e ) {
             WCMessages.debug( "severe", "Unable to disable WikiCraft: " + e.getMessage() );
 
@@ -164,9 +192,21 @@ public class WikiCraft extends JavaPlugin {
             // Build wiki on initialisation
             WCWiki.buildWiki();
 
+            // Start refreshing the page and user caches in the background
+            if ( WCWiki.getWiki() != null ) {
+                WCWikiUtils.startCaches();
+
+            }
+
+            // Resume page writes left in edit_outbox.json
+            WCEditQueue.getInstance().start( new WCEditOutbox( new File( getDataFolder(), "edit_outbox.json" ).toPath() ) );
+
             // Register commands
             registerCommand();
 
+            // Register listeners
+            registerListeners();
+
             // Load account_bridge.json file
             loadAccountBridge();
 
@@ -191,6 +231,9 @@ public class WikiCraft extends JavaPlugin {
             // Reload the config
             reloadConfig();
 
+            // Validate the settings read off the server thread
+            WCConfigUtils.loadSettings();
+
         } catch ( Exception e ) {
             throw new RuntimeException( e );
 
@@ -204,14 +247,11 @@ public class WikiCraft extends JavaPlugin {
         WCMessages.debug( "info", "Attempting to load account bridge..." );
 
         try {
-            WCAccountBridge.instantiateAccountFile();
-            WCMessages.debug( "info", "Account bridge file successfully loaded." );
-
             WCAccountBridge.loadAccountLinks();
             WCMessages.debug( "info", WCAccountBridge.getUUIDToWikiUserMap().size() + " link(s) from account bridge successfully loaded." );
 
         } catch ( Exception e ) {
-            WCMessages.debug( "warning", "Unable to generate account bridge file: " + e.getMessage() );
+            WCMessages.debug( "warning", "Unable to load account bridge: " + e.getMessage() );
 
         }
 
@@ -231,4 +271,17 @@ public class WikiCraft extends JavaPlugin {
 
     }
 
+    private void registerListeners() {
+        WCMessages.debug( "info", "Registering listeners..." );
+
+        try {
+            Bukkit.getPluginManager().registerEvents( new WCPlayerListener(), this );
+
+        } catch ( Exception e ) {
+            WCMessages.debug( "warning", "Listeners were unable to register: " + e.getMessage() );
+
+        }
+
+    }
+
 }
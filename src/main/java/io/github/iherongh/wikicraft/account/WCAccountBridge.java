@@ -1,10 +1,11 @@
 package io.github.iherongh.wikicraft.account;
 
-import com.google.gson.*;
 import io.github.iherongh.wikicraft.WikiCraft;
+import io.github.iherongh.wikicraft.config.WCConfigUtils;
 import io.github.iherongh.wikicraft.messages.WCMessages;
 import io.github.iherongh.wikicraft.utils.WCUtils;
 import io.github.iherongh.wikicraft.wiki.WCWiki;
+import io.github.iherongh.wikicraft.wiki.WCWikiUtils;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.event.ClickEvent;
 import net.kyori.adventure.text.event.HoverEvent;
@@ -13,9 +14,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -38,21 +37,19 @@ public class WCAccountBridge {
     }
 
     /**
-     * The file storing the account bridge.
+     * The file storing the account bridge, if {@code account-storage} is {@code json}.
      */
     private static final File accountsFile = new File( WikiCraft.getInstance().getDataFolder().getPath() + "/account_bridge.json" );
 
     /**
-     * Maps a UUID to a MediaWiki account, or vice versa.
+     * The database storing the account bridge, if {@code account-storage} is {@code sqlite}.
      */
-    private static final Map<UUID, String> uuidToWikiUser = new HashMap<>();
-    private static final Map<String, UUID> wikiUserToUUID = new HashMap<>();
+    private static final File accountsDatabase = new File( WikiCraft.getInstance().getDataFolder().getPath() + "/accounts.db" );
 
-    private static JsonObject cachedData = null;
-    private static long lastCached = 0;
-    private static final long CACHE_DURATION = 20000;
-
-    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    /**
+     * Where the account bridge is stored, chosen by {@code account-storage} in config.yml.
+     */
+    private static volatile WCAccountStorage storage = new WCJsonAccountStorage( accountsFile.toPath() );
 
     /**
      * Gets the accounts file.
@@ -69,49 +66,26 @@ public class WCAccountBridge {
     }
 
     /**
-     * Gets the cached account data.
+     * Gets where the account bridge is stored.
      *
-     * @return The account data.
-     */
-    public static JsonObject getCachedData() {
-        if ( cachedData == null || System.currentTimeMillis() - lastCached > CACHE_DURATION ) {
-            try {
-                if ( !getAccountsFile().exists() ) {
-                    instantiateAccountFile();
-
-                }
-
-            } catch ( Exception e ) {
-                WCMessages.debug( "warning", "Could not read account bridge file: " + e.getMessage() );
-
-            }
-
-        }
-
-        return cachedData;
-
-    }
-
-    /**
-     * Gets the map of UUIDs to MediaWiki accounts.
+     * @return Where the account bridge is stored.
      *
-     * @param data The account data.
+     * @since 0.2.0
      */
-    public static void setCachedData( JsonObject data ) {
-        cachedData = data;
-        lastCached = System.currentTimeMillis();
+    public static @NotNull WCAccountStorage getStorage() {
+        return storage;
 
     }
 
     /**
-     * Gets the map of UUIDs to MediaWiki accounts.
+     * Gets every current link, by MediaWiki account.
      *
-     * @return The map of UUIDs to MediaWiki accounts.
+     * @return The map of MediaWiki accounts to UUIDs.
      *
      * @since 0.1.0
      */
     public static Map<String, UUID> getWikiUserToUUIDMap() {
-        return wikiUserToUUID;
+        return storage.getLinksByWikiUser();
 
     }
 
@@ -124,146 +98,117 @@ public class WCAccountBridge {
      * @since 0.1.0
      */
     public static String UUIDOfWikiUser( String wikiUser ) {
-        return wikiUserToUUID.get( wikiUser ).toString();
+        return String.valueOf( storage.getUUID( wikiUser ) );
 
     }
 
     /**
-     * Gets the map of MediaWiki accounts to UUIDs.
+     * Gets every current link, by UUID.
      *
-     * @return The map of MediaWiki accounts to UUIDs.
+     * @return The map of UUIDs to MediaWiki accounts.
      *
      * @since 0.1.0
      */
     public static Map<UUID, String> getUUIDToWikiUserMap() {
-        return uuidToWikiUser;
+        return storage.getLinksByUUID();
 
     }
 
     /**
-     * Gets the map of MediaWiki accounts to UUIDs.
+     * Gets the MediaWiki account linked to a UUID.
      *
      * @param uuid The UUID of the player.
      *
-     * @return The map of MediaWiki accounts to UUIDs.
+     * @return The linked MediaWiki account, or {@code null} if the UUID is not linked.
      *
      * @since 0.2.0
      */
     public static String wikiUserOfUUID( String uuid ) {
-        return uuidToWikiUser.get( UUID.fromString( uuid ) );
+        return storage.getWikiUser( UUID.fromString( uuid ) );
 
     }
 
     /**
-     * Instantiates the account bridge file.
-     * <p>This method is called when the plugin is enabled and creates the accounts file if it does not exist.
+     * Creates the storage chosen by {@code account-storage} in config.yml.
+     *
+     * @param name The name of the storage.
+     *
+     * @return The storage.
+     *
+     * @since 0.2.0
      */
-    public static void instantiateAccountFile() {
-        try {
-            if ( !getAccountsFile().exists() ) {
-                if ( getAccountsFile().createNewFile() ) {
-                    WCMessages.debug( "info", "Created account bridge file." );
-
-                    JsonObject data = new JsonObject();
-                    data.add( "accounts", new JsonArray() );
-
-                    // Update file and cache
-                    updateAccountData( data );
-
-                }
-
-            }
-
-        } catch ( Exception e ) {
-            WCMessages.debug( "warning", "Could not create account bridge file: " + e.getMessage() );
+    private static @NotNull WCAccountStorage createStorage( @NotNull String name ) {
+        if ( name.equals( "sqlite" ) ) {
+            return new WCSQLiteAccountStorage( accountsDatabase.toPath() );
 
         }
 
+        return new WCJsonAccountStorage( accountsFile.toPath() );
+
     }
 
     /**
-     * Loads the account bridge file.
-     *
-     * @param data The data to load.
+     * Writes any pending changes and closes the account storage.
+     * <p>Called when WikiCraft is disabled.
      *
      * @since 0.2.0
      */
-    private static void updateAccountData( JsonObject data ) {
-        try ( FileWriter writer = new FileWriter( getAccountsFile() ) ) {
-            gson.toJson( data, writer );
-            setCachedData( data );
-            WCMessages.debug( "info", "Account data updated successfully" );
-
-        } catch ( Exception e ) {
-            WCMessages.throwError( e );
-
-        }
+    public static void flushAccountData() {
+        storage.close();
 
     }
 
     /**
-     * Updates the account bridge file.
-     *
-     * @param data The data to update.
-     * @param uuid The UUID of the player.
-     * @param wikiUsername The MediaWiki account of the player.
-     * @param mode The mode to use.
+     * Opens the storage chosen by {@code account-storage} in config.yml and loads the account bridge from it.
+     * <p>With {@code json} storage, this is the only time the file is read; every lookup afterwards is served from
+     * memory.
      *
      * @since 0.2.0
      */
-    private static void updateAccountData( JsonObject data, UUID uuid, String wikiUsername, @NotNull String mode ) {
-        updateAccountData( data );
+    public static void loadAccountLinks() {
+        try {
+            WCAccountStorage opened = createStorage( WCConfigUtils.getAccountStorage() );
+            opened.load();
 
-        switch ( mode.toLowerCase() ) {
-            case "add" -> {
-                getUUIDToWikiUserMap().put( uuid, wikiUsername );
-                getWikiUserToUUIDMap().put( wikiUsername, uuid );
+            storage.close();
+            storage = opened;
 
-            }
-            case "remove" -> {
-                getUUIDToWikiUserMap().remove( uuid );
-                getWikiUserToUUIDMap().remove( wikiUsername );
+            WCMessages.debug( "info", "Loaded " + storage.getLinksByUUID().size() + " account link(s) from " + storage.getName() + " storage" );
+            WCWikiUtils.accountLinksChanged();
 
-            }
-            default -> WCMessages.debug( "warning", "Invalid mode: " + mode );
+        } catch ( Exception e ) {
+            WCMessages.debug( "error", "Failed to load account links: " + e.getMessage() );
 
         }
 
     }
+
     /**
-      * Loads accounts in the account bridge file to the plugin's account maps.
+     * Imports account_bridge.json, along with its journal, into the current storage.
+     * <p>Entries already in the storage with the same UUID are replaced.
+     *
+     * @return The number of entries imported.
+     *
+     * @throws IllegalStateException If the current storage is already {@code json}.
+     * @throws Exception If account_bridge.json could not be read, or the entries could not be stored.
      *
      * @since 0.2.0
-      */
-    public static void loadAccountLinks() {
-        try ( FileReader reader = new FileReader( getAccountsFile() ) ) {
-            JsonObject data = gson.fromJson( reader, JsonObject.class );
-            JsonArray accounts = data.getAsJsonArray( "accounts" );
-
-            for ( JsonElement element : accounts ) {
-                JsonObject account = element.getAsJsonObject();
-
-                UUID uuid = UUID.fromString( account.get( "uuid" ).getAsString());
-                String wikiUsername = account.get( "wiki_account" ).getAsString();
-                boolean linked = account.get( "linked" ).getAsBoolean();
-
-                if ( linked ) {
-                    uuidToWikiUser.put( uuid, wikiUsername );
-                    wikiUserToUUID.put( wikiUsername, uuid );
-                    WCMessages.debug( "info", "Loaded account link: " + wikiUsername + " <-> " + WCUtils.getPlayer( uuid ).getName() );
-
-                }
+     */
+    public static int migrateFromJson() throws Exception {
+        if ( storage.getName().equals( "json" ) ) {
+            throw new IllegalStateException( "Account storage is already json." );
 
-            }
+        }
 
-            WCMessages.debug( "info", "Loaded " + uuidToWikiUser.size() + " account link(s)" );
+        List<WCAccountLink> entries = WCJsonAccountStorage.read( accountsFile.toPath() ).getEntries();
+        WCMessages.debug( "info", "Migrating " + entries.size() + " account(s) from " + accountsFile.getName() + " to " + storage.getName() + " storage..." );
 
-        } catch ( Exception e ) {
-            WCMessages.debug("error", "Failed to load account links: " + e.getMessage() );
-
-        }
+        int imported = storage.importEntries( entries );
+        WCWikiUtils.accountLinksChanged();
+        return imported;
 
     }
+
     /**
      * Gets the UUID associated with a MediaWiki account.
      *
@@ -273,28 +218,8 @@ public class WCAccountBridge {
      * @since 0.2.0
      */
     public static @Nullable String getUUID( String wikiUsername ) {
-        try ( FileReader reader = new FileReader( getAccountsFile() ) ) {
-            JsonObject data = gson.fromJson( reader, JsonObject.class );
-            JsonArray accounts = data.getAsJsonArray( "accounts" );
-
-            for ( JsonElement element : accounts ) {
-                JsonObject account = element.getAsJsonObject();
-
-                if ( account.get( "wiki_account" ).getAsString().equals( wikiUsername ) && account.get( "linked" ).getAsBoolean()) {
-                    String uuid = account.get( "uuid" ).getAsString();
-                    WCMessages.debug( "info", wikiUsername + " found linked to " + WCUtils.getPlayer( uuid ).getName() + " (UUID: " + uuid + ") ." );
-                    return uuid;
-
-                }
-
-            }
-
-        } catch ( Exception e ) {
-            WCMessages.throwError( e );
-
-        }
-
-        return null;
+        UUID uuid = storage.getUUID( wikiUsername );
+        return uuid == null ? null : uuid.toString();
 
     }
 
@@ -320,27 +245,7 @@ public class WCAccountBridge {
      * @since 0.1.0
      */
     public static @Nullable String getWikiUser( UUID uuid ) {
-        try ( FileReader reader = new FileReader( getAccountsFile() ) ) {
-            JsonObject data = gson.fromJson( reader, JsonObject.class );
-            JsonArray accounts = data.getAsJsonArray( "accounts" );
-
-            for ( JsonElement element : accounts ) {
-                JsonObject account = element.getAsJsonObject();
-                if ( account.get( "uuid" ).getAsString().equals( uuid.toString() ) && account.get( "linked" ).getAsBoolean() ) {
-                    String wikiUsername = account.get( "wiki_account" ).getAsString();
-                    WCMessages.debug( "info", uuid + " found linked to wiki user " + wikiUsername + "." );
-                    return wikiUsername;
-
-                }
-
-            }
-
-        } catch ( Exception e ) {
-            WCMessages.throwError( e );
-
-        }
-
-        return null;
+        return storage.getWikiUser( uuid );
 
     }
 
@@ -369,34 +274,22 @@ public class WCAccountBridge {
      * @since 0.1.0
      */
     public static @NotNull String requestLink( UUID uuid, String wikiUsername ) {
-        JsonObject data = getAccountData();
-        JsonArray accounts = data.getAsJsonArray( "accounts" );
-
-        for ( JsonElement element : accounts ) {
-            JsonObject account = element.getAsJsonObject();
-            if ( !account.get( "linked" ).getAsBoolean() ) {
-                continue;
-
-            }
-
-            if ( account.get( "uuid" ).getAsString().equals( uuid.toString() ) ) {
-                WCMessages.debug( "warning", WCUtils.getPlayer( uuid ).getName() + " is already linked to a wiki account!" );
-                return "uuid_already_linked";
-
-            }
+        if ( storage.getWikiUser( uuid ) != null ) {
+            WCMessages.debug( "warning", uuid + " is already linked to a wiki account!" );
+            return "uuid_already_linked";
 
-            if ( account.get( "wiki_account" ).getAsString().equals( wikiUsername ) ) {
-                WCMessages.debug( "warning", wikiUsername + " is already linked to a player!" );
-                return "mediawiki_account_already_linked";
+        }
 
-            }
+        if ( storage.getUUID( wikiUsername ) != null ) {
+            WCMessages.debug( "warning", wikiUsername + " is already linked to a player!" );
+            return "mediawiki_account_already_linked";
 
         }
 
         String wikiUserURL = "User:" + wikiUsername + "/WikiCraft";
 
         // Check if the user's WikiCraft subpage exists
-        if ( !WCWiki.getWiki().exists( wikiUserURL ) ) {
+        if ( !WCWikiUtils.pageExists( wikiUserURL ) ) {
             WCMessages.debug( "warning", "Could not find wiki page for " + wikiUsername + "!" );
             return "user_subpage_not_found";
 
@@ -425,7 +318,7 @@ public class WCAccountBridge {
 
     /**
      * Adds a link between a MediaWiki account and a UUID.
-     * <p>Checks if either the UUID or the MediaWiki username exists in the account bridge before verifying the link.
+     * <p>If either the UUID or the MediaWiki username already exists in the account bridge, its entry is re-used.
      *
      * @param uuid The UUID to link.
      * @param username The MediaWiki account to link.
@@ -436,46 +329,13 @@ public class WCAccountBridge {
     public static boolean addLink( UUID uuid, String username ) {
         WCMessages.debug( "info", "Starting link request for " + username + "..." );
 
-        try ( FileReader reader = new FileReader( getAccountsFile() ) ) {
-            JsonObject data = gson.fromJson( reader, JsonObject.class );
-            JsonArray accounts = data.getAsJsonArray( "accounts" );
-
-            // Check for existing links
-            for ( JsonElement element : accounts ) {
-                JsonObject account = element.getAsJsonObject();
-                String existingUUID = account.get( "uuid" ).getAsString();
-                String existingUsername = account.get( "wiki_account" ).getAsString();
-
-                if ( existingUUID.equals( uuid.toString() ) || existingUsername.equals( username ) ) {
-                    account.addProperty( "linked", true );
-                    account.addProperty( "last_link", System.currentTimeMillis() );
-                    updateAccountData( data, uuid, account.get( "wiki_account" ).getAsString(), "add" );
-                    return true;
-
-                }
-
-
-            }
-
-            // Create new link
-            JsonObject newAccount = new JsonObject();
-
-            newAccount.addProperty( "uuid", uuid.toString() );
-            newAccount.addProperty( "wiki_account", username );
-            newAccount.addProperty( "linked", true );
-            newAccount.addProperty( "last_link", System.currentTimeMillis() );
-            newAccount.addProperty( "last_edit", 0 );
-
-            accounts.add( newAccount );
-            updateAccountData( data );
-
-            getUUIDToWikiUserMap().put(uuid, username);
-            getWikiUserToUUIDMap().put(username, uuid);
-
+        try {
+            storage.link( uuid, username, System.currentTimeMillis() );
+            WCWikiUtils.accountLinksChanged();
             return true;
 
         } catch ( Exception e ) {
-            WCMessages.throwError( e );
+            WCMessages.debug( "warning", "Could not link " + uuid + " to " + username + ": " + e.getMessage() );
             return false;
 
         }
@@ -547,39 +407,22 @@ public class WCAccountBridge {
     private static void removeLink( @NotNull String wikiUser, UUID uuid ) {
         WCMessages.debug( "info", "Removing link between " + uuid + " and " + wikiUser + "..." );
 
-        try ( FileReader reader = new FileReader( getAccountsFile() ) ) {
-            JsonObject data = gson.fromJson( reader, JsonObject.class );
-            JsonArray accounts = data.getAsJsonArray( "accounts" );
-            JsonArray newAccounts = new JsonArray();
-
-            for ( JsonElement element : accounts ) {
-                JsonObject account = element.getAsJsonObject();
-
-                WCMessages.debug( "info", "Checking account " + account.get( "wiki_account" ).getAsString() + "..." );
-                if ( !account.get( "wiki_account" ).getAsString().equals( wikiUser ) ) {
-                    newAccounts.add( account );
-
-                } else {
-                    WCMessages.debug( "info", "Removing link for " + account.get( "wiki_account" ).getAsString() + "..." );
-                    account.addProperty( "linked", false );
-                    newAccounts.add( account );
-
-                }
+        try {
+            if ( !storage.unlink( wikiUser ) ) {
+                WCMessages.debug( "warning", wikiUser + " was not linked." );
+                return;
 
             }
 
-            data.add( "accounts", newAccounts );
-
-            WCMessages.debug( "info", "Writing new accounts file..." );
-            updateAccountData( data, uuid, wikiUser, "remove" );
-
-            WCMessages.debug( "info", "Unlinked " + wikiUser + " and " + WCUtils.getPlayer( uuid ).getName() + "." );
-
         } catch ( Exception e ) {
-            WCMessages.throwError( e );
+            WCMessages.debug( "warning", "Could not unlink " + wikiUser + ": " + e.getMessage() );
+            return;
 
         }
 
+        WCWikiUtils.accountLinksChanged();
+        WCMessages.debug( "info", "Unlinked " + wikiUser + " and " + uuid + "." );
+
     }
 
     /**
@@ -624,75 +467,38 @@ public class WCAccountBridge {
     }
 
     /**
-     * Gets the account data from the accounts file.
+     * Re-links a player to the MediaWiki account they were last linked to.
      *
-     * @return The account data.
-     */
-    public static JsonObject getAccountData() {
-        if ( cachedData == null || System.currentTimeMillis() - lastCached > CACHE_DURATION ) {
-            try ( FileReader reader = new FileReader( getAccountsFile() ) ) {
-                cachedData = gson.fromJson( reader, JsonObject.class );
-                lastCached = System.currentTimeMillis();
-                WCMessages.debug( "info", "Account cache refreshed." );
-
-            } catch ( Exception e ) {
-                WCMessages.throwError( e );
-
-            }
-
-        }
-
-        return cachedData;
-
-    }
-
-    /**
-     * Gets the accounts file.
+     * @param uuid The UUID of the player to re-link.
+     * @param wikiUser The MediaWiki account requested by the player.
      *
-     * @param uuid The UUID to get the accounts file for.
-     * @param wikiUser The MediaWiki account to get the accounts file for.
-     *
-     * @return The accounts file.
+     * @return <ul>
+     *            <li>{@code bridge_already_linked} if the player is already linked.
+     *            <li>{@code no_account} if the player has never been linked.
+     *            <li>{@code success} if the player was re-linked.
+     *            <li>{@code error} if the change could not be stored.
+     *        </ul>
      */
     public static @NotNull String relinkAccount( UUID uuid, String wikiUser ) {
 
         // Attempt to re-link an existing account bridge
         WCMessages.debug( "info", "Attempting to re-link account..." );
 
-        try ( FileReader reader = new FileReader( getAccountsFile() ) ) {
-            JsonObject data = gson.fromJson( reader, JsonObject.class );
-            JsonArray accounts = data.getAsJsonArray( "accounts" );
-
-            WCMessages.debug( "info", "Found " + accounts.size() + " account(s)" );
-
-            for ( JsonElement element : accounts ) {
-                JsonObject account = element.getAsJsonObject();
-
-                WCMessages.debug( "info", "Checking account: " + account.get( "wiki_account" ).getAsString() );
-                if ( account.get( "uuid" ).getAsString().equals( uuid.toString() ) ) {
-                    if ( account.get( "linked" ).getAsBoolean() ) {
-                        WCMessages.debug( "info", "Account already linked." );
-                        return "bridge_already_linked";
-
-                    }
-
-                    WCMessages.debug( "info", "Re-linking " + WCUtils.getPlayer( uuid ).getName() + " to " + account.get( "wiki_account" ).getAsString() + "..." );
-
-                    account.addProperty( "linked", true );
-                    account.addProperty( "last_link", System.currentTimeMillis() );
-
-                    updateAccountData( data, uuid, account.get( "wiki_account" ).getAsString(), "add" );
-
-                    return "success";
+        try {
+            String result = storage.relink( uuid, System.currentTimeMillis() );
 
-                }
+            if ( result.equals( "success" ) ) {
+                WCMessages.debug( "info", "Re-linked " + uuid + " to " + storage.getWikiUser( uuid ) + "." );
+                WCWikiUtils.accountLinksChanged();
+                return result;
 
             }
 
-            return "no_account";
+            WCMessages.debug( "info", "Could not re-link " + uuid + ": " + result );
+            return result;
 
         } catch ( Exception e ) {
-            WCMessages.throwError( e );
+            WCMessages.debug( "warning", "Could not re-link " + uuid + ": " + e.getMessage() );
             return "error";
 
         }
@@ -0,0 +1,430 @@
+package io.github.iherongh.wikicraft.account;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The in-memory account bridge, indexed by UUID and by MediaWiki account.
+ * <p>Every entry of account_bridge.json is held in memory, and the current links are kept in two hash maps so either
+ * side of a link is found in {@code O(1)}. Linking and unlinking update the maps in place, so they are {@code O(1)}
+ * too. Lookups never touch the disk; the file is only read once on load and written after a change.
+ * <p>Each UUID and each MediaWiki account has at most one link: linking one that is already linked elsewhere unlinks
+ * the other entry.
+ *
+ * @author iHeronGH
+ *
+ * @version 0.2.0
+ *
+ * @since 0.2.0
+ *
+ * @see WCAccountLink
+ * @see WCAccountBridge
+ */
+public final class WCAccountIndex {
+
+    /**
+     * Every entry, in the order they appear in account_bridge.json.
+     */
+    private final List<WCAccountLink> entries = new ArrayList<>();
+
+    /**
+     * Maps a UUID to its entry, linked or not.
+     */
+    private final Map<UUID, WCAccountLink> entriesByUUID = new HashMap<>();
+
+    /**
+     * Maps a MediaWiki account to its entry, linked or not.
+     */
+    private final Map<String, WCAccountLink> entriesByWikiUser = new HashMap<>();
+
+    /**
+     * Maps a UUID to its linked MediaWiki account.
+     */
+    private final Map<UUID, String> uuidToWikiUser = new ConcurrentHashMap<>();
+
+    /**
+     * Maps a MediaWiki account to its linked UUID.
+     */
+    private final Map<String, UUID> wikiUserToUUID = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new, empty {@code WCAccountIndex} object.
+     */
+    public WCAccountIndex() {}
+
+    /**
+     * Builds an index from the contents of account_bridge.json.
+     * <p>Malformed entries are skipped.
+     *
+     * @param data The contents of account_bridge.json.
+     *
+     * @return An index of every entry.
+     *
+     * @since 0.2.0
+     */
+    @Contract ( "_ -> new" )
+    public static @NotNull WCAccountIndex fromJson( @Nullable JsonObject data ) {
+        WCAccountIndex index = new WCAccountIndex();
+
+        if ( data == null || !data.has( "accounts" ) ) {
+            return index;
+
+        }
+
+        for ( JsonElement element : data.getAsJsonArray( "accounts" ) ) {
+            try {
+                index.entries.add( WCAccountLink.fromJson( element.getAsJsonObject() ) );
+
+            } catch ( RuntimeException ignored ) {
+                // Skip malformed entries rather than losing the whole bridge
+
+            }
+
+        }
+
+        index.reindex();
+        return index;
+
+    }
+
+    /**
+     * Writes every entry in the form of account_bridge.json.
+     *
+     * @return The contents of account_bridge.json.
+     *
+     * @since 0.2.0
+     */
+    public synchronized @NotNull JsonObject toJson() {
+        JsonObject data = new JsonObject();
+        JsonArray accounts = new JsonArray();
+
+        for ( WCAccountLink entry : entries ) {
+            accounts.add( entry.toJson() );
+
+        }
+
+        data.add( "accounts", accounts );
+        return data;
+
+    }
+
+    /**
+     * Gets the MediaWiki account linked to a UUID.
+     *
+     * @param uuid The UUID to look up.
+     *
+     * @return The linked MediaWiki account, or {@code null} if the UUID is not linked.
+     *
+     * @since 0.2.0
+     */
+    public @Nullable String getWikiUser( @NotNull UUID uuid ) {
+        return uuidToWikiUser.get( uuid );
+
+    }
+
+    /**
+     * Gets the UUID linked to a MediaWiki account.
+     *
+     * @param wikiUser The MediaWiki account to look up.
+     *
+     * @return The linked UUID, or {@code null} if the MediaWiki account is not linked.
+     *
+     * @since 0.2.0
+     */
+    public @Nullable UUID getUUID( @NotNull String wikiUser ) {
+        return wikiUserToUUID.get( wikiUser );
+
+    }
+
+    /**
+     * Gets a read-only view of every current link, by UUID.
+     *
+     * @return A read-only view of every current link, by UUID.
+     *
+     * @since 0.2.0
+     */
+    public @NotNull Map<UUID, String> getUUIDToWikiUserMap() {
+        return Collections.unmodifiableMap( uuidToWikiUser );
+
+    }
+
+    /**
+     * Gets a read-only view of every current link, by MediaWiki account.
+     *
+     * @return A read-only view of every current link, by MediaWiki account.
+     *
+     * @since 0.2.0
+     */
+    public @NotNull Map<String, UUID> getWikiUserToUUIDMap() {
+        return Collections.unmodifiableMap( wikiUserToUUID );
+
+    }
+
+    /**
+     * Links a UUID to a MediaWiki account.
+     * <p>If an entry already exists for the UUID, or failing that for the MediaWiki account, it is reused and updated
+     * to the new pair; otherwise a new entry is added.
+     *
+     * @param uuid     The UUID to link.
+     * @param wikiUser The MediaWiki account to link.
+     * @param now      The current time, in milliseconds.
+     *
+     * @return The linked entry.
+     *
+     * @since 0.2.0
+     */
+    public synchronized @NotNull WCAccountLink link( @NotNull UUID uuid, @NotNull String wikiUser, long now ) {
+        WCAccountLink entry = entriesByUUID.get( uuid );
+
+        if ( entry == null ) {
+            entry = entriesByWikiUser.get( wikiUser );
+
+        }
+
+        if ( entry == null ) {
+            entry = new WCAccountLink( uuid, wikiUser, true, now, 0 );
+            entries.add( entry );
+
+        } else {
+            unindex( entry );
+            entry.setUUID( uuid );
+            entry.setWikiAccount( wikiUser );
+            entry.setLinked( true );
+            entry.setLastLink( now );
+
+        }
+
+        index( entry );
+        return entry;
+
+    }
+
+    /**
+     * Re-links a UUID to the MediaWiki account it was last linked to.
+     *
+     * @param uuid The UUID to re-link.
+     * @param now  The current time, in milliseconds.
+     *
+     * @return <ul>
+     *            <li>{@code bridge_already_linked} if the UUID is already linked.
+     *            <li>{@code no_account} if the UUID has never been linked.
+     *            <li>{@code success} if the UUID was re-linked.
+     *        </ul>
+     *
+     * @since 0.2.0
+     */
+    public synchronized @NotNull String relink( @NotNull UUID uuid, long now ) {
+        WCAccountLink entry = entriesByUUID.get( uuid );
+
+        if ( entry == null ) {
+            return "no_account";
+
+        }
+
+        if ( entry.isLinked() ) {
+            return "bridge_already_linked";
+
+        }
+
+        entry.setLinked( true );
+        entry.setLastLink( now );
+
+        index( entry );
+        return "success";
+
+    }
+
+    /**
+     * Removes the link of a MediaWiki account, keeping its entry so it can be re-linked later.
+     *
+     * @param wikiUser The MediaWiki account to unlink.
+     *
+     * @return {@code true} if the MediaWiki account was linked, {@code false} otherwise.
+     *
+     * @since 0.2.0
+     */
+    public synchronized boolean unlink( @NotNull String wikiUser ) {
+        WCAccountLink entry = entriesByWikiUser.get( wikiUser );
+
+        if ( entry == null || !entry.isLinked() ) {
+            return false;
+
+        }
+
+        displace( entry );
+        return true;
+
+    }
+
+    /**
+     * Gets a copy of every entry, linked or not.
+     *
+     * @return A copy of every entry, in order.
+     *
+     * @since 0.2.0
+     */
+    public synchronized @NotNull List<WCAccountLink> getEntries() {
+        List<WCAccountLink> copies = new ArrayList<>( entries.size() );
+
+        for ( WCAccountLink entry : entries ) {
+            copies.add( new WCAccountLink( entry.getUUID(), entry.getWikiAccount(), entry.isLinked(), entry.getLastLink(), entry.getLastEdit() ) );
+
+        }
+
+        return copies;
+
+    }
+
+    /**
+     * Adds entries, replacing any existing entry with the same UUID.
+     *
+     * @param imported The entries to add.
+     *
+     * @return The number of entries added.
+     *
+     * @since 0.2.0
+     */
+    public synchronized int putAll( @NotNull Collection<WCAccountLink> imported ) {
+        for ( WCAccountLink entry : imported ) {
+            entries.removeIf( existing -> existing.getUUID().equals( entry.getUUID() ) );
+            entries.add( new WCAccountLink( entry.getUUID(), entry.getWikiAccount(), entry.isLinked(), entry.getLastLink(), entry.getLastEdit() ) );
+
+        }
+
+        reindex();
+        return imported.size();
+
+    }
+
+    /**
+     * Gets the number of entries, linked or not.
+     *
+     * @return The number of entries.
+     *
+     * @since 0.2.0
+     */
+    public synchronized int size() {
+        return entries.size();
+
+    }
+
+    /**
+     * Adds an entry to every map under its current UUID and MediaWiki account.
+     * <p>Any other entry already indexed under either of them is replaced, and unlinked if it was linked.
+     *
+     * @param entry The entry to index.
+     */
+    private void index( @NotNull WCAccountLink entry ) {
+        WCAccountLink sameUUID = entriesByUUID.put( entry.getUUID(), entry );
+        WCAccountLink sameWikiUser = entriesByWikiUser.put( entry.getWikiAccount(), entry );
+
+        if ( sameUUID != null && sameUUID != entry ) {
+            displace( sameUUID );
+
+        }
+
+        if ( sameWikiUser != null && sameWikiUser != entry ) {
+            displace( sameWikiUser );
+
+        }
+
+        if ( entry.isLinked() ) {
+            uuidToWikiUser.put( entry.getUUID(), entry.getWikiAccount() );
+            wikiUserToUUID.put( entry.getWikiAccount(), entry.getUUID() );
+
+        }
+
+    }
+
+    /**
+     * Removes an entry from every map it is indexed in under its current UUID and MediaWiki account.
+     *
+     * @param entry The entry to remove.
+     */
+    private void unindex( @NotNull WCAccountLink entry ) {
+        entriesByUUID.remove( entry.getUUID(), entry );
+        entriesByWikiUser.remove( entry.getWikiAccount(), entry );
+
+        if ( entry.isLinked() ) {
+            uuidToWikiUser.remove( entry.getUUID(), entry.getWikiAccount() );
+            wikiUserToUUID.remove( entry.getWikiAccount(), entry.getUUID() );
+
+        }
+
+    }
+
+    /**
+     * Unlinks an entry, removing its link from the maps of current links while keeping the entry itself.
+     *
+     * @param entry The entry to unlink.
+     */
+    private void displace( @NotNull WCAccountLink entry ) {
+        if ( entry.isLinked() ) {
+            uuidToWikiUser.remove( entry.getUUID(), entry.getWikiAccount() );
+            wikiUserToUUID.remove( entry.getWikiAccount(), entry.getUUID() );
+            entry.setLinked( false );
+
+        }
+
+    }
+
+    /**
+     * Rebuilds every map from the list of entries, after loading or importing them.
+     * <p>Where several linked entries share a UUID or MediaWiki account, the first one keeps its link, matching the
+     * order the file used to be scanned in; later ones are unlinked, so each side has at most one link. Linked entries
+     * are then indexed ahead of unlinked ones, so a UUID or MediaWiki account always finds its linked entry, and an
+     * unlinked duplicate is only found where no entry is linked.
+     */
+    private void reindex() {
+        entriesByUUID.clear();
+        entriesByWikiUser.clear();
+
+        Map<UUID, String> linkedByUUID = new HashMap<>();
+        Map<String, UUID> linkedByWikiUser = new HashMap<>();
+
+        for ( WCAccountLink entry : entries ) {
+            if ( !entry.isLinked() ) {
+                continue;
+
+            }
+
+            if ( linkedByUUID.containsKey( entry.getUUID() ) || linkedByWikiUser.containsKey( entry.getWikiAccount() ) ) {
+                entry.setLinked( false );
+                continue;
+
+            }
+
+            linkedByUUID.put( entry.getUUID(), entry.getWikiAccount() );
+            linkedByWikiUser.put( entry.getWikiAccount(), entry.getUUID() );
+            entriesByUUID.put( entry.getUUID(), entry );
+            entriesByWikiUser.put( entry.getWikiAccount(), entry );
+
+        }
+
+        for ( WCAccountLink entry : entries ) {
+            entriesByUUID.putIfAbsent( entry.getUUID(), entry );
+            entriesByWikiUser.putIfAbsent( entry.getWikiAccount(), entry );
+
+        }
+
+        uuidToWikiUser.keySet().retainAll( linkedByUUID.keySet() );
+        uuidToWikiUser.putAll( linkedByUUID );
+        wikiUserToUUID.keySet().retainAll( linkedByWikiUser.keySet() );
+        wikiUserToUUID.putAll( linkedByWikiUser );
+
+    }
+
+}
@@ -0,0 +1,326 @@
+package io.github.iherongh.wikicraft.account;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedReader;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+/**
+ * An append-only log of changes made to the account bridge since it was last written in full.
+ * <p>Each link, unlink and re-link is appended as a single line of JSON, so recording a change costs the same however
+ * many accounts are linked. On load, the journal is replayed on top of the last full snapshot. A line cut short by a
+ * crash is simply skipped on replay, so at most the change being written is lost.
+ * <p>Before the account bridge is written in full, the journal is rotated aside; the rotated changes are only
+ * discarded once the new snapshot is safely on disk, while new changes keep being appended in the meantime.
+ *
+ * @author iHeronGH
+ *
+ * @version 0.2.0
+ *
+ * @since 0.2.0
+ *
+ * @see WCAccountJournal#append(JsonObject)
+ * @see WCAccountJournal#replay(WCAccountIndex)
+ * @see WCAccountBridge
+ */
+public final class WCAccountJournal {
+
+    /**
+     * The journal file.
+     */
+    private final Path file;
+
+    /**
+     * The file holding changes rotated aside while a snapshot is written.
+     */
+    private final Path rotated;
+
+    /**
+     * The number of changes in the journal.
+     */
+    private int size;
+
+    private static final Gson gson = new Gson();
+
+    /**
+     * Constructs a new {@code WCAccountJournal} object.
+     *
+     * @param file The journal file.
+     */
+    public WCAccountJournal( @NotNull Path file ) {
+        this.file = file;
+        this.rotated = file.resolveSibling( file.getFileName() + ".old" );
+
+    }
+
+    /**
+     * Builds a change linking a UUID to a MediaWiki account.
+     *
+     * @param uuid     The UUID linked.
+     * @param wikiUser The MediaWiki account linked.
+     * @param time     The time of the change, in milliseconds.
+     *
+     * @return The change.
+     *
+     * @since 0.2.0
+     */
+    @Contract ( "_, _, _ -> new" )
+    public static @NotNull JsonObject link( @NotNull UUID uuid, @NotNull String wikiUser, long time ) {
+        JsonObject change = new JsonObject();
+
+        change.addProperty( "op", "link" );
+        change.addProperty( "uuid", uuid.toString() );
+        change.addProperty( "wiki_account", wikiUser );
+        change.addProperty( "time", time );
+
+        return change;
+
+    }
+
+    /**
+     * Builds a change removing the link of a MediaWiki account.
+     *
+     * @param wikiUser The MediaWiki account unlinked.
+     * @param time     The time of the change, in milliseconds.
+     *
+     * @return The change.
+     *
+     * @since 0.2.0
+     */
+    @Contract ( "_, _ -> new" )
+    public static @NotNull JsonObject unlink( @NotNull String wikiUser, long time ) {
+        JsonObject change = new JsonObject();
+
+        change.addProperty( "op", "unlink" );
+        change.addProperty( "wiki_account", wikiUser );
+        change.addProperty( "time", time );
+
+        return change;
+
+    }
+
+    /**
+     * Builds a change re-linking a UUID to the MediaWiki account it was last linked to.
+     *
+     * @param uuid The UUID re-linked.
+     * @param time The time of the change, in milliseconds.
+     *
+     * @return The change.
+     *
+     * @since 0.2.0
+     */
+    @Contract ( "_, _ -> new" )
+    public static @NotNull JsonObject relink( @NotNull UUID uuid, long time ) {
+        JsonObject change = new JsonObject();
+
+        change.addProperty( "op", "relink" );
+        change.addProperty( "uuid", uuid.toString() );
+        change.addProperty( "time", time );
+
+        return change;
+
+    }
+
+    /**
+     * Applies a change to an index.
+     *
+     * @param index  The index to apply the change to.
+     * @param change The change to apply.
+     *
+     * @throws IllegalArgumentException If the change is malformed or of an unknown type.
+     *
+     * @since 0.2.0
+     */
+    public static void apply( @NotNull WCAccountIndex index, @NotNull JsonObject change ) {
+        try {
+            long time = change.get( "time" ).getAsLong();
+
+            switch ( change.get( "op" ).getAsString() ) {
+                case "link" -> index.link( UUID.fromString( change.get( "uuid" ).getAsString() ), change.get( "wiki_account" ).getAsString(), time );
+                case "unlink" -> index.unlink( change.get( "wiki_account" ).getAsString() );
+                case "relink" -> index.relink( UUID.fromString( change.get( "uuid" ).getAsString() ), time );
+                default -> throw new IllegalArgumentException( "Unknown account journal change: " + change.get( "op" ).getAsString() );
+
+            }
+
+        } catch ( NullPointerException | IllegalStateException | UnsupportedOperationException e ) {
+            throw new IllegalArgumentException( "Malformed account journal change: " + change, e );
+
+        }
+
+    }
+
+    /**
+     * Appends a change to the end of the journal.
+     * <p>The change is written as a single line and flushed to disk before this method returns, so this must not be
+     * called on the main thread.
+     *
+     * @param change The change to append.
+     *
+     * @throws IOException If the change could not be written.
+     *
+     * @since 0.2.0
+     */
+    public synchronized void append( @NotNull JsonObject change ) throws IOException {
+        byte[] line = ( gson.toJson( change ) + "\n" ).getBytes( StandardCharsets.UTF_8 );
+
+        try ( FileOutputStream stream = new FileOutputStream( file.toFile(), true ) ) {
+            stream.write( line );
+            stream.getFD().sync();
+
+        }
+
+        size++;
+
+    }
+
+    /**
+     * Replays every change in the journal on top of an index, starting with any changes rotated aside by a snapshot
+     * that never finished.
+     * <p>Lines that cannot be read, such as one cut short by a crash, are skipped.
+     *
+     * @param index The index to apply the changes to.
+     *
+     * @return The number of changes applied.
+     *
+     * @throws IOException If the journal could not be read.
+     *
+     * @since 0.2.0
+     */
+    public synchronized int replay( @NotNull WCAccountIndex index ) throws IOException {
+        int applied = replay( rotated, index );
+
+        size = 0;
+        applied += replay( file, index );
+
+        return applied;
+
+    }
+
+    /**
+     * Replays every change in a file on top of an index.
+     *
+     * @param source The file to read changes from.
+     * @param index  The index to apply the changes to.
+     *
+     * @return The number of changes applied.
+     *
+     * @throws IOException If the file could not be read.
+     */
+    private int replay( Path source, WCAccountIndex index ) throws IOException {
+        if ( !Files.exists( source ) ) {
+            return 0;
+
+        }
+
+        int applied = 0;
+
+        try ( BufferedReader reader = Files.newBufferedReader( source, StandardCharsets.UTF_8 ) ) {
+            String line;
+
+            while ( ( line = reader.readLine() ) != null ) {
+                if ( line.isBlank() ) {
+                    continue;
+
+                }
+
+                size++;
+
+                try {
+                    apply( index, gson.fromJson( line, JsonObject.class ) );
+                    applied++;
+
+                } catch ( JsonParseException | IllegalArgumentException | NullPointerException ignored ) {
+                    // Skip a change cut short by a crash, or otherwise unreadable
+
+                }
+
+            }
+
+        }
+
+        return applied;
+
+    }
+
+    /**
+     * Moves every change in the journal aside, so new changes start a fresh journal.
+     * <p>Call this at the moment a snapshot of the account bridge is taken, then {@link #discardRotated()} once the
+     * snapshot is on disk. If the previous snapshot never finished, its rotated changes are kept and the current
+     * ones are added after them.
+     *
+     * @throws IOException If the journal could not be moved.
+     *
+     * @since 0.2.0
+     */
+    public synchronized void rotate() throws IOException {
+        if ( Files.exists( file ) ) {
+            if ( Files.exists( rotated ) ) {
+                try ( OutputStream stream = Files.newOutputStream( rotated, StandardOpenOption.APPEND ) ) {
+                    Files.copy( file, stream );
+
+                }
+
+                Files.delete( file );
+
+            } else {
+                Files.move( file, rotated, StandardCopyOption.ATOMIC_MOVE );
+
+            }
+
+        }
+
+        size = 0;
+
+    }
+
+    /**
+     * Deletes the changes rotated aside by {@link #rotate()}.
+     * <p>Only call this once a snapshot containing every rotated change is on disk.
+     *
+     * @throws IOException If the rotated changes could not be deleted.
+     *
+     * @since 0.2.0
+     */
+    public synchronized void discardRotated() throws IOException {
+        Files.deleteIfExists( rotated );
+
+    }
+
+    /**
+     * Gets the number of changes in the journal.
+     *
+     * @return The number of changes in the journal.
+     *
+     * @since 0.2.0
+     */
+    public synchronized int size() {
+        return size;
+
+    }
+
+    /**
+     * Gets the journal file.
+     *
+     * @return The journal file.
+     *
+     * @since 0.2.0
+     */
+    public @NotNull Path getFile() {
+        return file;
+
+    }
+
+}
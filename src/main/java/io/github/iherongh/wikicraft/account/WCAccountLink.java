@@ -0,0 +1,229 @@
+package io.github.iherongh.wikicraft.account;
+
+import com.google.gson.JsonObject;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+
+/**
+ * A single entry of the account bridge, pairing a player's UUID with a MediaWiki account.
+ * <p>Entries are kept after a link is removed, with {@link #isLinked()} set to {@code false}, so an account can be
+ * re-linked later.
+ *
+ * @author iHeronGH
+ *
+ * @version 0.2.0
+ *
+ * @since 0.2.0
+ *
+ * @see WCAccountIndex
+ */
+public final class WCAccountLink {
+
+    /**
+     * The UUID of the player.
+     */
+    private UUID uuid;
+
+    /**
+     * The MediaWiki account of the player.
+     */
+    private String wikiAccount;
+
+    /**
+     * Whether the player and MediaWiki account are currently linked.
+     */
+    private boolean linked;
+
+    /**
+     * The last time the account was linked, in milliseconds.
+     */
+    private long lastLink;
+
+    /**
+     * The last time the player edited the wiki, in milliseconds.
+     */
+    private long lastEdit;
+
+    /**
+     * Constructs a new {@code WCAccountLink} object.
+     *
+     * @param uuid        The UUID of the player.
+     * @param wikiAccount The MediaWiki account of the player.
+     * @param linked      Whether the player and MediaWiki account are currently linked.
+     * @param lastLink    The last time the account was linked, in milliseconds.
+     * @param lastEdit    The last time the player edited the wiki, in milliseconds.
+     */
+    public WCAccountLink( @NotNull UUID uuid, @NotNull String wikiAccount, boolean linked, long lastLink, long lastEdit ) {
+        this.uuid = uuid;
+        this.wikiAccount = wikiAccount;
+        this.linked = linked;
+        this.lastLink = lastLink;
+        this.lastEdit = lastEdit;
+
+    }
+
+    /**
+     * Reads an entry from its form in account_bridge.json.
+     *
+     * @param json The entry as a JSON object.
+     *
+     * @return The entry.
+     *
+     * @since 0.2.0
+     */
+    @Contract ( "_ -> new" )
+    public static @NotNull WCAccountLink fromJson( @NotNull JsonObject json ) {
+        return new WCAccountLink(
+            UUID.fromString( json.get( "uuid" ).getAsString() ),
+            json.get( "wiki_account" ).getAsString(),
+            json.has( "linked" ) && json.get( "linked" ).getAsBoolean(),
+            json.has( "last_link" ) ? json.get( "last_link" ).getAsLong() : 0,
+            json.has( "last_edit" ) ? json.get( "last_edit" ).getAsLong() : 0
+
+        );
+
+    }
+
+    /**
+     * Writes the entry in its form in account_bridge.json.
+     *
+     * @return The entry as a JSON object.
+     *
+     * @since 0.2.0
+     */
+    public @NotNull JsonObject toJson() {
+        JsonObject json = new JsonObject();
+
+        json.addProperty( "uuid", uuid.toString() );
+        json.addProperty( "wiki_account", wikiAccount );
+        json.addProperty( "linked", linked );
+        json.addProperty( "last_link", lastLink );
+        json.addProperty( "last_edit", lastEdit );
+
+        return json;
+
+    }
+
+    /**
+     * Gets the UUID of the player.
+     *
+     * @return The UUID of the player.
+     *
+     * @since 0.2.0
+     */
+    public @NotNull UUID getUUID() {
+        return uuid;
+
+    }
+
+    /**
+     * Sets the UUID of the player.
+     *
+     * @param uuid The UUID of the player.
+     *
+     * @since 0.2.0
+     */
+    void setUUID( @NotNull UUID uuid ) {
+        this.uuid = uuid;
+
+    }
+
+    /**
+     * Gets the MediaWiki account of the player.
+     *
+     * @return The MediaWiki account of the player.
+     *
+     * @since 0.2.0
+     */
+    public @NotNull String getWikiAccount() {
+        return wikiAccount;
+
+    }
+
+    /**
+     * Sets the MediaWiki account of the player.
+     *
+     * @param wikiAccount The MediaWiki account of the player.
+     *
+     * @since 0.2.0
+     */
+    void setWikiAccount( @NotNull String wikiAccount ) {
+        this.wikiAccount = wikiAccount;
+
+    }
+
+    /**
+     * Checks whether the player and MediaWiki account are currently linked.
+     *
+     * @return {@code true} if they are linked, {@code false} otherwise.
+     *
+     * @since 0.2.0
+     */
+    public boolean isLinked() {
+        return linked;
+
+    }
+
+    /**
+     * Sets whether the player and MediaWiki account are currently linked.
+     *
+     * @param linked Whether the player and MediaWiki account are currently linked.
+     *
+     * @since 0.2.0
+     */
+    void setLinked( boolean linked ) {
+        this.linked = linked;
+
+    }
+
+    /**
+     * Gets the last time the account was linked.
+     *
+     * @return The last time the account was linked, in milliseconds.
+     *
+     * @since 0.2.0
+     */
+    public long getLastLink() {
+        return lastLink;
+
+    }
+
+    /**
+     * Sets the last time the account was linked.
+     *
+     * @param lastLink The last time the account was linked, in milliseconds.
+     *
+     * @since 0.2.0
+     */
+    void setLastLink( long lastLink ) {
+        this.lastLink = lastLink;
+
+    }
+
+    /**
+     * Gets the last time the player edited the wiki.
+     *
+     * @return The last time the player edited the wiki, in milliseconds.
+     *
+     * @since 0.2.0
+     */
+    public long getLastEdit() {
+        return lastEdit;
+
+    }
+
+    /**
+     * Sets the last time the player edited the wiki.
+     *
+     * @param lastEdit The last time the player edited the wiki, in milliseconds.
+     *
+     * @since 0.2.0
+     */
+    void setLastEdit( long lastEdit ) {
+        this.lastEdit = lastEdit;
+
+    }
+
+}
@@ -0,0 +1,217 @@
+package io.github.iherongh.wikicraft.account;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import io.github.iherongh.wikicraft.messages.WCMessages;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Writes the account bridge to disk in the background.
+ * <p>Changes made within a short window are coalesced into a single write, made on a dedicated thread so the thread
+ * that made the change never waits on the disk. Each write goes to a temporary file which is synced to disk and then
+ * atomically renamed over the old file, so the file on disk is always either the old bridge or the new one, never a
+ * mix of both.
+ *
+ * @author iHeronGH
+ *
+ * @version 0.2.0
+ *
+ * @since 0.2.0
+ *
+ * @see WCAccountPersister#requestSave(long)
+ * @see WCAccountPersister#flush()
+ * @see WCAccountBridge
+ */
+public final class WCAccountPersister {
+
+    /**
+     * The file the account bridge is written to.
+     */
+    private final Path target;
+
+    /**
+     * Takes a snapshot of the account bridge to write.
+     */
+    private final Supplier<JsonObject> snapshot;
+
+    /**
+     * Runs once a snapshot is safely on disk.
+     */
+    private final Runnable onSaved;
+
+    /**
+     * The thread writes are made on.
+     */
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor( task -> {
+        Thread thread = new Thread( task, "WikiCraft-Accounts" );
+        thread.setDaemon( true );
+        return thread;
+
+    } );
+
+    /**
+     * The write waiting to be made, or {@code null} if there is none.
+     */
+    private ScheduledFuture<?> pending;
+
+    /**
+     * Held while writing, so two snapshots are never written at the same time.
+     */
+    private final Object writeLock = new Object();
+
+    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+
+    /**
+     * Constructs a new {@code WCAccountPersister} object.
+     *
+     * @param target   The file the account bridge is written to.
+     * @param snapshot Takes a snapshot of the account bridge to write.
+     * @param onSaved  Runs once a snapshot is safely on disk.
+     */
+    public WCAccountPersister( @NotNull Path target, @NotNull Supplier<JsonObject> snapshot, @NotNull Runnable onSaved ) {
+        this.target = target;
+        this.snapshot = snapshot;
+        this.onSaved = onSaved;
+
+    }
+
+    /**
+     * Schedules the account bridge to be written.
+     * <p>If a write is already waiting, no new write is scheduled, unless this one is due sooner.
+     *
+     * @param delay How long to wait for more changes before writing, in milliseconds.
+     *
+     * @since 0.2.0
+     */
+    public synchronized void requestSave( long delay ) {
+        if ( writer.isShutdown() ) {
+            return;
+
+        }
+
+        if ( pending != null && !pending.isDone() ) {
+            if ( pending.getDelay( TimeUnit.MILLISECONDS ) <= delay ) {
+                return;
+
+            }
+
+            pending.cancel( false );
+
+        }
+
+        pending = writer.schedule( this::save, Math.max( 0, delay ), TimeUnit.MILLISECONDS );
+
+    }
+
+    /**
+     * Writes the account bridge now, on the calling thread, cancelling any waiting write.
+     *
+     * @return {@code true} if the account bridge was written, {@code false} otherwise.
+     *
+     * @since 0.2.0
+     */
+    public boolean flush() {
+        synchronized ( this ) {
+            if ( pending != null ) {
+                pending.cancel( false );
+                pending = null;
+
+            }
+
+        }
+
+        return save();
+
+    }
+
+    /**
+     * Writes any waiting changes and stops the writer thread.
+     * <p>Called when WikiCraft is disabled.
+     *
+     * @since 0.2.0
+     */
+    public void shutdown() {
+        flush();
+
+        synchronized ( this ) {
+            writer.shutdown();
+
+        }
+
+    }
+
+    /**
+     * Takes a snapshot of the account bridge and writes it.
+     *
+     * @return {@code true} if the account bridge was written, {@code false} otherwise.
+     */
+    private boolean save() {
+        synchronized ( writeLock ) {
+            try {
+                write( target, snapshot.get() );
+                onSaved.run();
+                WCMessages.debug( "info", "Account data updated successfully" );
+                return true;
+
+            } catch ( Exception e ) {
+                WCMessages.debug( "warning", "Could not write account bridge: " + e.getMessage() );
+                return false;
+
+            }
+
+        }
+
+    }
+
+    /**
+     * Writes JSON to a file, replacing it atomically.
+     * <p>The data is written to a temporary file beside the target, synced to disk, then renamed over the target.
+     *
+     * @param target The file to write.
+     * @param data   The data to write.
+     *
+     * @throws IOException If the file could not be written.
+     *
+     * @since 0.2.0
+     */
+    static void write( @NotNull Path target, @NotNull JsonObject data ) throws IOException {
+        Path temp = target.resolveSibling( target.getFileName() + ".tmp" );
+        ByteBuffer bytes = ByteBuffer.wrap( gson.toJson( data ).getBytes( StandardCharsets.UTF_8 ) );
+
+        try ( FileChannel channel = FileChannel.open( temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING ) ) {
+            while ( bytes.hasRemaining() ) {
+                channel.write( bytes );
+
+            }
+
+            channel.force( true );
+
+        }
+
+        try {
+            Files.move( temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+
+        } catch ( AtomicMoveNotSupportedException e ) {
+            Files.move( temp, target, StandardCopyOption.REPLACE_EXISTING );
+
+        }
+
+    }
+
+}
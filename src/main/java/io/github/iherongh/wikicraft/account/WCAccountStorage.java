@@ -0,0 +1,158 @@
+package io.github.iherongh.wikicraft.account;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Where the account bridge is stored.
+ * <p>The storage used is chosen by {@code account-storage} in config.yml. Every implementation indexes entries by
+ * UUID and by MediaWiki account, so either side of a link is found without scanning every entry.
+ *
+ * @author iHeronGH
+ *
+ * @version 0.2.0
+ *
+ * @since 0.2.0
+ *
+ * @see WCJsonAccountStorage
+ * @see WCSQLiteAccountStorage
+ * @see WCAccountBridge
+ */
+public interface WCAccountStorage {
+
+    /**
+     * Gets the name of the storage, as used by {@code account-storage} in config.yml.
+     *
+     * @return The name of the storage.
+     *
+     * @since 0.2.0
+     */
+    @NotNull String getName();
+
+    /**
+     * Opens the storage, creating it if it does not exist.
+     *
+     * @throws Exception If the storage could not be opened.
+     *
+     * @since 0.2.0
+     */
+    void load() throws Exception;
+
+    /**
+     * Gets the MediaWiki account linked to a UUID.
+     *
+     * @param uuid The UUID to look up.
+     *
+     * @return The linked MediaWiki account, or {@code null} if the UUID is not linked.
+     *
+     * @since 0.2.0
+     */
+    @Nullable String getWikiUser( @NotNull UUID uuid );
+
+    /**
+     * Gets the UUID linked to a MediaWiki account.
+     *
+     * @param wikiUser The MediaWiki account to look up.
+     *
+     * @return The linked UUID, or {@code null} if the MediaWiki account is not linked.
+     *
+     * @since 0.2.0
+     */
+    @Nullable UUID getUUID( @NotNull String wikiUser );
+
+    /**
+     * Gets every current link, by UUID.
+     *
+     * @return A read-only map of every current link, by UUID.
+     *
+     * @since 0.2.0
+     */
+    @NotNull Map<UUID, String> getLinksByUUID();
+
+    /**
+     * Gets every current link, by MediaWiki account.
+     *
+     * @return A read-only map of every current link, by MediaWiki account.
+     *
+     * @since 0.2.0
+     */
+    @NotNull Map<String, UUID> getLinksByWikiUser();
+
+    /**
+     * Links a UUID to a MediaWiki account.
+     * <p>If an entry already exists for the UUID, or failing that for the MediaWiki account, it is reused.
+     *
+     * @param uuid     The UUID to link.
+     * @param wikiUser The MediaWiki account to link.
+     * @param now      The current time, in milliseconds.
+     *
+     * @throws Exception If the link could not be stored.
+     *
+     * @since 0.2.0
+     */
+    void link( @NotNull UUID uuid, @NotNull String wikiUser, long now ) throws Exception;
+
+    /**
+     * Removes the link of a MediaWiki account, keeping its entry so it can be re-linked later.
+     *
+     * @param wikiUser The MediaWiki account to unlink.
+     *
+     * @return {@code true} if the MediaWiki account was linked, {@code false} otherwise.
+     *
+     * @throws Exception If the change could not be stored.
+     *
+     * @since 0.2.0
+     */
+    boolean unlink( @NotNull String wikiUser ) throws Exception;
+
+    /**
+     * Re-links a UUID to the MediaWiki account it was last linked to.
+     *
+     * @param uuid The UUID to re-link.
+     * @param now  The current time, in milliseconds.
+     *
+     * @return {@code bridge_already_linked}, {@code no_account} or {@code success}.
+     *
+     * @throws Exception If the change could not be stored.
+     *
+     * @since 0.2.0
+     */
+    @NotNull String relink( @NotNull UUID uuid, long now ) throws Exception;
+
+    /**
+     * Gets every entry, linked or not.
+     *
+     * @return Every entry.
+     *
+     * @throws Exception If the entries could not be read.
+     *
+     * @since 0.2.0
+     */
+    @NotNull List<WCAccountLink> getEntries() throws Exception;
+
+    /**
+     * Adds entries to the storage, replacing any existing entry with the same UUID.
+     *
+     * @param entries The entries to add.
+     *
+     * @return The number of entries added.
+     *
+     * @throws Exception If the entries could not be stored.
+     *
+     * @since 0.2.0
+     */
+    int importEntries( @NotNull Collection<WCAccountLink> entries ) throws Exception;
+
+    /**
+     * Writes any pending changes and closes the storage.
+     *
+     * @since 0.2.0
+     */
+    void close();
+
+}
@@ -0,0 +1,331 @@
+package io.github.iherongh.wikicraft.account;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import io.github.iherongh.wikicraft.config.WCConfigUtils;
+import io.github.iherongh.wikicraft.messages.WCMessages;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Stores the account bridge in account_bridge.json.
+ * <p>The whole bridge is held in memory as a {@link WCAccountIndex}. Each change is appended to a
+ * {@link WCAccountJournal}, and the file is rewritten in the background by a {@link WCAccountPersister}.
+ *
+ * @author iHeronGH
+ *
+ * @version 0.2.0
+ *
+ * @since 0.2.0
+ *
+ * @see WCAccountStorage
+ * @see WCSQLiteAccountStorage
+ */
+public final class WCJsonAccountStorage implements WCAccountStorage {
+
+    /**
+     * The file storing the account bridge.
+     */
+    private final Path file;
+
+    /**
+     * The account bridge, held in memory and indexed by UUID and by MediaWiki account.
+     * <p>Loaded once from {@link #file}; the file is only written to after a change.
+     */
+    private volatile WCAccountIndex index = new WCAccountIndex();
+
+    /**
+     * The log of changes made since the account bridge file was last written.
+     */
+    private final WCAccountJournal journal;
+
+    /**
+     * Held while changing the account bridge, so a change and its journal entry are never split by a snapshot.
+     */
+    private final Object lock = new Object();
+
+    /**
+     * Writes the account bridge file in the background, coalescing changes made close together.
+     */
+    private final WCAccountPersister persister;
+
+    /**
+     * Whether the account bridge file has been loaded, so an empty bridge is never written over it.
+     */
+    private volatile boolean loaded = false;
+
+    private static final Gson gson = new Gson();
+
+    /**
+     * Constructs a new {@code WCJsonAccountStorage} object.
+     *
+     * @param file The file storing the account bridge.
+     */
+    public WCJsonAccountStorage( @NotNull Path file ) {
+        this.file = file;
+        this.journal = new WCAccountJournal( journalFile( file ) );
+        this.persister = new WCAccountPersister( file, this::takeSnapshot, this::discardJournal );
+
+    }
+
+    /**
+     * Reads the account bridge from a file and its journal, without changing either.
+     *
+     * @param file The file storing the account bridge.
+     *
+     * @return The account bridge, or an empty one if the file does not exist.
+     *
+     * @throws IOException If the file or its journal could not be read.
+     *
+     * @since 0.2.0
+     */
+    public static @NotNull WCAccountIndex read( @NotNull Path file ) throws IOException {
+        WCAccountIndex loaded = new WCAccountIndex();
+
+        if ( Files.exists( file ) ) {
+            try ( Reader reader = Files.newBufferedReader( file, StandardCharsets.UTF_8 ) ) {
+                loaded = WCAccountIndex.fromJson( gson.fromJson( reader, JsonObject.class ) );
+
+            }
+
+        }
+
+        new WCAccountJournal( journalFile( file ) ).replay( loaded );
+        return loaded;
+
+    }
+
+    /**
+     * Gets the journal file kept beside an account bridge file.
+     *
+     * @param file The file storing the account bridge.
+     *
+     * @return The journal file.
+     */
+    private static @NotNull Path journalFile( @NotNull Path file ) {
+        return file.resolveSibling( file.getFileName().toString().replaceFirst( "\\.json$", "" ) + ".journal" );
+
+    }
+
+    @Override
+    public @NotNull String getName() {
+        return "json";
+
+    }
+
+    /**
+     * Loads the account bridge file into memory, then replays the journal on top of it.
+     * <p>This is the only time the file is read; every lookup afterwards is served from memory.
+     *
+     * @throws IOException If the file could not be read.
+     *
+     * @since 0.2.0
+     */
+    @Override
+    public void load() throws IOException {
+        if ( !Files.exists( file ) ) {
+            // Write an empty bridge, leaving any journal to be replayed on top of it
+            WCAccountPersister.write( file, new WCAccountIndex().toJson() );
+            WCMessages.debug( "info", "Created account bridge file." );
+
+        }
+
+        WCAccountIndex bridge;
+
+        try ( Reader reader = Files.newBufferedReader( file, StandardCharsets.UTF_8 ) ) {
+            bridge = WCAccountIndex.fromJson( gson.fromJson( reader, JsonObject.class ) );
+
+        }
+
+        int replayed = journal.replay( bridge );
+        index = bridge;
+        loaded = true;
+
+        if ( replayed > 0 || journal.size() > 0 ) {
+            WCMessages.debug( "info", "Replayed " + replayed + " change(s) from the account journal." );
+            persister.flush();
+
+        }
+
+    }
+
+    @Override
+    public @Nullable String getWikiUser( @NotNull UUID uuid ) {
+        return index.getWikiUser( uuid );
+
+    }
+
+    @Override
+    public @Nullable UUID getUUID( @NotNull String wikiUser ) {
+        return index.getUUID( wikiUser );
+
+    }
+
+    @Override
+    public @NotNull Map<UUID, String> getLinksByUUID() {
+        return index.getUUIDToWikiUserMap();
+
+    }
+
+    @Override
+    public @NotNull Map<String, UUID> getLinksByWikiUser() {
+        return index.getWikiUserToUUIDMap();
+
+    }
+
+    @Override
+    public void link( @NotNull UUID uuid, @NotNull String wikiUser, long now ) {
+        synchronized ( lock ) {
+            index.link( uuid, wikiUser, now );
+            recordChange( WCAccountJournal.link( uuid, wikiUser, now ) );
+
+        }
+
+    }
+
+    @Override
+    public boolean unlink( @NotNull String wikiUser ) {
+        synchronized ( lock ) {
+            if ( !index.unlink( wikiUser ) ) {
+                return false;
+
+            }
+
+            recordChange( WCAccountJournal.unlink( wikiUser, System.currentTimeMillis() ) );
+            return true;
+
+        }
+
+    }
+
+    @Override
+    public @NotNull String relink( @NotNull UUID uuid, long now ) {
+        synchronized ( lock ) {
+            String result = index.relink( uuid, now );
+
+            if ( result.equals( "success" ) ) {
+                recordChange( WCAccountJournal.relink( uuid, now ) );
+
+            }
+
+            return result;
+
+        }
+
+    }
+
+    @Override
+    public @NotNull List<WCAccountLink> getEntries() {
+        return index.getEntries();
+
+    }
+
+    @Override
+    public int importEntries( @NotNull Collection<WCAccountLink> entries ) {
+        synchronized ( lock ) {
+            int imported = index.putAll( entries );
+            persister.requestSave( 0 );
+            return imported;
+
+        }
+
+    }
+
+    /**
+     * Writes any pending changes to the account bridge file and stops writing in the background.
+     *
+     * @since 0.2.0
+     */
+    @Override
+    public void close() {
+        if ( !loaded ) {
+            return;
+
+        }
+
+        WCMessages.debug( "info", "Writing account bridge..." );
+        persister.shutdown();
+
+    }
+
+    /**
+     * Takes a snapshot of the in-memory account bridge to write to the account bridge file.
+     * <p>The journal is rotated aside at the same moment, so changes made while the snapshot is being written are
+     * kept in a fresh journal.
+     *
+     * @return The account bridge, in the form of the accounts file.
+     */
+    private @NotNull JsonObject takeSnapshot() {
+        synchronized ( lock ) {
+            JsonObject data = index.toJson();
+
+            try {
+                journal.rotate();
+
+            } catch ( Exception e ) {
+                // Harmless: the changes are replayed over a snapshot that already contains them
+                WCMessages.debug( "warning", "Could not rotate account journal: " + e.getMessage() );
+
+            }
+
+            return data;
+
+        }
+
+    }
+
+    /**
+     * Deletes the journal changes rotated aside by the last snapshot, once it is safely on disk.
+     */
+    private void discardJournal() {
+        try {
+            journal.discardRotated();
+
+        } catch ( Exception e ) {
+            WCMessages.debug( "warning", "Could not discard rotated account journal: " + e.getMessage() );
+
+        }
+
+    }
+
+    /**
+     * Records a change in the journal and schedules the account bridge file to be written.
+     * <p>The file is written {@code account-save-delay} seconds later, together with any other changes made in the
+     * meantime, or straight away once the journal holds {@code account-journal-size} changes.
+     * <p>Must be called while holding {@link #lock}, straight after the change is made to the index.
+     *
+     * @param change The change to record.
+     */
+    private void recordChange( JsonObject change ) {
+        try {
+            journal.append( change );
+
+        } catch ( Exception e ) {
+            // Fall back to writing the whole bridge, so the change is not lost
+            WCMessages.debug( "warning", "Could not write to account journal; writing account bridge instead: " + e.getMessage() );
+            persister.requestSave( 0 );
+            return;
+
+        }
+
+        if ( journal.size() >= WCConfigUtils.getAccountJournalSize() ) {
+            persister.requestSave( 0 );
+
+        } else {
+            persister.requestSave( WCConfigUtils.getAccountSaveDelay() * 1000L );
+
+        }
+
+    }
+
+}
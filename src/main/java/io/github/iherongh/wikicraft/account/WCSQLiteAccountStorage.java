@@ -0,0 +1,393 @@
+package io.github.iherongh.wikicraft.account;
+
+import io.github.iherongh.wikicraft.messages.WCMessages;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Stores the account bridge in an embedded SQLite database, accounts.db.
+ * <p>Entries are not held in memory; each lookup is a single query on an indexed column, and each change updates a
+ * single row, so neither memory use nor the cost of a change grows with the number of linked accounts. The SQLite
+ * driver bundled with the server is used.
+ *
+ * @author iHeronGH
+ *
+ * @version 0.2.0
+ *
+ * @since 0.2.0
+ *
+ * @see WCAccountStorage
+ * @see WCJsonAccountStorage
+ */
+public final class WCSQLiteAccountStorage implements WCAccountStorage {
+
+    /**
+     * The database file.
+     */
+    private final Path file;
+
+    /**
+     * The connection to the database, or {@code null} if it is not open.
+     */
+    private Connection connection;
+
+    /**
+     * Constructs a new {@code WCSQLiteAccountStorage} object.
+     *
+     * @param file The database file.
+     */
+    public WCSQLiteAccountStorage( @NotNull Path file ) {
+        this.file = file;
+
+    }
+
+    @Override
+    public @NotNull String getName() {
+        return "sqlite";
+
+    }
+
+    /**
+     * Opens the database, creating the table and its indexes if they do not exist.
+     *
+     * @throws SQLException If the database could not be opened.
+     *
+     * @since 0.2.0
+     */
+    @Override
+    public synchronized void load() throws SQLException {
+        connection = DriverManager.getConnection( "jdbc:sqlite:" + file.toAbsolutePath() );
+
+        try ( Statement statement = connection.createStatement() ) {
+            statement.execute( "PRAGMA journal_mode = WAL" );
+            statement.execute( "PRAGMA synchronous = NORMAL" );
+            statement.execute( """
+                CREATE TABLE IF NOT EXISTS account_links (
+                    uuid TEXT NOT NULL PRIMARY KEY,
+                    wiki_account TEXT NOT NULL,
+                    linked INTEGER NOT NULL DEFAULT 0,
+                    last_link INTEGER NOT NULL DEFAULT 0,
+                    last_edit INTEGER NOT NULL DEFAULT 0
+                )""" );
+            statement.execute( "CREATE INDEX IF NOT EXISTS account_links_wiki_account ON account_links ( wiki_account )" );
+
+        }
+
+        WCMessages.debug( "info", "Opened account database " + file.getFileName() + "." );
+
+    }
+
+    @Override
+    public synchronized @Nullable String getWikiUser( @NotNull UUID uuid ) {
+        try ( PreparedStatement query = prepare( "SELECT wiki_account FROM account_links WHERE uuid = ? AND linked = 1" ) ) {
+            query.setString( 1, uuid.toString() );
+
+            try ( ResultSet result = query.executeQuery() ) {
+                return result.next() ? result.getString( 1 ) : null;
+
+            }
+
+        } catch ( SQLException e ) {
+            WCMessages.debug( "warning", "Could not look up wiki account of " + uuid + ": " + e.getMessage() );
+            return null;
+
+        }
+
+    }
+
+    @Override
+    public synchronized @Nullable UUID getUUID( @NotNull String wikiUser ) {
+        try ( PreparedStatement query = prepare( "SELECT uuid FROM account_links WHERE wiki_account = ? AND linked = 1 ORDER BY rowid LIMIT 1" ) ) {
+            query.setString( 1, wikiUser );
+
+            try ( ResultSet result = query.executeQuery() ) {
+                return result.next() ? UUID.fromString( result.getString( 1 ) ) : null;
+
+            }
+
+        } catch ( SQLException e ) {
+            WCMessages.debug( "warning", "Could not look up UUID of " + wikiUser + ": " + e.getMessage() );
+            return null;
+
+        }
+
+    }
+
+    @Override
+    public synchronized @NotNull Map<UUID, String> getLinksByUUID() {
+        Map<UUID, String> links = new HashMap<>();
+
+        try ( PreparedStatement query = prepare( "SELECT uuid, wiki_account FROM account_links WHERE linked = 1" ); ResultSet result = query.executeQuery() ) {
+            while ( result.next() ) {
+                links.putIfAbsent( UUID.fromString( result.getString( 1 ) ), result.getString( 2 ) );
+
+            }
+
+        } catch ( SQLException e ) {
+            WCMessages.debug( "warning", "Could not list account links: " + e.getMessage() );
+
+        }
+
+        return Collections.unmodifiableMap( links );
+
+    }
+
+    @Override
+    public synchronized @NotNull Map<String, UUID> getLinksByWikiUser() {
+        Map<String, UUID> links = new HashMap<>();
+
+        try ( PreparedStatement query = prepare( "SELECT uuid, wiki_account FROM account_links WHERE linked = 1 ORDER BY rowid" ); ResultSet result = query.executeQuery() ) {
+            while ( result.next() ) {
+                links.putIfAbsent( result.getString( 2 ), UUID.fromString( result.getString( 1 ) ) );
+
+            }
+
+        } catch ( SQLException e ) {
+            WCMessages.debug( "warning", "Could not list account links: " + e.getMessage() );
+
+        }
+
+        return Collections.unmodifiableMap( links );
+
+    }
+
+    @Override
+    public synchronized void link( @NotNull UUID uuid, @NotNull String wikiUser, long now ) throws SQLException {
+        transaction( () -> {
+            // Reuse the entry for the UUID, or failing that for the MediaWiki account
+            try ( PreparedStatement update = prepare( "UPDATE account_links SET wiki_account = ?, linked = 1, last_link = ? WHERE uuid = ?" ) ) {
+                update.setString( 1, wikiUser );
+                update.setLong( 2, now );
+                update.setString( 3, uuid.toString() );
+
+                if ( update.executeUpdate() > 0 ) {
+                    return;
+
+                }
+
+            }
+
+            try ( PreparedStatement update = prepare( "UPDATE account_links SET uuid = ?, linked = 1, last_link = ? WHERE rowid = ( SELECT rowid FROM account_links WHERE wiki_account = ? ORDER BY rowid LIMIT 1 )" ) ) {
+                update.setString( 1, uuid.toString() );
+                update.setLong( 2, now );
+                update.setString( 3, wikiUser );
+
+                if ( update.executeUpdate() > 0 ) {
+                    return;
+
+                }
+
+            }
+
+            try ( PreparedStatement insert = prepare( "INSERT INTO account_links ( uuid, wiki_account, linked, last_link, last_edit ) VALUES ( ?, ?, 1, ?, 0 )" ) ) {
+                insert.setString( 1, uuid.toString() );
+                insert.setString( 2, wikiUser );
+                insert.setLong( 3, now );
+                insert.executeUpdate();
+
+            }
+
+        } );
+
+    }
+
+    @Override
+    public synchronized boolean unlink( @NotNull String wikiUser ) throws SQLException {
+        try ( PreparedStatement update = prepare( "UPDATE account_links SET linked = 0 WHERE wiki_account = ? AND linked = 1" ) ) {
+            update.setString( 1, wikiUser );
+            return update.executeUpdate() > 0;
+
+        }
+
+    }
+
+    @Override
+    public synchronized @NotNull String relink( @NotNull UUID uuid, long now ) throws SQLException {
+        try ( PreparedStatement query = prepare( "SELECT linked FROM account_links WHERE uuid = ?" ) ) {
+            query.setString( 1, uuid.toString() );
+
+            try ( ResultSet result = query.executeQuery() ) {
+                if ( !result.next() ) {
+                    return "no_account";
+
+                }
+
+                if ( result.getBoolean( 1 ) ) {
+                    return "bridge_already_linked";
+
+                }
+
+            }
+
+        }
+
+        try ( PreparedStatement update = prepare( "UPDATE account_links SET linked = 1, last_link = ? WHERE uuid = ?" ) ) {
+            update.setLong( 1, now );
+            update.setString( 2, uuid.toString() );
+            update.executeUpdate();
+
+        }
+
+        return "success";
+
+    }
+
+    @Override
+    public synchronized @NotNull List<WCAccountLink> getEntries() throws SQLException {
+        List<WCAccountLink> entries = new ArrayList<>();
+
+        try ( PreparedStatement query = prepare( "SELECT uuid, wiki_account, linked, last_link, last_edit FROM account_links ORDER BY rowid" ); ResultSet result = query.executeQuery() ) {
+            while ( result.next() ) {
+                entries.add( new WCAccountLink( UUID.fromString( result.getString( 1 ) ), result.getString( 2 ), result.getBoolean( 3 ), result.getLong( 4 ), result.getLong( 5 ) ) );
+
+            }
+
+        }
+
+        return entries;
+
+    }
+
+    /**
+     * Adds entries to the database in a single transaction, replacing any existing entry with the same UUID.
+     * <p>Where several entries share a UUID, the first one wins, matching how account_bridge.json is read.
+     *
+     * @param entries The entries to add.
+     *
+     * @return The number of entries added.
+     *
+     * @throws SQLException If the entries could not be added.
+     *
+     * @since 0.2.0
+     */
+    @Override
+    public synchronized int importEntries( @NotNull Collection<WCAccountLink> entries ) throws SQLException {
+        Map<UUID, WCAccountLink> unique = new LinkedHashMap<>();
+
+        for ( WCAccountLink entry : entries ) {
+            unique.putIfAbsent( entry.getUUID(), entry );
+
+        }
+
+        transaction( () -> {
+            try ( PreparedStatement insert = prepare( "INSERT OR REPLACE INTO account_links ( uuid, wiki_account, linked, last_link, last_edit ) VALUES ( ?, ?, ?, ?, ? )" ) ) {
+                for ( WCAccountLink entry : unique.values() ) {
+                    insert.setString( 1, entry.getUUID().toString() );
+                    insert.setString( 2, entry.getWikiAccount() );
+                    insert.setBoolean( 3, entry.isLinked() );
+                    insert.setLong( 4, entry.getLastLink() );
+                    insert.setLong( 5, entry.getLastEdit() );
+                    insert.addBatch();
+
+                }
+
+                insert.executeBatch();
+
+            }
+
+        } );
+
+        return unique.size();
+
+    }
+
+    @Override
+    public synchronized void close() {
+        if ( connection == null ) {
+            return;
+
+        }
+
+        try {
+            connection.close();
+
+        } catch ( SQLException e ) {
+            WCMessages.debug( "warning", "Could not close account database: " + e.getMessage() );
+
+        }
+
+        connection = null;
+
+    }
+
+    /**
+     * Prepares a statement on the open connection.
+     *
+     * @param sql The SQL of the statement.
+     *
+     * @return The prepared statement.
+     *
+     * @throws SQLException If the database is not open, or the statement could not be prepared.
+     */
+    private PreparedStatement prepare( String sql ) throws SQLException {
+        if ( connection == null ) {
+            throw new SQLException( "The account database is not open." );
+
+        }
+
+        return connection.prepareStatement( sql );
+
+    }
+
+    /**
+     * Runs work in a single transaction, rolling it back if the work fails.
+     *
+     * @param work The work to run.
+     *
+     * @throws SQLException If the work failed.
+     */
+    private void transaction( SQLWork work ) throws SQLException {
+        if ( connection == null ) {
+            throw new SQLException( "The account database is not open." );
+
+        }
+
+        connection.setAutoCommit( false );
+
+        try {
+            work.run();
+            connection.commit();
+
+        } catch ( SQLException e ) {
+            connection.rollback();
+            throw e;
+
+        } finally {
+            connection.setAutoCommit( true );
+
+        }
+
+    }
+
+    /**
+     * Work run against the database.
+     */
+    @FunctionalInterface
+    private interface SQLWork {
+
+        /**
+         * Runs the work.
+         *
+         * @throws SQLException If the work failed.
+         */
+        void run() throws SQLException;
+
+    }
+
+}
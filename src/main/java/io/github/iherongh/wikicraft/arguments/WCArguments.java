@@ -12,6 +12,7 @@ import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -74,6 +75,7 @@ public class WCArguments {
 
     /**
      * Generates a list of pages on the configured wiki, to be passed as command arguments.
+     * <p>Only the first {@code max-suggestions} pages starting with the current input are suggested.
      *
      * @return A list of {@link StringArgument} objects representing all available wiki pages.
      *
@@ -82,16 +84,18 @@ public class WCArguments {
     public static Argument<String> wikiPagesArgument() {
         return new CustomArgument<>( new GreedyStringArgument( "page" ), info -> {
             String input = info.input();
-            ArrayList<String> validPages = getWikiPages();
 
-            if ( validPages.contains( input ) ) {
+            if ( WCWikiUtils.getPageIndex().contains( input ) ) {
                 return input;
 
             }
 
             return null;
 
-        } ).replaceSuggestions( ArgumentSuggestions.strings( info -> getWikiPages().toArray( new String[ 0 ] ) ) );
+        } ).replaceSuggestions( ArgumentSuggestions.strings( info ->
+            WCWikiUtils.getPageIndex().suggest( info.currentArg(), WCConfigUtils.getMaxSuggestions() ).toArray( new String[ 0 ] )
+
+        ) );
 
     }
 
@@ -100,7 +104,7 @@ public class WCArguments {
      *
      * @return A list of {@link StringArgument} objects representing all available wiki users.
      */
-    public static ArrayList<String> getWikiPages() {
+    public static List<String> getWikiPages() {
         return WCWikiUtils.getPageCache();
 
     }
@@ -113,6 +117,19 @@ public class WCArguments {
      * @since 0.1.0
      */
     public static Argument<String> wikiUserArgument() {
+        return new CustomArgument<>( new GreedyStringArgument( "name" ), info -> getWikiUsers().contains( info.input() ) ? info.input() : null )
+            .replaceSuggestions( ArgumentSuggestions.strings( info -> getWikiUsers().toArray( new String[ 0 ] ) ) );
+
+    }
+
+    /**
+     * Gets a list of users on the configured wiki, read from the user cache.
+     *
+     * @return A list of wiki users.
+     *
+     * @since 0.2.0
+     */
+    private static @NotNull ArrayList<String> getWikiUsers() {
         JsonArray allUsers = WCWikiUtils.getUserCache();
         ArrayList<String> validUsers = new ArrayList<>();
 
@@ -129,8 +146,7 @@ public class WCArguments {
 
         }
 
-        return new CustomArgument<>( new GreedyStringArgument( "name" ), info -> validUsers.contains( info.input() ) ? info.input() : null )
-            .replaceSuggestions( ArgumentSuggestions.strings( info -> validUsers.toArray( new String[ 0 ] ) ) );
+        return validUsers;
 
     }
 
@@ -210,13 +226,13 @@ public class WCArguments {
     private static @NotNull ArrayList<String> getUnlinkedUsers() {
         JsonArray allUsers = WCWikiUtils.getUserCache();
         ArrayList<String> unlinkedUsers = new ArrayList<>();
-        Set<String> linkedUsers = getLinkedUsers();
 
+        // The linked flag is worked out when the user cache loads, so completing never reads the account storage
         for ( JsonElement user : allUsers ) {
             JsonObject userObj = user.getAsJsonObject();
             String userName = userObj.get( "name" ).getAsString().replace( "User:", "" );
 
-            if ( !userName.contains( "/" ) && !linkedUsers.contains( userName )) {
+            if ( !userName.contains( "/" ) && !userObj.get( "linked" ).getAsBoolean() ) {
                 unlinkedUsers.add( userName );
 
             }
@@ -0,0 +1,274 @@
+package io.github.iherongh.wikicraft.async;
+
+import io.github.iherongh.wikicraft.WikiCraft;
+import io.github.iherongh.wikicraft.config.WCConfigUtils;
+import io.github.iherongh.wikicraft.messages.WCMessages;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Runs wiki requests made by commands off the server thread.
+ * <p>The network part of a command is executed on the {@link WCWikiExecutor}, while the result is handed back to the
+ * player on the main thread. Every task is bound to a per-command timeout and is cancelled if the player who
+ * started it logs out before it completes.
+ *
+ * @author iHeronGH
+ *
+ * @version 0.2.0
+ *
+ * @since 0.2.0
+ *
+ * @see WCAsync#supply(Player, String, Callable, Consumer)
+ * @see WCAsync#cancelAll(UUID)
+ * @see WCAsync#shutdown()
+ */
+public class WCAsync {
+
+    /**
+     * Constructs a new {@code WCAsync} object.
+     */
+    public WCAsync() {}
+
+    /**
+     * Maps a player's UUID to the tasks they currently have in flight.
+     */
+    private static final Map<UUID, Set<CompletableFuture<?>>> playerTasks = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the executor that wiki requests are run on.
+     *
+     * @return The executor that wiki requests are run on.
+     *
+     * @since 0.2.0
+     *
+     * @see WCWikiExecutor
+     */
+    public static @NotNull WCWikiExecutor getExecutor() {
+        return WCWikiExecutor.getInstance();
+
+    }
+
+    /**
+     * Runs a wiki request for a player off the main thread, then hands the result back on the main thread.
+     * <p>If the request fails, times out, or the player logs out first, {@code onSuccess} is not called.
+     *
+     * @param player    The player the request is made for.
+     * @param command   The command key used to look up the timeout in {@code command-timeouts}.
+     * @param task      The network part of the command.
+     * @param onSuccess The main-thread callback receiving the result of {@code task}.
+     * @param <T>       The result type of the task.
+     *
+     * @return A future representing the task, completed before {@code onSuccess} is scheduled.
+     *
+     * @since 0.2.0
+     */
+    public static <T> @NotNull CompletableFuture<T> supply( @NotNull Player player, @NotNull String command, @NotNull Callable<T> task, @NotNull Consumer<T> onSuccess ) {
+        UUID uuid = player.getUniqueId();
+        int timeout = WCConfigUtils.getCommandTimeout( command );
+        CompletableFuture<T> result = new CompletableFuture<>();
+
+        WCMessages.debug( "info", "Dispatching " + command + " for " + player.getName() + " (timeout: " + timeout + "s)..." );
+
+        track( uuid, result );
+
+        Future<?> handle;
+
+        try {
+            handle = getExecutor().submit( () -> {
+                try {
+                    result.complete( task.call() );
+
+                } catch ( Throwable t ) {
+                    result.completeExceptionally( t );
+
+                }
+
+            } );
+
+        } catch ( RejectedExecutionException e ) {
+            untrack( uuid, result );
+            runOnMainThread( () -> deliver( uuid, command, null, e, onSuccess ) );
+            result.completeExceptionally( e );
+            return result;
+
+        }
+
+        result.orTimeout( timeout, TimeUnit.SECONDS ).whenComplete( ( value, error ) -> {
+            untrack( uuid, result );
+
+            // Interrupt the worker if the task was cancelled or timed out
+            if ( error != null ) {
+                handle.cancel( true );
+
+            }
+
+            runOnMainThread( () -> deliver( uuid, command, value, error, onSuccess ) );
+
+        } );
+
+        return result;
+
+    }
+
+    /**
+     * Delivers the outcome of a task to its player.
+     *
+     * @param uuid      The UUID of the player the task was run for.
+     * @param command   The command key of the task.
+     * @param value     The result of the task, if successful.
+     * @param error     The error the task failed with, or {@code null} if successful.
+     * @param onSuccess The callback receiving the result of the task.
+     * @param <T>       The result type of the task.
+     *
+     * @since 0.2.0
+     */
+    private static <T> void deliver( UUID uuid, String command, T value, Throwable error, Consumer<T> onSuccess ) {
+        Player player = Bukkit.getPlayer( uuid );
+
+        if ( error instanceof CancellationException ) {
+            WCMessages.debug( "info", command + " for " + uuid + " was cancelled." );
+            return;
+
+        }
+
+        if ( player == null || !player.isOnline() ) {
+            WCMessages.debug( "info", "Dropping result of " + command + " for " + uuid + "; player is offline." );
+            return;
+
+        }
+
+        if ( error instanceof RejectedExecutionException ) {
+            player.sendMessage( WCMessages.message( "error", "The wiki is busy right now. Please try again shortly." ) );
+            return;
+
+        }
+
+        if ( error instanceof TimeoutException ) {
+            WCMessages.debug( "warning", command + " for " + player.getName() + " timed out." );
+            player.sendMessage( WCMessages.message( "error", "The request timed out." ) );
+            return;
+
+        }
+
+        if ( error != null ) {
+            WCMessages.throwError( error instanceof Exception e ? e : new RuntimeException( error ), player );
+            return;
+
+        }
+
+        try {
+            onSuccess.accept( value );
+
+        } catch ( Exception e ) {
+            WCMessages.throwError( e, player );
+
+        }
+
+    }
+
+    /**
+     * Runs a task on the main server thread.
+     *
+     * @param task The task to run.
+     *
+     * @since 0.2.0
+     */
+    public static void runOnMainThread( @NotNull Runnable task ) {
+        WikiCraft plugin = WikiCraft.getInstance();
+
+        if ( plugin == null || !plugin.isEnabled() ) {
+            return;
+
+        }
+
+        if ( Bukkit.isPrimaryThread() ) {
+            task.run();
+            return;
+
+        }
+
+        Bukkit.getScheduler().runTask( plugin, task );
+
+    }
+
+    /**
+     * Tracks a task as in flight for a player.
+     *
+     * @param uuid The UUID of the player.
+     * @param task The task to track.
+     */
+    private static void track( UUID uuid, CompletableFuture<?> task ) {
+        playerTasks.computeIfAbsent( uuid, key -> ConcurrentHashMap.newKeySet() ).add( task );
+
+    }
+
+    /**
+     * Stops tracking a task for a player.
+     *
+     * @param uuid The UUID of the player.
+     * @param task The task to stop tracking.
+     */
+    private static void untrack( UUID uuid, CompletableFuture<?> task ) {
+        playerTasks.computeIfPresent( uuid, ( key, tasks ) -> {
+            tasks.remove( task );
+            return tasks.isEmpty() ? null : tasks;
+
+        } );
+
+    }
+
+    /**
+     * Cancels every task a player currently has in flight.
+     * <p>Called when a player logs out, so no work is done for a player who can no longer receive the result.
+     *
+     * @param uuid The UUID of the player.
+     *
+     * @since 0.2.0
+     */
+    public static void cancelAll( @NotNull UUID uuid ) {
+        Set<CompletableFuture<?>> tasks = playerTasks.remove( uuid );
+
+        if ( tasks == null ) {
+            return;
+
+        }
+
+        WCMessages.debug( "info", "Cancelling " + tasks.size() + " wiki request(s) for " + uuid + "..." );
+
+        for ( CompletableFuture<?> task : tasks ) {
+            task.cancel( true );
+
+        }
+
+    }
+
+    /**
+     * Cancels all in-flight tasks and stops the executor.
+     *
+     * @since 0.2.0
+     */
+    public static void shutdown() {
+        for ( UUID uuid : playerTasks.keySet() ) {
+            cancelAll( uuid );
+
+        }
+
+        getExecutor().shutdownNow();
+
+    }
+
+}
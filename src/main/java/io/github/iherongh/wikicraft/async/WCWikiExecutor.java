@@ -0,0 +1,412 @@
+package io.github.iherongh.wikicraft.async;
+
+import io.github.iherongh.wikicraft.config.WCConfigUtils;
+import io.github.iherongh.wikicraft.messages.WCMessages;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The executor that every request to the wiki is run on.
+ * <p>Each task gets its own virtual thread, so blocking on the network never ties up a platform thread. A semaphore
+ * caps the number of requests in flight to {@code max-concurrent-requests}; tasks waiting for a permit are queued,
+ * and once {@code max-queued-requests} tasks are waiting, new tasks are rejected. A task submitted through
+ * {@link #submit(Callable)} or {@link #submit(Runnable)} that is cancelled while waiting for a permit leaves the queue
+ * straight away and never runs.
+ *
+ * @author iHeronGH
+ *
+ * @version 0.2.0
+ *
+ * @since 0.2.0
+ *
+ * @see WCWikiExecutor#getInstance()
+ * @see WCWikiExecutor#getActiveCount()
+ * @see WCWikiExecutor#getQueueDepth()
+ * @see WCWikiExecutor#getRejectedCount()
+ */
+public class WCWikiExecutor extends AbstractExecutorService {
+
+    /**
+     * The singleton instance of the executor.
+     */
+    private static final WCWikiExecutor instance = new WCWikiExecutor();
+
+    /**
+     * The executor that starts a new virtual thread for each task.
+     */
+    private final ExecutorService threads = Executors.newThreadPerTaskExecutor( Thread.ofVirtual().name( "WikiCraft-Wiki-", 0 ).factory() );
+
+    /**
+     * Limits the number of tasks running at once.
+     */
+    private final ResizableSemaphore permits;
+
+    /**
+     * The number of tasks allowed to run at once.
+     */
+    private volatile int maxConcurrent;
+
+    /**
+     * The number of tasks allowed to wait for a permit.
+     */
+    private volatile int maxQueued;
+
+    /**
+     * The number of tasks waiting for a permit.
+     */
+    private final AtomicInteger queued = new AtomicInteger();
+
+    /**
+     * The number of tasks currently running.
+     */
+    private final AtomicInteger active = new AtomicInteger();
+
+    /**
+     * The number of tasks rejected because the queue was full.
+     */
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * The number of tasks that have finished running.
+     */
+    private final AtomicLong completed = new AtomicLong();
+
+    /**
+     * Constructs a new {@code WCWikiExecutor} object.
+     */
+    private WCWikiExecutor() {
+        this.maxConcurrent = WCConfigUtils.getMaxConcurrentRequests();
+        this.maxQueued = WCConfigUtils.getMaxQueuedRequests();
+        this.permits = new ResizableSemaphore( maxConcurrent );
+
+    }
+
+    /**
+     * Gets the executor that every request to the wiki is run on.
+     *
+     * @return The executor that every request to the wiki is run on.
+     *
+     * @since 0.2.0
+     */
+    public static @NotNull WCWikiExecutor getInstance() {
+        return instance;
+
+    }
+
+    /**
+     * Queues a task to run once a permit is available.
+     *
+     * @param task The task to run.
+     *
+     * @throws RejectedExecutionException If the queue is full or the executor has been shut down.
+     *
+     * @since 0.2.0
+     */
+    @Override
+    public void execute( @NotNull Runnable task ) {
+        if ( queued.incrementAndGet() > maxQueued ) {
+            queued.decrementAndGet();
+            rejected.incrementAndGet();
+            WCMessages.debug( "warning", "Wiki request queue is full (" + getQueueDepth() + " waiting); rejecting request." );
+            throw new RejectedExecutionException( "The wiki request queue is full." );
+
+        }
+
+        try {
+            threads.execute( () -> run( task ) );
+
+        } catch ( RejectedExecutionException e ) {
+            queued.decrementAndGet();
+            rejected.incrementAndGet();
+            throw e;
+
+        }
+
+    }
+
+    /**
+     * Wraps submitted tasks so that cancelling one interrupts it while it waits for a permit.
+     *
+     * @param task The task to wrap.
+     *
+     * @return The wrapped task.
+     */
+    @Override
+    protected <T> @NotNull RunnableFuture<T> newTaskFor( @NotNull Callable<T> task ) {
+        return new QueuedTask<>( task );
+
+    }
+
+    /**
+     * Wraps submitted tasks so that cancelling one interrupts it while it waits for a permit.
+     *
+     * @param task  The task to wrap.
+     * @param value The result of the task.
+     *
+     * @return The wrapped task.
+     */
+    @Override
+    protected <T> @NotNull RunnableFuture<T> newTaskFor( @NotNull Runnable task, T value ) {
+        return new QueuedTask<>( Executors.callable( task, value ) );
+
+    }
+
+    /**
+     * Runs a task once a permit is available, unless it is cancelled first.
+     *
+     * @param task The task to run.
+     */
+    private void run( Runnable task ) {
+        QueuedTask<?> queuedTask = task instanceof QueuedTask<?> wrapped ? wrapped : null;
+
+        try {
+            if ( queuedTask != null ) {
+                queuedTask.waiter = Thread.currentThread();
+
+            }
+
+            // Checked after setting the waiter, so a cancellation either is seen here or interrupts the wait
+            if ( task instanceof Future<?> future && future.isCancelled() ) {
+                queued.decrementAndGet();
+                return;
+
+            }
+
+            permits.acquire();
+
+        } catch ( InterruptedException e ) {
+            queued.decrementAndGet();
+            return;
+
+        } finally {
+            if ( queuedTask != null ) {
+                queuedTask.waiter = null;
+
+            }
+
+        }
+
+        queued.decrementAndGet();
+
+        if ( task instanceof Future<?> future && future.isCancelled() ) {
+            // Cancelled just as the permit was granted; an interrupt meant for the wait may still be pending
+            Thread.interrupted();
+            permits.release();
+            return;
+
+        }
+
+        active.incrementAndGet();
+
+        try {
+            task.run();
+
+        } finally {
+            active.decrementAndGet();
+            completed.incrementAndGet();
+            permits.release();
+
+        }
+
+    }
+
+    /**
+     * Applies the current {@code max-concurrent-requests} and {@code max-queued-requests} values from config.yml.
+     * <p>Tasks already running are not interrupted if the limit is lowered, nor are waiting tasks rejected.
+     *
+     * @since 0.2.0
+     */
+    public void reloadLimits() {
+        int newMax = WCConfigUtils.getMaxConcurrentRequests();
+        int difference = newMax - maxConcurrent;
+
+        if ( difference > 0 ) {
+            permits.release( difference );
+
+        } else if ( difference < 0 ) {
+            permits.reduce( -difference );
+
+        }
+
+        maxConcurrent = newMax;
+        maxQueued = WCConfigUtils.getMaxQueuedRequests();
+        WCMessages.debug( "info", "Wiki requests limited to " + newMax + " at once, with up to " + maxQueued + " waiting." );
+
+    }
+
+    /**
+     * Gets the number of tasks allowed to run at once.
+     *
+     * @return The number of tasks allowed to run at once.
+     *
+     * @since 0.2.0
+     */
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+
+    }
+
+    /**
+     * Gets the number of tasks waiting for a permit.
+     *
+     * @return The number of tasks waiting for a permit.
+     *
+     * @since 0.2.0
+     */
+    public int getQueueDepth() {
+        return queued.get();
+
+    }
+
+    /**
+     * Gets the number of tasks currently running.
+     *
+     * @return The number of tasks currently running.
+     *
+     * @since 0.2.0
+     */
+    public int getActiveCount() {
+        return active.get();
+
+    }
+
+    /**
+     * Gets the number of tasks rejected because the queue was full.
+     *
+     * @return The number of tasks rejected because the queue was full.
+     *
+     * @since 0.2.0
+     */
+    public long getRejectedCount() {
+        return rejected.get();
+
+    }
+
+    /**
+     * Gets the number of tasks that have finished running.
+     *
+     * @return The number of tasks that have finished running.
+     *
+     * @since 0.2.0
+     */
+    public long getCompletedCount() {
+        return completed.get();
+
+    }
+
+    @Override
+    public void shutdown() {
+        threads.shutdown();
+
+    }
+
+    @Override
+    public @NotNull List<Runnable> shutdownNow() {
+        return threads.shutdownNow();
+
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return threads.isShutdown();
+
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return threads.isTerminated();
+
+    }
+
+    @Override
+    public boolean awaitTermination( long timeout, @NotNull TimeUnit unit ) throws InterruptedException {
+        return threads.awaitTermination( timeout, unit );
+
+    }
+
+    /**
+     * A submitted task that can be cancelled while it waits for a permit.
+     *
+     * @param <T> The type of the task's result.
+     */
+    private static final class QueuedTask<T> extends FutureTask<T> {
+
+        /**
+         * The thread waiting for a permit to run this task, or {@code null} if it is not waiting.
+         */
+        private volatile Thread waiter;
+
+        /**
+         * Constructs a new {@code QueuedTask} object.
+         *
+         * @param task The task to run.
+         */
+        QueuedTask( @NotNull Callable<T> task ) {
+            super( task );
+
+        }
+
+        /**
+         * Cancels the task, interrupting the thread waiting for a permit to run it, if any.
+         *
+         * @param mayInterruptIfRunning Whether to interrupt the task if it is already running.
+         *
+         * @return {@code true} if the task was cancelled, {@code false} if it had already finished.
+         */
+        @Override
+        public boolean cancel( boolean mayInterruptIfRunning ) {
+            boolean cancelled = super.cancel( mayInterruptIfRunning );
+            Thread thread = waiter;
+
+            if ( cancelled && thread != null ) {
+                thread.interrupt();
+
+            }
+
+            return cancelled;
+
+        }
+
+    }
+
+    /**
+     * A semaphore whose number of permits can be lowered.
+     */
+    private static final class ResizableSemaphore extends Semaphore {
+
+        /**
+         * Constructs a new {@code ResizableSemaphore} object.
+         *
+         * @param permits The initial number of permits.
+         */
+        ResizableSemaphore( int permits ) {
+            super( permits, true );
+
+        }
+
+        /**
+         * Lowers the number of available permits.
+         *
+         * @param reduction The number of permits to remove.
+         */
+        void reduce( int reduction ) {
+            reducePermits( reduction );
+
+        }
+
+    }
+
+}
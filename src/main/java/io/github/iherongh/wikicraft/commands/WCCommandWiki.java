@@ -51,6 +51,7 @@ public class WCCommandWiki {
      *     <li>{@code /wiki disable} (Requires {@code wikicraft.command.disable})
      *     <li>{@code /wiki help} (Requires {@code wikicraft.command.help})
      *     <li>{@code /wiki reload} (Requires {@code wikicraft.command.reload})
+     *     <li>{@code /wiki stats [reset]} (Requires {@code wikicraft.command.stats})
      *     <li>{@code /wiki pages <add|delete|edit|info|read|search>} (Requires {@code wikicraft.command.pages})
      * </ul>
      * @return An {@link ExecutableCommand} representing the complete /wiki command
@@ -59,9 +60,9 @@ public class WCCommandWiki {
      */
     private @NotNull ExecutableCommand<?,?> fullCommand() {
         // Log command load
-        WCMessages.debug( "info", "Creating command: /wiki <account|config|disable|help|reload|pages>" );
+        WCMessages.debug( "info", "Creating command: /wiki <account|config|disable|help|reload|stats|pages>" );
 
-        // /wiki <account|config|disable|help|reload|pages>
+        // /wiki <account|config|disable|help|reload|stats|pages>
         return new CommandAPICommand( "wiki" )
             .withSubcommands(
 
@@ -80,11 +81,14 @@ public class WCCommandWiki {
                 // /wiki reload
                 WCCommandWikiReload.getCommand(),
 
+                // /wiki stats [reset]
+                WCCommandWikiStats.getCommand(),
+
                 // /wiki pages <add|delete|edit|info|search>
                 WCCommandWikiPages.getCommand()
 
             )
-            .withUsage( "/wiki <account|config|disable|reload|pages>" )
+            .withUsage( "/wiki <account|config|disable|reload|stats|pages>" )
             .withShortDescription( "Edit your WikiCraft experience." )
             .withFullDescription(
                 """
@@ -95,6 +99,7 @@ public class WCCommandWiki {
                     - /wiki disable: Safely shut down the WikiCraft plugin.
                     - /wiki help: Show this message.
                     - /wiki reload: Reload the WikiCraft plugin configuration.
+                    - /wiki stats: Show how long wiki requests take, and how many fail.
                     - /wiki pages: Create, edit, delete, search and view wiki pages.
                 """
             )
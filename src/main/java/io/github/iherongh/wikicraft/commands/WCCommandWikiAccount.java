@@ -3,6 +3,7 @@ package io.github.iherongh.wikicraft.commands;
 import dev.jorel.commandapi.CommandAPICommand;
 import io.github.iherongh.wikicraft.account.WCAccountBridge;
 import io.github.iherongh.wikicraft.arguments.WCArguments;
+import io.github.iherongh.wikicraft.async.WCAsync;
 import io.github.iherongh.wikicraft.config.WCConfigUtils;
 import io.github.iherongh.wikicraft.messages.WCMessages;
 import io.github.iherongh.wikicraft.permissions.WCPermissions;
@@ -16,6 +17,7 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * The {@code /wiki account} command.
@@ -30,6 +32,7 @@ import java.util.UUID;
  * @see WCCommandWikiAccount#getWikiUserSubcommand()
  * @see WCCommandWikiAccount#linkSubcommand()
  * @see WCCommandWikiAccount#listSubcommand()
+ * @see WCCommandWikiAccount#migrateSubcommand()
  * @see WCCommandWikiAccount#unlinkSubcommand()
  */
 public class WCCommandWikiAccount {
@@ -40,13 +43,14 @@ public class WCCommandWikiAccount {
     public WCCommandWikiAccount() {}
 
     /**
-     * Creates the {@code /wiki account <get|link|list|unlink>} command.
+     * Creates the {@code /wiki account <get|link|list|migrate|unlink>} command.
      * <p><b>Permission:</b> {@code wikicraft.command.account}
-     * <p><b>Usage:</b> {@code /wiki account <get|link|list|unlink>}
+     * <p><b>Usage:</b> {@code /wiki account <get|link|list|migrate|unlink>}
      * <ul>
      *     <li>{@code /wiki account get <player|wikiUser>}: Gets the account information
      *     <li>{@code /wiki account link [wikiUser]}: Links the account
      *     <li>{@code /wiki account list}: Lists the accounts
+     *     <li>{@code /wiki account migrate}: Imports account_bridge.json into the current account storage
      *     <li>{@code /wiki account unlink [wikiUser]}: Unlinks the account
      * </ul>
      *
@@ -59,20 +63,21 @@ public class WCCommandWikiAccount {
      * @see WCCommandWikiAccount#getWikiUserSubcommand()
      * @see WCCommandWikiAccount#linkSubcommand()
      * @see WCCommandWikiAccount#listSubcommand()
+     * @see WCCommandWikiAccount#migrateSubcommand()
      * @see WCCommandWikiAccount#unlinkSubcommand()
      */
     public static @Nullable CommandAPICommand getCommand() {
         // Log subcommand load
-        WCMessages.debug( "info", "Creating command: /wiki account <get|link|list|unlink>" );
+        WCMessages.debug( "info", "Creating command: /wiki account <get|link|list|migrate|unlink>" );
 
         // Check if a wiki exists
         if ( WCWiki.getWiki() == null ) {
-            WCMessages.debug( "warning", "No wiki exists; cancelling /wiki account <get|link|list|unlink>." );
+            WCMessages.debug( "warning", "No wiki exists; cancelling /wiki account <get|link|list|migrate|unlink>." );
             return null;
 
         }
 
-        // /wiki account <get|link|list|unlink>
+        // /wiki account <get|link|list|migrate|unlink>
         return new CommandAPICommand( "account" ).withSubcommands(
 
             // /wiki account get
@@ -84,6 +89,9 @@ public class WCCommandWikiAccount {
             // /wiki account list
             listSubcommand(),
 
+            // /wiki account migrate
+            migrateSubcommand(),
+
             // /wiki account unlink
             unlinkSubcommand()
 
@@ -245,8 +253,11 @@ public class WCCommandWikiAccount {
 
                 try {
                     if ( wikiUser == null ) {
-                        String relinkResult = WCAccountBridge.relinkAccount( player.getUniqueId(), wikiUser );
-                        handleRelinkRequest( player, relinkResult );
+                        // Re-link off the main thread, as storing the change waits on the disk
+                        UUID uuid = player.getUniqueId();
+
+                        WCAsync.supply( player, "account-link", () -> WCAccountBridge.relinkAccount( uuid, null ),
+                            result -> handleRelinkRequest( player, result ) );
                         return;
 
                     }
@@ -264,7 +275,12 @@ public class WCCommandWikiAccount {
 
                     }
 
-                    handleLinkRequest( player, wikiUser );
+                    // Request link off the main thread
+                    WCMessages.debug( "info", "Requesting link for " + player.getName() + " to " + wikiUser + "..." );
+                    UUID uuid = player.getUniqueId();
+
+                    WCAsync.supply( player, "account-link", () -> WCAccountBridge.requestLink( uuid, wikiUser ),
+                        result -> handleLinkRequest( player, wikiUser, result ) );
 
                     WCUtils.setLastRequestTime( player );
 
@@ -290,10 +306,10 @@ public class WCCommandWikiAccount {
         WCMessages.debug( "info", "Requesting relink for " + player.getName() + "..." );
 
         switch ( requestResult ) {
-            case "bridge_already_linked" -> player.sendMessage( WCMessages.message( "error", "Your account is already linked to " + WCAccountBridge.getUUIDToWikiUserMap().get( player.getUniqueId() ) + "!" ) );
+            case "bridge_already_linked" -> player.sendMessage( WCMessages.message( "error", "Your account is already linked to " + WCAccountBridge.getWikiUser( player.getUniqueId() ) + "!" ) );
             case "no_account" -> player.sendMessage( WCMessages.message( "error", "You don't have an account to relink! Use /wiki account link <wikiUser> to create a bridge." ) );
             case "success" -> {
-                player.sendMessage( WCMessages.message( "info", "Your account has been relinked to " + WCAccountBridge.getUUIDToWikiUserMap().get( player.getUniqueId() ) + "!" ) );
+                player.sendMessage( WCMessages.message( "info", "Your account has been relinked to " + WCAccountBridge.getWikiUser( player.getUniqueId() ) + "!" ) );
                 WCPermissions.grantPermission( player.getUniqueId(), "wikicraft.pages.manage" );
 
             }
@@ -306,17 +322,15 @@ public class WCCommandWikiAccount {
     /**
      * Handles the result of a link request.
      *
-     * @param player   The player who initiated the link request.
-     * @param wikiUser The MediaWiki user to link the player's UUID to.
+     * @param player        The player who initiated the link request.
+     * @param wikiUser      The MediaWiki user to link the player's UUID to.
+     * @param requestResult The result of the link request.
      *
      * @since 0.1.0
      */
-    private static void handleLinkRequest( @NotNull Player player, String wikiUser ) {
-        // Request link
-        WCMessages.debug( "info", "Requesting link for " + player.getName() + " to " + wikiUser + "..." );
-
+    private static void handleLinkRequest( @NotNull Player player, String wikiUser, @NotNull String requestResult ) {
         // Handle request
-        switch ( WCAccountBridge.requestLink( player.getUniqueId(), wikiUser ) ) {
+        switch ( requestResult ) {
             case "mediawiki_account_already_linked" -> {
                 WCMessages.debug( "warning", "Link request from " + player.getName() + " to " + wikiUser + " failed: MediaWiki account already linked." );
                 player.sendMessage( WCMessages.message( "error", "Link failed! " + wikiUser + " is already linked to " + WCUtils.getPlayer( WCAccountBridge.UUIDOfWikiUser( wikiUser ) ).getName() + "." ) );
@@ -404,6 +418,58 @@ public class WCCommandWikiAccount {
             } );
     }
 
+    /**
+     * Creates the {@code /wiki account migrate} subcommand.
+     * <p><b>Permission:</b> {@code wikicraft.command.account.migrate}
+     * <p><b>Usage:</b> {@code /wiki account migrate}
+     * <ul>
+     *     <li>{@code /wiki account migrate}: Imports account_bridge.json into the current account storage
+     * </ul>
+     *
+     * @return A {@link CommandAPICommand} object representing the {@code /wiki account migrate} subcommand
+     *
+     * @since 0.2.0
+     *
+     * @see WCCommandWikiAccount#getCommand()
+     * @see WCAccountBridge#migrateFromJson()
+     */
+    private static CommandAPICommand migrateSubcommand() {
+        // Log subcommand load
+        WCMessages.debug( "info", "Creating command: /wiki account migrate" );
+
+        // /wiki account migrate
+        return new CommandAPICommand( "migrate" )
+            .withPermission( "wikicraft.command.account.migrate" )
+            .executes( ( sender, args ) -> {
+                sender.sendMessage( WCMessages.message( "info", "Migrating account_bridge.json to " + WCAccountBridge.getStorage().getName() + " storage..." ) );
+
+                // Migrate off the server thread, then report back on it
+                try {
+                    WCAsync.getExecutor().execute( () -> {
+                        try {
+                            int migrated = WCAccountBridge.migrateFromJson();
+                            WCAsync.runOnMainThread( () -> sender.sendMessage( WCMessages.message( "info", "Migrated " + migrated + " account(s) to " + WCAccountBridge.getStorage().getName() + " storage." ) ) );
+
+                        } catch ( IllegalStateException e ) {
+                            WCAsync.runOnMainThread( () -> sender.sendMessage( WCMessages.message( "error", "Accounts are already stored in account_bridge.json. Set account-storage to sqlite and restart the server first." ) ) );
+
+                        } catch ( Exception e ) {
+                            WCMessages.debug( "warning", "Could not migrate account_bridge.json: " + e.getMessage() );
+                            WCAsync.runOnMainThread( () -> sender.sendMessage( WCMessages.message( "error", "Migration failed: " + e.getMessage() ) ) );
+
+                        }
+
+                    } );
+
+                } catch ( RejectedExecutionException e ) {
+                    sender.sendMessage( WCMessages.message( "error", "The wiki is busy right now. Please try again shortly." ) );
+
+                }
+
+            } );
+
+    }
+
     /**
      * Creates the {@code /wiki account unlink [wikiUser]} subcommand.
      * <p><b>Permission:</b> {@code wikicraft.account.bridge}
@@ -476,7 +542,7 @@ public class WCCommandWikiAccount {
      * @since 0.1.0
      */
     private static void handleSelfUnlink( @NotNull Player player ) {
-        String currentLink = WCAccountBridge.getUUIDToWikiUserMap().get( player.getUniqueId() );
+        String currentLink = WCAccountBridge.getWikiUser( player.getUniqueId() );
 
         if ( currentLink == null ) {
             player.sendMessage( WCMessages.message( "error", "You don't have any accounts to unlink!" ) );
@@ -484,9 +550,16 @@ public class WCCommandWikiAccount {
 
         }
 
-        WCAccountBridge.removeLinkWithUUID( player.getUniqueId() );
-        WCPermissions.revokePermission( player.getUniqueId(), "wikicraft.pages.manage" );
-        player.sendMessage( WCMessages.message( "info", "Unlinked your account from your MediaWiki account. You will be unable to manage pages or their content until you link your account again." ) );
+        // Unlink off the main thread, as storing the change waits on the disk
+        WCAsync.supply( player, "account-unlink", () -> {
+            WCAccountBridge.removeLinkWithWikiUser( currentLink );
+            return currentLink;
+
+        }, unlinked -> {
+            WCPermissions.revokePermission( player.getUniqueId(), "wikicraft.pages.manage" );
+            player.sendMessage( WCMessages.message( "info", "Unlinked your account from your MediaWiki account. You will be unable to manage pages or their content until you link your account again." ) );
+
+        } );
 
     }
 
@@ -498,7 +571,7 @@ public class WCCommandWikiAccount {
      * @since 0.1.0
      */
     private static void handleOtherUnlink( @NotNull Player player, String wikiUser ) {
-        UUID linkedUUID = WCAccountBridge.getWikiUserToUUIDMap().get( wikiUser );
+        UUID linkedUUID = WCAccountBridge.getStorage().getUUID( wikiUser );
         Player linkedPlayer = WCUtils.getPlayer( linkedUUID );
 
         if ( linkedUUID == null ) {
@@ -507,9 +580,15 @@ public class WCCommandWikiAccount {
 
         }
 
-        WCMessages.debug( "info", "Unlinking " + linkedPlayer.getName() + " from " + wikiUser + "..." );
-        WCAccountBridge.removeLinkWithWikiUser( wikiUser );
-        player.sendMessage( WCMessages.message( "info", "Successfully unlinked " + wikiUser + " from " + linkedPlayer.getName() + "!" ) );
+        String linkedName = linkedPlayer.getName();
+        WCMessages.debug( "info", "Unlinking " + linkedName + " from " + wikiUser + "..." );
+
+        // Unlink off the main thread, as storing the change waits on the disk
+        WCAsync.supply( player, "account-unlink", () -> {
+            WCAccountBridge.removeLinkWithWikiUser( wikiUser );
+            return wikiUser;
+
+        }, unlinked -> player.sendMessage( WCMessages.message( "info", "Successfully unlinked " + unlinked + " from " + linkedName + "!" ) ) );
 
     }
 
@@ -9,6 +9,7 @@ import io.github.iherongh.wikicraft.arguments.WCArguments;
 import io.github.iherongh.wikicraft.config.WCConfigUtils;
 import io.github.iherongh.wikicraft.messages.WCMessages;
 import io.github.iherongh.wikicraft.utils.WCUtils;
+import io.github.iherongh.wikicraft.wiki.WCWikiUtils;
 import org.bukkit.configuration.file.FileConfiguration;
 
 import java.io.File;
@@ -155,8 +156,8 @@ public class WCCommandWikiConfig {
         return new CommandAPICommand( "reload" )
             .withPermission( "wikicraft.command.config.reload" )
             .executes( ( sender, args ) -> {
-                WikiCraft.getInstance().reloadConfig();
-                WikiCraft.getInstance().saveConfig();
+                WCConfigUtils.reloadConfig();
+                WCWikiUtils.applySettings();
                 sender.sendMessage( WCMessages.message( "info", "Configuration reloaded successfully." ) );
 
             } );
@@ -235,8 +236,10 @@ public class WCCommandWikiConfig {
 
                         }
 
-                        // Save the config
+                        // Save the config, then validate the new settings
                         WikiCraft.getInstance().saveConfig();
+                        WCConfigUtils.loadSettings();
+                        WCWikiUtils.applySettings();
                         sender.sendMessage( WCMessages.message( "info", "Config value updated successfully!" ) );
 
                     }
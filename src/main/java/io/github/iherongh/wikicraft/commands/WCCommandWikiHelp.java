@@ -95,6 +95,10 @@ public class WCCommandWikiHelp {
                 .color((TextColor) PRIMARY))
             .append(Component.text("Reload the WikiCraft plugin configuration.\n")
                 .color((TextColor) TEXT_INFO))
+            .append(Component.text("- /wiki stats: ")
+                .color((TextColor) PRIMARY))
+            .append(Component.text("Show how long wiki requests take, and how many fail.\n")
+                .color((TextColor) TEXT_INFO))
             .append(Component.text("- /wiki pages: ")
                 .color((TextColor) PRIMARY))
             .append(Component.text("Create, edit, delete, search, and view wiki pages.")
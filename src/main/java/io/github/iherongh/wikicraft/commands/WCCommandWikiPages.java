@@ -2,21 +2,33 @@ package io.github.iherongh.wikicraft.commands;
 
 import dev.jorel.commandapi.CommandAPICommand;
 import dev.jorel.commandapi.arguments.GreedyStringArgument;
+import dev.jorel.commandapi.arguments.IntegerArgument;
 import dev.jorel.commandapi.arguments.StringArgument;
-import io.github.fastily.jwiki.core.WParser;
-import io.github.fastily.jwiki.core.Wiki;
+import io.github.iherongh.wikicraft.WikiCraft;
 import io.github.iherongh.wikicraft.account.WCAccountBridge;
 import io.github.iherongh.wikicraft.arguments.WCArguments;
+import io.github.iherongh.wikicraft.async.WCAsync;
 import io.github.iherongh.wikicraft.config.WCConfigUtils;
 import io.github.iherongh.wikicraft.messages.WCMessages;
 import io.github.iherongh.wikicraft.utils.WCUtils;
+import io.github.iherongh.wikicraft.wiki.WCBookRenderer;
+import io.github.iherongh.wikicraft.wiki.WCEditQueue;
+import io.github.iherongh.wikicraft.wiki.WCPageInfo;
+import io.github.iherongh.wikicraft.wiki.WCSearchResult;
 import io.github.iherongh.wikicraft.wiki.WCWiki;
 import io.github.iherongh.wikicraft.wiki.WCWikiUtils;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.TextColor;
+import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.HashMap;
+import java.util.UUID;
+
 
 /**
  * The {@code /wiki pages} command.
@@ -31,6 +43,8 @@ import java.util.HashMap;
  * @see WCCommandWikiPages#editSubcommand()
  * @see WCCommandWikiPages#infoSubcommand()
  * @see WCCommandWikiPages#readSubcommand()
+ * @see WCCommandWikiPages#resultsSubcommand()
+ * @see WCCommandWikiPages#sectionSubcommand()
  * @see WCCommandWikiPages#searchSubcommand()
  */
 public class WCCommandWikiPages {
@@ -49,7 +63,9 @@ public class WCCommandWikiPages {
      *     <li>{@code /wiki pages delete <page>}: Deletes a page
      *     <li>{@code /wiki pages edit <page> <content>}: Edits a page with the given content
      *     <li>{@code /wiki pages info <page>}: Gets information about a page
-     *     <li>{@code /wiki pages read <page>}: Displays text on a page
+     *     <li>{@code /wiki pages read <page>}: Opens a page as a book
+     *     <li>{@code /wiki pages results <offset> <query>}: Pages through search results
+     *     <li>{@code /wiki pages section <section> <page>}: Opens a section of a page as a book
      *     <li>{@code /wiki pages search <query>}: Searches for pages
      * </ul>
      *
@@ -95,6 +111,12 @@ public class WCCommandWikiPages {
             // /wiki pages info
             readSubcommand(),
 
+            // /wiki pages results
+            resultsSubcommand(),
+
+            // /wiki pages section
+            sectionSubcommand(),
+
             // /wiki pages search
             searchSubcommand()
 
@@ -115,8 +137,8 @@ public class WCCommandWikiPages {
      * @since 0.1.0
      *
      * @see WCCommandWikiPages#getCommand()
-     * @see WCCommandWikiPages#handleAddRequest(Player, String, String, long) 
-     * @see WCCommandWikiPages#createNewPage(Player, String, String) 
+     * @see WCCommandWikiPages#handleAddRequest(Player, String, String, long)
+     * @see WCCommandWikiPages#queueEdit(Player, String, String, String)
      */
     private static CommandAPICommand addSubcommand() {
         // Log subcommand load
@@ -159,7 +181,7 @@ public class WCCommandWikiPages {
      *
      * @see WCCommandWikiPages#getCommand()
      * @see WCCommandWikiPages#addSubcommand()
-     * @see WCCommandWikiPages#createNewPage(Player, String, String) 
+     * @see WCCommandWikiPages#queueEdit(Player, String, String, String)
      */
     private static void handleAddRequest( @NotNull Player player, String page, String content, long cooldown ) {
         // Announce player's attempt to add page
@@ -174,53 +196,84 @@ public class WCCommandWikiPages {
 
         }
 
-        // Check if page already exists
-        if ( WCWiki.getWiki().exists( page ) ) {
-            WCMessages.debug( "warning", "Page " + page + " already exists, aborting add request." );
-            player.sendMessage( WCMessages.message( "error", "Page " + page + " already exists. Use '/wiki edit' to apply these changes." ) );
-            return;
+        // Check if page already exists off the main thread, then queue it
+        WCAsync.supply( player, "pages-add", () -> WCWikiUtils.pageExists( page ), exists -> {
+            if ( exists ) {
+                WCMessages.debug( "warning", "Page " + page + " already exists, aborting add request." );
+                player.sendMessage( WCMessages.message( "error", "Page " + page + " already exists. Use '/wiki edit' to apply these changes." ) );
+                return;
 
-        }
+            }
+
+            queueEdit( player, page, content, "created" );
+
+        } );
 
-        // Create new page
-        createNewPage( player, page, content );
+        // Update last request time
+        WCUtils.setLastRequestTime( player );
         
     }
 
     /**
-     * Creates a new page with the specified content.
-     * @param player The player who is creating the page
+     * Queues a write to a page and reports its progress to the player.
+     * <p>Writes to the same page are sent one at a time, and writes made while one is being sent are combined into a
+     * single write; see {@link WCEditQueue}. The player is told when their write is queued, when it is sent, and
+     * whether it was saved, as long as they are still online. If the wiki cannot be reached, the write is kept and
+     * retried, and the player is told once it is saved, even if they have to rejoin first.
+     *
+     * @param player The player who made the write
      * @param page The name of the page
-     * @param content The content of the page
+     * @param content The new content of the page, or {@code null} to delete it
+     * @param action What the write does to the page, e.g. {@code created} or {@code deleted}
      *
-     * @since 0.1.0
+     * @since 0.2.0
      *
-     * @see WCCommandWikiPages#getCommand()
-     * @see WCCommandWikiPages#addSubcommand()
      * @see WCCommandWikiPages#handleAddRequest(Player, String, String, long)
+     * @see WCCommandWikiPages#handleDeleteRequest(Player, long, Long, String)
+     * @see WCCommandWikiPages#handleEditRequest(Player, String, String)
      */
-    private static void createNewPage( @NotNull Player player, String page, String content ) {
-        // Announce page creation
-        WCMessages.debug( "info", "Creating page via WikiCraft bot account " + WCConfigUtils.getWikiBotUsername() + "..." );
+    private static void queueEdit( @NotNull Player player, String page, @Nullable String content, String action ) {
+        UUID uuid = player.getUniqueId();
+        String name = player.getName();
+
+        WCEditQueue.getInstance().submit( page, content, WCAccountBridge.getWikiUser( uuid ) + " (" + name + ")", uuid,
+                () -> notifyPlayer( uuid, "info", "Your changes to \"" + page + "\" are queued." ),
+                () -> notifyPlayer( uuid, "info", "Sending your changes to \"" + page + "\"..." ) )
+            .whenComplete( ( combined, error ) -> {
+                if ( error != null ) {
+                    WCMessages.debug( "warning", name + " could not save page \"" + page + "\" yet: " + error.getMessage() );
+                    notifyPlayer( uuid, "error", error.getMessage() );
+                    return;
 
-        // Generate page content
-        boolean success = WCWiki.getWiki().edit( page, content, "Content generated from WikiCraft by " + WCAccountBridge.getWikiUser( player.getUniqueId() ) + " (" + player.getName() + ")." );
-        
-        // Handle success/failure
-        if ( success ) {
-            WCMessages.debug( "info", player.getName() + " added \"" + page + "\" successfully." );
-            WCMessages.debug( "info", "Content: \n" + content );
-            player.sendMessage( WCMessages.message( "info", "Page \"" + page + "\" created successfully." ) );
+                }
 
-        } else {
-            WCMessages.debug( "warning", player.getName() + " failed to add page \"" + page + "\"." );
-            player.sendMessage( WCMessages.message( "error", "Failed to create page \"" + page + "\"." ) );
+                WCMessages.debug( "info", name + " " + action + " \"" + page + "\" successfully." );
+                notifyPlayer( uuid, "info", "Page \"" + page + "\" " + action + " successfully" + ( combined > 1 ? ", together with " + ( combined - 1 ) + " other edit(s)." : "." ) );
 
-        }
+            } );
+
+    }
+
+    /**
+     * Sends a message to a player on the main thread, if they are still online.
+     *
+     * @param uuid The UUID of the player
+     * @param level The level of the message, e.g. {@code info} or {@code error}
+     * @param message The message to send
+     *
+     * @since 0.2.0
+     */
+    private static void notifyPlayer( UUID uuid, String level, String message ) {
+        WCAsync.runOnMainThread( () -> {
+            Player player = Bukkit.getPlayer( uuid );
+
+            if ( player != null && player.isOnline() ) {
+                player.sendMessage( WCMessages.message( level, message ) );
+
+            }
+
+        } );
 
-        // Update last request time
-        WCUtils.setLastRequestTime( player );
-        
     }
 
     /**
@@ -237,7 +290,7 @@ public class WCCommandWikiPages {
      *
      * @see WCCommandWikiPages#getCommand()
      * @see WCCommandWikiPages#handleDeleteRequest(Player, long, Long, String)
-     * @see WCCommandWikiPages#deletePage(Player, String)
+     * @see WCCommandWikiPages#queueEdit(Player, String, String, String)
      */
     private static CommandAPICommand deleteSubcommand() {
         // Log subcommand load
@@ -274,7 +327,7 @@ public class WCCommandWikiPages {
      *
      * @see WCCommandWikiPages#getCommand()
      * @see WCCommandWikiPages#deleteSubcommand()
-     * @see WCCommandWikiPages#deletePage(Player, String)
+     * @see WCCommandWikiPages#queueEdit(Player, String, String, String)
      */
     private static void handleDeleteRequest( @NotNull Player player, long now, Long lastRequestTime, String page ) {
         WCMessages.debug( "info", player.getName() + " is requesting to delete a page..." );
@@ -285,47 +338,21 @@ public class WCCommandWikiPages {
 
         }
 
-        // Check if page exists before attempting delete
-        if ( !WCWiki.getWiki().exists( page ) ) {
-            player.sendMessage( WCMessages.message( "error", "Page " + page + " does not exist." ) );
-            return;
-
-        }
+        // Check if page exists off the main thread, then queue the deletion
+        WCAsync.supply( player, "pages-delete", () -> WCWikiUtils.pageExists( page ), exists -> {
+            if ( !exists ) {
+                player.sendMessage( WCMessages.message( "error", "Page " + page + " does not exist." ) );
+                return;
 
-        deletePage( player, page );
-    }
-
-    /**
-     * Deletes a wiki page.
-     *
-     * @param player The player who is requesting to delete the page
-     * @param page The name of the page to delete
-     *
-     * @since 0.1.0
-     *
-     * @see WCCommandWikiPages#getCommand()
-     * @see WCCommandWikiPages#deleteSubcommand()
-     * @see WCCommandWikiPages#handleDeleteRequest(Player, long, Long, String)
-     */
-    private static void deletePage( @NotNull Player player, String page ) {
-        // Announce page deletion
-        WCMessages.debug( "info", player.getName() + " (" + WCAccountBridge.getWikiUser( player.getUniqueId() ) + ") is requesting to delete page \"" + page + "\"..." );
-        
-        // Delete page
-        WCWiki.getWiki().delete( page, "Content deleted from WikiCraft by " + WCAccountBridge.getWikiUser( player.getUniqueId() ) + " (" + player.getName() + ")." );
-
-        if ( WCWiki.getWiki().exists( page ) ) {
-            WCMessages.debug( "info", "Failed to delete page \"" + page + "\"." );
-            player.sendMessage( WCMessages.message( "error", "Failed to delete page \"" + page + "\"." ) );
+            }
 
-        } else {
-            WCMessages.debug( "info", player.getName() + " deleted page \"" + page + "\"." );
-            player.sendMessage( WCMessages.message( "info", "Page \"" + page + "\" deleted successfully." ) );
+            WCMessages.debug( "info", player.getName() + " (" + WCAccountBridge.getWikiUser( player.getUniqueId() ) + ") is requesting to delete page \"" + page + "\"..." );
+            queueEdit( player, page, null, "deleted" );
 
-        }
+        } );
 
         WCUtils.setLastRequestTime( player );
-        
+
     }
 
     /**
@@ -342,7 +369,7 @@ public class WCCommandWikiPages {
      *
      * @see WCCommandWikiPages#getCommand()
      * @see WCCommandWikiPages#handleEditRequest(Player, String, String)
-     * @see WCCommandWikiPages#editPage(Player, String, String)
+     * @see WCCommandWikiPages#queueEdit(Player, String, String, String)
      */
     private static CommandAPICommand editSubcommand() {
         // Log subcommand load
@@ -376,7 +403,7 @@ public class WCCommandWikiPages {
      *
      * @see WCCommandWikiPages#getCommand()
      * @see WCCommandWikiPages#editSubcommand()
-     * @see WCCommandWikiPages#editPage(Player, String, String)
+     * @see WCCommandWikiPages#queueEdit(Player, String, String, String)
      */
     private static void handleEditRequest( @NotNull Player player, String page, String content ) {
         WCMessages.debug( "info", player.getName() + " is requesting to edit a page..." );
@@ -389,30 +416,18 @@ public class WCCommandWikiPages {
 
         }
 
-        if ( !WCWiki.getWiki().exists( page ) ) {
-            player.sendMessage( WCMessages.message( "error", "Page " + page + " does not exist. Use '/wiki add' to apply these changes." ) );
-            return;
+        // Check if page exists off the main thread, then queue the edit
+        WCAsync.supply( player, "pages-edit", () -> WCWikiUtils.pageExists( page ), exists -> {
+            if ( !exists ) {
+                player.sendMessage( WCMessages.message( "error", "Page " + page + " does not exist. Use '/wiki add' to apply these changes." ) );
+                return;
 
-        }
+            }
 
-        editPage( player, page, content );
-    }
+            queueEdit( player, page, content, "edited" );
+
+        } );
 
-    /**
-     * Edits a wiki page.
-     * @param player The player who is requesting to edit the page
-     * @param page The name of the page to edit
-     * @param content The new content of the page
-     *
-     * @since 0.1.0 (unused)
-     *
-     * @see WCCommandWikiPages#getCommand()
-     * @see WCCommandWikiPages#editSubcommand()
-     * @see WCCommandWikiPages#handleEditRequest(Player, String, String)
-     */
-    private static void editPage( @NotNull Player player, String page, String content ) {
-        WCWiki.getWiki().edit( page, content, "Content generated from WikiCraft by " + WCAccountBridge.getWikiUser( player.getUniqueId() ) + " (" + player.getName() + ")." );
-        player.sendMessage( WCMessages.message( "info", "Page " + page + " edited successfully." ) );
         WCUtils.setLastRequestTime( player );
 
     }
@@ -430,7 +445,7 @@ public class WCCommandWikiPages {
      * @since 0.1.0
      *
      * @see WCCommandWikiPages#getCommand()
-     * @see WCCommandWikiPages#displayPageInfo(Player, HashMap)
+     * @see WCCommandWikiPages#displayPageInfo(Player, WCPageInfo)
      */
     private static CommandAPICommand infoSubcommand() {
         // Log subcommand load
@@ -443,9 +458,8 @@ public class WCCommandWikiPages {
             .executesPlayer( ( player, args ) -> {
                 try {
                     String page = args.getRaw( "page" );
-                    HashMap<String, String> pageInfo = WCWikiUtils.getPageInfo( page );
 
-                    displayPageInfo( player, pageInfo );
+                    WCAsync.supply( player, "pages-info", () -> WCWikiUtils.getPageInfo( page ), pageInfo -> displayPageInfo( player, pageInfo ) );
 
                 } catch ( Exception e ) {
                     WCMessages.throwError( e, player );
@@ -465,12 +479,20 @@ public class WCCommandWikiPages {
      * @see WCCommandWikiPages#getCommand()
      * @see WCCommandWikiPages#infoSubcommand()
      */
-    private static void displayPageInfo( @NotNull Player player, @NotNull HashMap<String, String> pageInfo ) {
+    private static void displayPageInfo( @NotNull Player player, @NotNull WCPageInfo pageInfo ) {
+        if ( !pageInfo.exists() ) {
+            player.sendMessage( WCMessages.message( "error", "Page " + pageInfo.getTitle() + " does not exist." ) );
+            return;
+
+        }
+
+        String url = pageInfo.getUrl() != null ? pageInfo.getUrl() : WCUtils.pageURL( pageInfo.getTitle() );
+
         player.sendMessage( WCMessages.message( "info", "Page info: " ) );
-        player.sendMessage( WCMessages.message( "info", "Title: " + pageInfo.get( "title" ), false ) );
-        player.sendMessage( WCMessages.message( "info", "URL: ", false ).append( WCMessages.message( "info", pageInfo.get( "url" ), false ) ) );
-        player.sendMessage( WCMessages.message( "info", "Categories: " + pageInfo.get( "categories" ), false ) );
-        player.sendMessage( WCMessages.message( "info", "Last edit by: ", false ).append( WCMessages.message( "info", WCUtils.hyperlink( pageInfo.get( "last_editor" ), WCUtils.userURL( pageInfo.get( "last_editor" ) ) ), false ) ) );
+        player.sendMessage( WCMessages.message( "info", "Title: " + pageInfo.getTitle(), false ) );
+        player.sendMessage( WCMessages.message( "info", "URL: ", false ).append( WCMessages.message( "info", url, false ) ) );
+        player.sendMessage( WCMessages.message( "info", "Categories: " + String.join( ", ", pageInfo.getCategories() ), false ) );
+        player.sendMessage( WCMessages.message( "info", "Last edit by: ", false ).append( WCMessages.message( "info", WCUtils.hyperlink( pageInfo.getLastEditor(), WCUtils.userURL( pageInfo.getLastEditor() ) ), false ) ) );
 
     }
 
@@ -479,7 +501,7 @@ public class WCCommandWikiPages {
      * <p><b>Permission:</b> {@code wikicraft.pages.view}
      * <p><b>Usage:</b> {@code /wiki pages read <page>}
      * <ul>
-     *     <li>{@code /wiki pages read <page>}: Displays the specified wiki page
+     *     <li>{@code /wiki pages read <page>}: Opens the specified wiki page as a book, at its lead section
      * </ul>
      *
      * @return A {@link CommandAPICommand} object representing the {@code /wiki pages read} subcommand
@@ -487,7 +509,8 @@ public class WCCommandWikiPages {
      * @since 0.1.0
      *
      * @see WCCommandWikiPages#getCommand()
-     * @see WParser#parsePage(Wiki, String)
+     * @see WCCommandWikiPages#sectionSubcommand()
+     * @see WCBookRenderer#render(String, int)
      */
     private static CommandAPICommand readSubcommand() {
         // Log subcommand load
@@ -499,8 +522,7 @@ public class WCCommandWikiPages {
             .withArguments( WCArguments.wikiPagesArgument() )
             .executesPlayer( ( player, args ) -> {
                 try {
-                    String page = args.getRaw( "page" );
-                    player.sendMessage( WCMessages.message( "info", String.valueOf( WParser.parsePage( WCWiki.getWiki(), page ) ) ) );
+                    openBook( player, args.getRaw( "page" ), 0 );
 
                 } catch ( Exception e ) {
                     WCMessages.throwError( e, player );
@@ -509,12 +531,74 @@ public class WCCommandWikiPages {
             } );
     }
 
+    /**
+     * Creates the {@code /wiki pages section <section> <page>} subcommand.
+     * <p><b>Permission:</b> {@code wikicraft.pages.view}
+     * <p><b>Usage:</b> {@code /wiki pages section <section> <page>}
+     * <ul>
+     *     <li>{@code /wiki pages section <section> <page>}: Opens a section of the specified wiki page as a book
+     * </ul>
+     * <p>Run by the table of contents and the previous and next buttons in a page's book.
+     *
+     * @return A {@link CommandAPICommand} object representing the {@code /wiki pages section} subcommand
+     *
+     * @since 0.2.0
+     *
+     * @see WCCommandWikiPages#getCommand()
+     * @see WCCommandWikiPages#readSubcommand()
+     */
+    private static CommandAPICommand sectionSubcommand() {
+        // Log subcommand load
+        WCMessages.debug( "info", "Creating command: /wiki pages section <section> <page>" );
+
+        // /wiki pages section <section> <page>
+        return new CommandAPICommand( "section" )
+            .withPermission( "wikicraft.pages.view" )
+            .withArguments( new IntegerArgument( "section", 0 ), new GreedyStringArgument( "page" ) )
+            .executesPlayer( ( player, args ) -> {
+                try {
+                    openBook( player, args.getRaw( "page" ), ( int ) args.get( "section" ) );
+
+                } catch ( Exception e ) {
+                    WCMessages.throwError( e, player );
+
+                }
+
+            } );
+
+    }
+
+    /**
+     * Renders a section of a wiki page off the main thread, then opens it as a book for the player.
+     *
+     * @param player  The player to open the book for.
+     * @param page    The title of the page.
+     * @param section The index of the section; {@code 0} is the lead section.
+     *
+     * @since 0.2.0
+     *
+     * @see WCBookRenderer#render(String, int)
+     */
+    private static void openBook( @NotNull Player player, @NotNull String page, int section ) {
+        WCAsync.supply( player, "pages-read", () -> WCBookRenderer.render( page, section ), book -> {
+            if ( book == null ) {
+                player.sendMessage( WCMessages.message( "error", "Page " + page + " does not exist." ) );
+                return;
+
+            }
+
+            player.openBook( book );
+
+        } );
+
+    }
+
     /**
      * Creates the {@code /wiki pages search [query]} subcommand.
      * <p><b>Permission:</b> {@code wikicraft.pages.view}
      * <p><b>Usage:</b> {@code /wiki pages search [query]}
      * <ul>
-     *     <li>{@code /wiki pages search}: Lists all wiki pages
+     *     <li>{@code /wiki pages search}: Lists wiki pages, {@code max-results} at a time
      *     <li>{@code /wiki pages search <query>}: Searches for wiki pages matching the query
      * </ul>
      *
@@ -537,7 +621,7 @@ public class WCCommandWikiPages {
                     String query = args.getRaw( "query" );
                     
                     if ( query == null ) {
-                        displayAllPages( player );
+                        displayAllPages( player, 0 );
                         return;
 
                     }
@@ -554,26 +638,96 @@ public class WCCommandWikiPages {
     }
 
     /**
-     * Displays all wiki pages to the player.
+     * Displays a page of wiki pages to the player.
+     * <p>Shows {@code max-results} titles from the page index, then the same previous and next buttons as search
+     * results, so a wiki of any size never floods chat.
      * 
      * @param player The player to display the pages to.
+     * @param offset The offset of the first title to display.
      * 
      * @since 0.1.0
      * 
      * @see WCCommandWikiPages#getCommand()
      * @see WCCommandWikiPages#searchSubcommand()
-     * @see WCCommandWikiPages#performSearch(Player, String)
+     * @see WCCommandWikiPages#resultsSubcommand()
+     * @see WCWikiUtils#listPages(int)
      */
-    private static void displayAllPages( Player player ) {
-        for ( String result : WCWikiUtils.getAllPages( "main" ) ) {
-            player.sendMessage( WCMessages.message( "info", result ) );
+    private static void displayAllPages( Player player, int offset ) {
+        WCAsync.supply( player, "pages-search", () -> WCWikiUtils.listPages( offset ), result -> {
+            if ( result.getTitles().isEmpty() ) {
+                player.sendMessage( WCMessages.message( "error", "No pages found." ) );
+                return;
 
-        }
+            }
+
+            int first = result.getOffset() + 1;
+            int last = result.getOffset() + result.getTitles().size();
+            player.sendMessage( WCMessages.message( "info", "Pages " + first + "-" + last + " of " + result.getTotalHits() + ":" ) );
+
+            for ( String title : result.getTitles() ) {
+                player.sendMessage( WCMessages.message( "info", title ) );
+
+            }
+
+            if ( result.hasPrevious() || result.hasNext() ) {
+                player.sendMessage( WCMessages.message( "info", pageButtons( null, result ), false ) );
+
+            }
+
+        } );
         
     }
 
     /**
-     * Searches for wiki pages matching the query and displays the results to the player.
+     * Creates the {@code /wiki pages results <offset> [query]} subcommand.
+     * <p><b>Permission:</b> {@code wikicraft.pages.view}
+     * <p><b>Usage:</b> {@code /wiki pages results <offset> [query]}
+     * <ul>
+     *     <li>{@code /wiki pages results <offset>}: Displays a page of all wiki pages, starting at the offset
+     *     <li>{@code /wiki pages results <offset> <query>}: Displays a page of search results, starting at the offset
+     * </ul>
+     * <p>Run by the previous and next buttons under search results and page listings.
+     *
+     * @return A {@link CommandAPICommand} object representing the {@code /wiki pages results} subcommand
+     *
+     * @since 0.2.0
+     *
+     * @see WCCommandWikiPages#getCommand()
+     * @see WCCommandWikiPages#searchSubcommand()
+     */
+    private static CommandAPICommand resultsSubcommand() {
+        // Log subcommand load
+        WCMessages.debug( "info", "Creating command: /wiki pages results <offset> [query]" );
+
+        // /wiki pages results <offset> [query]
+        return new CommandAPICommand( "results" )
+            .withPermission( "wikicraft.pages.view" )
+            .withArguments( new IntegerArgument( "offset", 0 ) )
+            .withOptionalArguments( new GreedyStringArgument( "query" ) )
+            .executesPlayer( ( player, args ) -> {
+                try {
+                    String query = args.getRaw( "query" );
+                    int offset = ( int ) args.get( "offset" );
+
+                    if ( query == null ) {
+                        displayAllPages( player, offset );
+                        return;
+
+                    }
+
+                    performSearch( player, query, offset );
+
+                } catch ( Exception e ) {
+                    WCMessages.throwError( e, player );
+
+                }
+
+            } );
+
+    }
+
+    /**
+     * Searches for wiki pages matching the query and displays the first page of results to the player.
      * 
      * @param player The player to display the results to.
      * @param query The query to search for.
@@ -582,20 +736,81 @@ public class WCCommandWikiPages {
      * 
      * @see WCCommandWikiPages#getCommand()
      * @see WCCommandWikiPages#searchSubcommand()
-     * @see WCCommandWikiPages#displayAllPages(Player)
+     * @see WCCommandWikiPages#displayAllPages(Player, int)
      */
     private static void performSearch( Player player, String query ) {
-        if ( WCWikiUtils.getResultCount( query ) > 1 ) {
-            for ( String result : WCWikiUtils.searchWiki( query ) ) {
-                player.sendMessage( WCMessages.message( "info", result ) );
-                WCMessages.debug( "info", player.getName() + " found page " + result + " with query " + query );
+        performSearch( player, query, 0 );
+
+    }
+
+    /**
+     * Searches for wiki pages matching the query and displays a page of results to the player.
+     * <p>Makes a single request for {@code max-results} titles and the total number of hits, then shows buttons to
+     * move to the previous and next pages.
+     *
+     * @param player The player to display the results to.
+     * @param query The query to search for.
+     * @param offset The offset of the first result to display.
+     *
+     * @since 0.2.0
+     *
+     * @see WCCommandWikiPages#resultsSubcommand()
+     * @see WCWikiUtils#search(String, int)
+     */
+    private static void performSearch( Player player, String query, int offset ) {
+        WCAsync.supply( player, "pages-search", () -> WCWikiUtils.search( query, offset ), result -> {
+            if ( result.getTitles().isEmpty() ) {
+                player.sendMessage( WCMessages.message( "error", "No results found for query \"" + query + "\"." ) );
+                return;
 
             }
 
-        } else {
-            player.sendMessage( WCMessages.message( "error", "No results found for query \"" + query + "\"." ) );
+            int first = result.getOffset() + 1;
+            int last = result.getOffset() + result.getTitles().size();
+            player.sendMessage( WCMessages.message( "info", "Results " + first + "-" + last + " of " + result.getTotalHits() + " for \"" + query + "\":" ) );
 
-        }
+            for ( String title : result.getTitles() ) {
+                player.sendMessage( WCMessages.message( "info", title ) );
+                WCMessages.debug( "info", player.getName() + " found page " + title + " with query " + query );
+
+            }
+
+            if ( result.hasPrevious() || result.hasNext() ) {
+                player.sendMessage( WCMessages.message( "info", pageButtons( query, result ), false ) );
+
+            }
+
+        } );
+
+    }
+
+    /**
+     * Builds the previous and next buttons shown under a page of search results or page listing.
+     *
+     * @param query The query that was searched for, or {@code null} when listing all pages.
+     * @param result The page of results being shown.
+     *
+     * @return The buttons, with any that lead nowhere greyed out.
+     *
+     * @since 0.2.0
+     */
+    private static @NotNull Component pageButtons( @Nullable String query, @NotNull WCSearchResult result ) {
+        int previous = Math.max( 0, result.getOffset() - WCConfigUtils.getMaxResults() );
+        String suffix = query == null ? "" : " " + query;
+
+        Component previousButton = result.hasPrevious()
+            ? Component.text( "[< Previous]" ).color( TextColor.color( WikiCraft.PRIMARY ) )
+                .clickEvent( ClickEvent.runCommand( "/wiki pages results " + previous + suffix ) )
+                .hoverEvent( HoverEvent.showText( Component.text( "Show the previous page of results" ) ) )
+            : Component.text( "[< Previous]" ).color( NamedTextColor.DARK_GRAY );
+
+        Component nextButton = result.hasNext()
+            ? Component.text( "[Next >]" ).color( TextColor.color( WikiCraft.PRIMARY ) )
+                .clickEvent( ClickEvent.runCommand( "/wiki pages results " + result.getNextOffset() + suffix ) )
+                .hoverEvent( HoverEvent.showText( Component.text( "Show the next page of results" ) ) )
+            : Component.text( "[Next >]" ).color( NamedTextColor.DARK_GRAY );
+
+        return previousButton.append( Component.text( " " ) ).append( nextButton );
 
     }
 
@@ -4,6 +4,7 @@ import dev.jorel.commandapi.CommandAPICommand;
 import io.github.iherongh.wikicraft.config.WCConfigUtils;
 import io.github.iherongh.wikicraft.messages.WCMessages;
 import io.github.iherongh.wikicraft.wiki.WCWiki;
+import io.github.iherongh.wikicraft.wiki.WCWikiUtils;
 
 /**
  * The {@code /wiki reload} command.
@@ -26,7 +27,7 @@ public class WCCommandWikiReload {
     /**
      * The last time the wiki was reloaded.
      */
-    private static long lastReload = 0;
+    private static volatile long lastReload = 0;
 
     /**
      * The cooldown for regenerating the wiki.
@@ -68,6 +69,7 @@ public class WCCommandWikiReload {
                     sender.sendMessage( WCMessages.message( "info", "Reloading WikiCraft..." ) );
                     WCConfigUtils.reloadConfig();
                     WCWiki.buildWiki();
+                    WCWikiUtils.reloadCaches();
 
                     // Reset the last reload time
                     lastReload = now;
@@ -0,0 +1,165 @@
+package io.github.iherongh.wikicraft.commands;
+
+import dev.jorel.commandapi.CommandAPICommand;
+import io.github.iherongh.wikicraft.async.WCWikiExecutor;
+import io.github.iherongh.wikicraft.messages.WCMessages;
+import io.github.iherongh.wikicraft.wiki.WCEditQueue;
+import io.github.iherongh.wikicraft.wiki.WCLatencyHistogram;
+import io.github.iherongh.wikicraft.wiki.WCRateLimiter;
+import io.github.iherongh.wikicraft.wiki.WCRenderCache;
+import io.github.iherongh.wikicraft.wiki.WCWikiStats;
+import io.github.iherongh.wikicraft.wiki.WCWikiUtils;
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The {@code /wiki stats} subcommand.
+ *
+ * @author iHeronGH
+ *
+ * @version 0.2.0
+ *
+ * @since 0.2.0
+ *
+ * @see WCCommandWikiStats#getCommand()
+ * @see WCWikiStats
+ */
+public class WCCommandWikiStats {
+
+    /**
+     * Constructs a new {@code WCCommandWikiStats} object.
+     */
+    public WCCommandWikiStats() {}
+
+    /**
+     * Creates the {@code /wiki stats [reset]} subcommand.
+     * <p><b>Permission:</b> {@code wikicraft.command.stats}
+     * <p><b>Usage:</b> {@code /wiki stats [reset]}
+     * <ul>
+     *     <li>{@code /wiki stats}: Shows the request count, errors, bytes received and latency percentiles of each
+     *     wiki API endpoint, and the state of the rate limit, request queue, edit queue and render cache
+     *     <li>{@code /wiki stats reset}: Forgets the statistics of every endpoint
+     * </ul>
+     *
+     * @return A {@link CommandAPICommand} object representing the {@code /wiki stats} subcommand
+     *
+     * @since 0.2.0
+     *
+     * @see WCCommandWiki#getCommand()
+     */
+    public static CommandAPICommand getCommand() {
+        // Log subcommand load
+        WCMessages.debug( "info", "Creating command: /wiki stats [reset]" );
+
+        // /wiki stats [reset]
+        return new CommandAPICommand( "stats" )
+            .withPermission( "wikicraft.command.stats" )
+            .withSubcommand(
+
+                // /wiki stats reset
+                new CommandAPICommand( "reset" )
+                    .withPermission( "wikicraft.command.stats" )
+                    .executes( ( sender, args ) -> {
+                        WCWikiStats.getInstance().reset();
+                        sender.sendMessage( WCMessages.message( "info", "Wiki request statistics have been reset." ) );
+
+                    } )
+
+            )
+            .executes( ( sender, args ) -> {
+                try {
+                    sendStats( sender );
+
+                } catch ( Exception e ) {
+                    WCMessages.throwError( e, sender );
+
+                }
+
+            } );
+
+    }
+
+    /**
+     * Sends the statistics of every endpoint, then the state of the rate limit, queues and render cache.
+     *
+     * @param sender The sender to send the statistics to.
+     *
+     * @since 0.2.0
+     */
+    private static void sendStats( @NotNull CommandSender sender ) {
+        WCWikiStats stats = WCWikiStats.getInstance();
+        Map<String, WCWikiStats.Endpoint> endpoints = stats.getEndpoints();
+        long minutes = ( System.currentTimeMillis() - stats.getSince() ) / 60000;
+
+        sender.sendMessage( WCMessages.message( "info", "Wiki requests in the last " + minutes + " minute(s):" ) );
+
+        if ( endpoints.isEmpty() ) {
+            sender.sendMessage( WCMessages.message( "info", "No requests yet.", false ) );
+
+        }
+
+        for ( Map.Entry<String, WCWikiStats.Endpoint> entry : endpoints.entrySet() ) {
+            WCWikiStats.Endpoint endpoint = entry.getValue();
+            WCLatencyHistogram latency = endpoint.getLatency();
+
+            sender.sendMessage( WCMessages.message( "info", entry.getKey() + ": " + endpoint.getCount() + " requests, "
+                + endpoint.getErrors() + " errors, " + formatBytes( endpoint.getBytes() ), false ) );
+            sender.sendMessage( WCMessages.message( "info", "  p50 " + formatMicros( latency.getPercentile( 50 ) )
+                + ", p90 " + formatMicros( latency.getPercentile( 90 ) )
+                + ", p99 " + formatMicros( latency.getPercentile( 99 ) )
+                + ", max " + formatMicros( latency.getMax() ), false ) );
+
+        }
+
+        WCRateLimiter limiter = WCRateLimiter.getInstance();
+        WCWikiExecutor executor = WCWikiExecutor.getInstance();
+        WCRenderCache renderCache = WCWikiUtils.getRenderCache();
+
+        sender.sendMessage( WCMessages.message( "info", String.format( Locale.ROOT, "Rate limit: %.1f requests/s, %d throttled by the wiki",
+            limiter.getRate(), limiter.getThrottled() ), false ) );
+        sender.sendMessage( WCMessages.message( "info", "Request queue: " + executor.getActiveCount() + " running, "
+            + executor.getQueueDepth() + " waiting, " + executor.getRejectedCount() + " rejected", false ) );
+        sender.sendMessage( WCMessages.message( "info", "Edit queue: " + WCEditQueue.getInstance().getPendingCount() + " pending", false ) );
+        sender.sendMessage( WCMessages.message( "info", "Render cache: " + renderCache.size() + " entries, " + formatBytes( renderCache.getBytes() )
+            + ", " + renderCache.getHits() + " hits, " + renderCache.getMisses() + " misses", false ) );
+
+    }
+
+    /**
+     * Formats a latency for display.
+     *
+     * @param micros The latency, in microseconds.
+     *
+     * @return The latency in milliseconds, or seconds if it is 10 seconds or more.
+     */
+    private static @NotNull String formatMicros( long micros ) {
+        if ( micros >= 10_000_000 ) {
+            return String.format( Locale.ROOT, "%.1f s", micros / 1e6 );
+
+        }
+
+        return micros >= 10_000 ? micros / 1000 + " ms" : String.format( Locale.ROOT, "%.1f ms", micros / 1e3 );
+
+    }
+
+    /**
+     * Formats a size for display.
+     *
+     * @param bytes The size, in bytes.
+     *
+     * @return The size in bytes, kilobytes or megabytes.
+     */
+    private static @NotNull String formatBytes( long bytes ) {
+        if ( bytes >= 1024 * 1024 ) {
+            return String.format( Locale.ROOT, "%.1f MB", bytes / ( 1024.0 * 1024 ) );
+
+        }
+
+        return bytes >= 1024 ? String.format( Locale.ROOT, "%.1f KB", bytes / 1024.0 ) : bytes + " B";
+
+    }
+
+}
@@ -3,11 +3,18 @@ package io.github.iherongh.wikicraft.config;
 import com.google.gson.GsonBuilder;
 import io.github.iherongh.wikicraft.WikiCraft;
 import io.github.iherongh.wikicraft.messages.WCMessages;
+import io.github.iherongh.wikicraft.wiki.WCCacheRefreshPolicy;
+import org.bukkit.configuration.Configuration;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * A class containing utility methods for the config.yml file.
@@ -27,8 +34,9 @@ public class WCConfigUtils {
 
     /**
      * The config.yml file.
+     * <p>Volatile, as settings are read off the server thread.
      */
-    private static FileConfiguration configFile = WikiCraft.getInstance().getConfig();
+    private static volatile FileConfiguration configFile = WikiCraft.getInstance().getConfig();
 
     /**
      * Gets the config file.
@@ -42,13 +50,19 @@ public class WCConfigUtils {
 
     }
 
+    /**
+     * The validated settings, as of the last {@link #loadSettings()}.
+     * <p>Volatile, as settings are read off the server thread.
+     */
+    private static volatile Settings settings = new Settings();
+
     /**
      * Reloads the config file.
      */
     public static void reloadConfig() {
         try {
-            configFile = WikiCraft.getInstance().getConfig();
             WikiCraft.getInstance().reloadConfig();
+            loadSettings();
             WikiCraft.getInstance().saveConfig();
             WCMessages.debug( "info", "Contents of the config has been refreshed." );
 
@@ -59,6 +73,19 @@ public class WCConfigUtils {
 
     }
 
+    /**
+     * Reads and validates every setting, replacing the snapshot the getters return.
+     * <p>Invalid settings are corrected in config.yml, so this must be called on the main thread; it is called when
+     * WikiCraft is enabled and whenever config.yml is reloaded or changed. Every other thread only reads the snapshot.
+     *
+     * @since 0.2.0
+     */
+    public static void loadSettings() {
+        configFile = WikiCraft.getInstance().getConfig();
+        settings = new Settings();
+
+    }
+
     /**
      * Gets the configured wiki URL.
      *
@@ -67,6 +94,16 @@ public class WCConfigUtils {
      * @since 0.1.0
      */
     public static String getWikiURL() {
+        return settings.wikiURL;
+
+    }
+
+    /**
+     * Reads {@code wiki-url} from config.yml, correcting it if it is invalid.
+     *
+     * @return The configured wiki URL.
+     */
+    private static String readWikiURL() {
         if ( !( configFile.get( "wiki-url" ) instanceof String ) ) {
             // Set default wiki-url if value is not a string
             WCMessages.debug( "error", "Invalid wiki-url in config.yml; setting to default (example.com)." );
@@ -124,6 +161,16 @@ public class WCConfigUtils {
      * @since 0.1.0
      */
     public static int getMaxResults() {
+        return settings.maxResults;
+
+    }
+
+    /**
+     * Reads {@code max-results} from config.yml, correcting it if it is invalid.
+     *
+     * @return The maximum number of results to return from the wiki.
+     */
+    private static int readMaxResults() {
         if ( !( configFile.get( "max-results" ) instanceof Integer ) ) {
             configFile.set( "max-results", 10 );
             WikiCraft.getInstance().saveConfig();
@@ -150,6 +197,48 @@ public class WCConfigUtils {
 
     }
 
+    /**
+     * Get the maximum number of suggestions to show while tab completing a page name.
+     *
+     * @return The maximum number of suggestions to show while tab completing a page name.
+     *
+     * @since 0.2.0
+     */
+    public static int getMaxSuggestions() {
+        return settings.maxSuggestions;
+
+    }
+
+    /**
+     * Reads {@code max-suggestions} from config.yml, correcting it if it is invalid.
+     *
+     * @return The maximum number of suggestions to show while tab completing a page name.
+     */
+    private static int readMaxSuggestions() {
+        if ( !( configFile.get( "max-suggestions" ) instanceof Integer ) ) {
+            configFile.set( "max-suggestions", 50 );
+            WikiCraft.getInstance().saveConfig();
+
+        } else {
+            // Cap suggestions to 1 or 500
+            if ( configFile.getInt( "max-suggestions" ) < 1 ) {
+                WCMessages.debug( "error", "Invalid max-suggestions in config.yml; setting to nearest limit (1)." );
+                configFile.set( "max-suggestions", 1 );
+                WikiCraft.getInstance().saveConfig();
+
+            } else if ( configFile.getInt( "max-suggestions" ) > 500 ) {
+                WCMessages.debug( "error", "Invalid max-suggestions in config.yml; setting to nearest limit (500)." );
+                configFile.set( "max-suggestions", 500 );
+                WikiCraft.getInstance().saveConfig();
+
+            }
+
+        }
+
+        return configFile.getInt( "max-suggestions" );
+
+    }
+
     /**
      * Get minimum duration between requests.
      *
@@ -158,6 +247,16 @@ public class WCConfigUtils {
      * @since 0.1.0
      */
     public static int getMinRequestTime() {
+        return settings.minRequestTime;
+
+    }
+
+    /**
+     * Reads {@code time-between-actions} from config.yml, correcting it if it is invalid.
+     *
+     * @return Minimum duration between requests.
+     */
+    private static int readMinRequestTime() {
         // Set default if not set
         if ( !( configFile.get( "time-between-actions" ) instanceof Integer ) ) {
             WCMessages.debug( "error", "Invalid time-between-actions in config.yml; setting to default (20)." );
@@ -181,6 +280,448 @@ public class WCConfigUtils {
 
     }
     
+    /**
+     * Get the maximum number of requests that may be made to the wiki at once.
+     *
+     * @return The maximum number of requests that may be made to the wiki at once.
+     *
+     * @since 0.2.0
+     */
+    public static int getMaxConcurrentRequests() {
+        return settings.maxConcurrentRequests;
+
+    }
+
+    /**
+     * Reads {@code max-concurrent-requests} from config.yml, correcting it if it is invalid.
+     *
+     * @return The maximum number of requests that may be made to the wiki at once.
+     */
+    private static int readMaxConcurrentRequests() {
+        if ( !( configFile.get( "max-concurrent-requests" ) instanceof Integer ) ) {
+            WCMessages.debug( "error", "Invalid max-concurrent-requests in config.yml; setting to default (8)." );
+            configFile.set( "max-concurrent-requests", 8 );
+            WikiCraft.getInstance().saveConfig();
+
+        } else {
+            // Cap requests to 1 or 64
+            if ( configFile.getInt( "max-concurrent-requests" ) < 1 ) {
+                WCMessages.debug( "error", "Invalid max-concurrent-requests in config.yml; setting to nearest limit (1)." );
+                configFile.set( "max-concurrent-requests", 1 );
+                WikiCraft.getInstance().saveConfig();
+
+            } else if ( configFile.getInt( "max-concurrent-requests" ) > 64 ) {
+                WCMessages.debug( "error", "Invalid max-concurrent-requests in config.yml; setting to nearest limit (64)." );
+                configFile.set( "max-concurrent-requests", 64 );
+                WikiCraft.getInstance().saveConfig();
+
+            }
+
+        }
+
+        return configFile.getInt( "max-concurrent-requests" );
+
+    }
+
+    /**
+     * Get the maximum number of requests that may wait for a free slot before new requests are rejected.
+     *
+     * @return The maximum number of requests that may wait for a free slot.
+     *
+     * @since 0.2.0
+     */
+    public static int getMaxQueuedRequests() {
+        return settings.maxQueuedRequests;
+
+    }
+
+    /**
+     * Reads {@code max-queued-requests} from config.yml, correcting it if it is invalid.
+     *
+     * @return The maximum number of requests that may wait for a free slot.
+     */
+    private static int readMaxQueuedRequests() {
+        if ( !( configFile.get( "max-queued-requests" ) instanceof Integer ) || configFile.getInt( "max-queued-requests" ) < 1 ) {
+            WCMessages.debug( "error", "Invalid max-queued-requests in config.yml; setting to default (256)." );
+            configFile.set( "max-queued-requests", 256 );
+            WikiCraft.getInstance().saveConfig();
+
+        }
+
+        return configFile.getInt( "max-queued-requests" );
+
+    }
+
+    /**
+     * Get where the account bridge is stored.
+     *
+     * @return {@code json} or {@code sqlite}.
+     *
+     * @since 0.2.0
+     */
+    public static @NotNull String getAccountStorage() {
+        return settings.accountStorage;
+
+    }
+
+    /**
+     * Reads {@code account-storage} from config.yml, correcting it if it is invalid.
+     *
+     * @return {@code json} or {@code sqlite}.
+     */
+    private static @NotNull String readAccountStorage() {
+        Object storage = configFile.get( "account-storage" );
+
+        if ( !( storage instanceof String ) || !( storage.equals( "json" ) || storage.equals( "sqlite" ) ) ) {
+            WCMessages.debug( "error", "Invalid account-storage in config.yml; setting to default (json)." );
+            configFile.set( "account-storage", "json" );
+            WikiCraft.getInstance().saveConfig();
+
+        }
+
+        return configFile.getString( "account-storage", "json" );
+
+    }
+
+    /**
+     * Get how the page cache is kept up to date.
+     *
+     * @return {@code incremental} or {@code full}.
+     *
+     * @since 0.2.0
+     */
+    public static @NotNull String getPageSync() {
+        return settings.pageSync;
+
+    }
+
+    /**
+     * Reads {@code page-sync} from config.yml, correcting it if it is invalid.
+     *
+     * @return {@code incremental} or {@code full}.
+     */
+    private static @NotNull String readPageSync() {
+        Object sync = configFile.get( "page-sync" );
+
+        if ( !( sync instanceof String ) || !( sync.equals( "incremental" ) || sync.equals( "full" ) ) ) {
+            WCMessages.debug( "error", "Invalid page-sync in config.yml; setting to default (incremental)." );
+            configFile.set( "page-sync", "incremental" );
+            WikiCraft.getInstance().saveConfig();
+
+        }
+
+        return configFile.getString( "page-sync", "incremental" );
+
+    }
+
+    /**
+     * Get how long to wait for more page lookups before sending them to the wiki together.
+     *
+     * @return How long to wait for more page lookups, in milliseconds.
+     *
+     * @since 0.2.0
+     */
+    public static int getTitleBatchWindow() {
+        return settings.titleBatchWindow;
+
+    }
+
+    /**
+     * Reads {@code title-batch-window} from config.yml, correcting it if it is invalid.
+     *
+     * @return How long to wait for more page lookups, in milliseconds.
+     */
+    private static int readTitleBatchWindow() {
+        if ( !( configFile.get( "title-batch-window" ) instanceof Integer ) || configFile.getInt( "title-batch-window" ) < 0 || configFile.getInt( "title-batch-window" ) > 1000 ) {
+            WCMessages.debug( "error", "Invalid title-batch-window in config.yml; setting to default (10)." );
+            configFile.set( "title-batch-window", 10 );
+            WikiCraft.getInstance().saveConfig();
+
+        }
+
+        return configFile.getInt( "title-batch-window" );
+
+    }
+
+    /**
+     * Get the number of changes the account journal may hold before it is compacted into account_bridge.json.
+     *
+     * @return The number of changes the account journal may hold.
+     *
+     * @since 0.2.0
+     */
+    public static int getAccountJournalSize() {
+        return settings.accountJournalSize;
+
+    }
+
+    /**
+     * Reads {@code account-journal-size} from config.yml, correcting it if it is invalid.
+     *
+     * @return The number of changes the account journal may hold.
+     */
+    private static int readAccountJournalSize() {
+        if ( !( configFile.get( "account-journal-size" ) instanceof Integer ) || configFile.getInt( "account-journal-size" ) < 1 ) {
+            WCMessages.debug( "error", "Invalid account-journal-size in config.yml; setting to default (100)." );
+            configFile.set( "account-journal-size", 100 );
+            WikiCraft.getInstance().saveConfig();
+
+        }
+
+        return configFile.getInt( "account-journal-size" );
+
+    }
+
+    /**
+     * Get how long to wait for more account link changes before writing account_bridge.json.
+     *
+     * @return How long to wait for more account link changes, in seconds.
+     *
+     * @since 0.2.0
+     */
+    public static int getAccountSaveDelay() {
+        return settings.accountSaveDelay;
+
+    }
+
+    /**
+     * Reads {@code account-save-delay} from config.yml, correcting it if it is invalid.
+     *
+     * @return How long to wait for more account link changes, in seconds.
+     */
+    private static int readAccountSaveDelay() {
+        if ( !( configFile.get( "account-save-delay" ) instanceof Integer ) || configFile.getInt( "account-save-delay" ) < 0 ) {
+            WCMessages.debug( "error", "Invalid account-save-delay in config.yml; setting to default (5)." );
+            configFile.set( "account-save-delay", 5 );
+            WikiCraft.getInstance().saveConfig();
+
+        }
+
+        return configFile.getInt( "account-save-delay" );
+
+    }
+
+    /**
+     * Get the number of times WikiCraft tries to save a page write before giving up on it.
+     *
+     * @return The number of attempts.
+     *
+     * @since 0.2.0
+     */
+    public static int getEditMaxAttempts() {
+        return settings.editMaxAttempts;
+
+    }
+
+    /**
+     * Reads {@code edit-max-attempts} from config.yml, correcting it if it is invalid.
+     *
+     * @return The number of attempts.
+     */
+    private static int readEditMaxAttempts() {
+        if ( !( configFile.get( "edit-max-attempts" ) instanceof Integer ) || configFile.getInt( "edit-max-attempts" ) < 1 ) {
+            WCMessages.debug( "error", "Invalid edit-max-attempts in config.yml; setting to default (10)." );
+            configFile.set( "edit-max-attempts", 10 );
+            WikiCraft.getInstance().saveConfig();
+
+        }
+
+        return configFile.getInt( "edit-max-attempts" );
+
+    }
+
+    /**
+     * Get a setting of the HTTP client WikiCraft talks to the wiki with.
+     *
+     * @param setting The name of the setting, e.g. {@code read-timeout}.
+     * @param fallback The value to use if none is set.
+     *
+     * @return The value of the setting.
+     *
+     * @since 0.2.0
+     */
+    public static int getHttpSetting( String setting, int fallback ) {
+        return getSectionInt( "http." + setting, 1, fallback );
+
+    }
+
+    /**
+     * Get a setting of the limit on how fast WikiCraft sends requests to the wiki.
+     *
+     * @param setting The name of the setting, e.g. {@code requests-per-second}.
+     * @param fallback The value to use if none is set.
+     *
+     * @return The value of the setting.
+     *
+     * @since 0.2.0
+     */
+    public static int getRateLimitSetting( String setting, int fallback ) {
+        return getSectionInt( "rate-limit." + setting, 0, fallback );
+
+    }
+
+    /**
+     * Get the time-to-live of a cache's entries.
+     *
+     * @param cache The name of the cache, e.g. {@code pages}.
+     * @param fallback The time-to-live to use if none is set, in seconds.
+     *
+     * @return The time-to-live of the cache's entries, in seconds.
+     *
+     * @since 0.2.0
+     */
+    public static int getCacheTTL( String cache, int fallback ) {
+        return getSectionInt( "caches." + cache + ".ttl", 1, fallback );
+
+    }
+
+    /**
+     * Get the maximum number of entries a cache may hold.
+     *
+     * @param cache The name of the cache, e.g. {@code pages}.
+     * @param fallback The maximum number of entries to use if none is set.
+     *
+     * @return The maximum number of entries the cache may hold.
+     *
+     * @since 0.2.0
+     */
+    public static int getCacheMaxSize( String cache, int fallback ) {
+        return getSectionInt( "caches." + cache + ".max-size", 1, fallback );
+
+    }
+
+    /**
+     * Get the maximum total size of a cache's entries.
+     *
+     * @param cache The name of the cache, e.g. {@code render}.
+     * @param fallback The maximum size to use if none is set, in kilobytes.
+     *
+     * @return The maximum total size of the cache's entries, in kilobytes.
+     *
+     * @since 0.2.0
+     */
+    public static int getCacheMaxKilobytes( String cache, int fallback ) {
+        return getSectionInt( "caches." + cache + ".max-kilobytes", 1, fallback );
+
+    }
+
+    /**
+     * Get how a cache reloads expired entries.
+     *
+     * @param cache The name of the cache, e.g. {@code pages}.
+     * @param fallback The refresh policy to use if none is set.
+     *
+     * @return The refresh policy of the cache.
+     *
+     * @since 0.2.0
+     */
+    public static @NotNull WCCacheRefreshPolicy getCacheRefreshPolicy( String cache, @NotNull WCCacheRefreshPolicy fallback ) {
+        String key = "caches." + cache + ".refresh";
+
+        if ( !( settings.sections.get( key ) instanceof String name ) ) {
+            WCMessages.debug( "error", "Invalid " + key + " in config.yml; using default (" + fallback.name().toLowerCase().replace( '_', '-' ) + ")." );
+            return fallback;
+
+        }
+
+        return WCCacheRefreshPolicy.fromName( name, fallback );
+
+    }
+
+    /**
+     * Get the timeout for a command's wiki request.
+     * <p>Falls back to {@code command-timeouts.default} if the command has no timeout of its own.
+     *
+     * @param command The command key, e.g. {@code pages-search}.
+     *
+     * @return The timeout for the command's wiki request, in seconds.
+     *
+     * @since 0.2.0
+     */
+    public static int getCommandTimeout( String command ) {
+        Map<String, Object> sections = settings.sections;
+        String key = "command-timeouts." + command;
+
+        if ( !( sections.get( key ) instanceof Integer ) ) {
+            key = "command-timeouts.default";
+
+        }
+
+        int timeout = sections.get( key ) instanceof Integer value ? value : 15;
+
+        // Cap timeout to 1 or 300
+        if ( timeout < 1 || timeout > 300 ) {
+            WCMessages.debug( "error", "Invalid " + key + " in config.yml; using nearest limit." );
+            timeout = Math.max( 1, Math.min( 300, timeout ) );
+
+        }
+
+        return timeout;
+
+    }
+
+    /**
+     * Gets a whole number from the sections of config.yml held in the settings snapshot.
+     *
+     * @param key      The full key of the setting, e.g. {@code caches.pages.ttl}.
+     * @param min      The smallest valid value.
+     * @param fallback The value to use if none is set, or the value set is invalid.
+     *
+     * @return The value of the setting.
+     */
+    private static int getSectionInt( String key, int min, int fallback ) {
+        if ( !( settings.sections.get( key ) instanceof Integer value ) || value < min ) {
+            WCMessages.debug( "error", "Invalid " + key + " in config.yml; using default (" + fallback + ")." );
+            return fallback;
+
+        }
+
+        return value;
+
+    }
+
+    /**
+     * Reads every setting under some sections of config.yml, including defaults not written to the file.
+     *
+     * @param names The names of the sections, e.g. {@code caches}.
+     *
+     * @return Every setting, by full key, e.g. {@code caches.pages.ttl}.
+     */
+    private static @NotNull Map<String, Object> readSections( String... names ) {
+        Map<String, Object> values = new HashMap<>();
+        Configuration defaults = configFile.getDefaults();
+
+        for ( String name : names ) {
+            Set<String> keys = new LinkedHashSet<>();
+            ConfigurationSection section = configFile.getConfigurationSection( name );
+            ConfigurationSection defaultSection = defaults == null ? null : defaults.getConfigurationSection( name );
+
+            if ( section != null ) {
+                keys.addAll( section.getKeys( true ) );
+
+            }
+
+            if ( defaultSection != null ) {
+                keys.addAll( defaultSection.getKeys( true ) );
+
+            }
+
+            for ( String key : keys ) {
+                Object value = configFile.get( name + "." + key );
+
+                if ( value != null && !( value instanceof ConfigurationSection ) ) {
+                    values.put( name + "." + key, value );
+
+                }
+
+            }
+
+        }
+
+        return Map.copyOf( values );
+
+    }
+
     /**
      * Get the locale to be used for player messages.
      * @return THe locale to be used for player messages.
@@ -188,6 +729,16 @@ public class WCConfigUtils {
      * @since 0.1.0
      */
     public static String getLocale() {
+        return settings.locale;
+
+    }
+
+    /**
+     * Reads {@code locale} from config.yml, correcting it if it is invalid.
+     *
+     * @return THe locale to be used for player messages.
+     */
+    private static String readLocale() {
         if ( !( configFile.get( "locale" ) instanceof String ) ) {
             WCMessages.debug("error", "Invalid locale in config.yml; setting to default (en-us).");
             configFile.set( "locale", "en-us" );
@@ -235,4 +786,83 @@ public class WCConfigUtils {
         }
 
     }
+
+    /**
+     * A snapshot of the validated settings, taken on the main thread.
+     */
+    private static final class Settings {
+
+        /**
+         * The value of {@code wiki-url}.
+         */
+        private final String wikiURL = readWikiURL();
+
+        /**
+         * The value of {@code max-results}.
+         */
+        private final int maxResults = readMaxResults();
+
+        /**
+         * The value of {@code max-suggestions}.
+         */
+        private final int maxSuggestions = readMaxSuggestions();
+
+        /**
+         * The value of {@code time-between-actions}.
+         */
+        private final int minRequestTime = readMinRequestTime();
+
+        /**
+         * The value of {@code max-concurrent-requests}.
+         */
+        private final int maxConcurrentRequests = readMaxConcurrentRequests();
+
+        /**
+         * The value of {@code max-queued-requests}.
+         */
+        private final int maxQueuedRequests = readMaxQueuedRequests();
+
+        /**
+         * The value of {@code account-storage}.
+         */
+        private final String accountStorage = readAccountStorage();
+
+        /**
+         * The value of {@code page-sync}.
+         */
+        private final String pageSync = readPageSync();
+
+        /**
+         * The value of {@code title-batch-window}.
+         */
+        private final int titleBatchWindow = readTitleBatchWindow();
+
+        /**
+         * The value of {@code account-journal-size}.
+         */
+        private final int accountJournalSize = readAccountJournalSize();
+
+        /**
+         * The value of {@code account-save-delay}.
+         */
+        private final int accountSaveDelay = readAccountSaveDelay();
+
+        /**
+         * The value of {@code edit-max-attempts}.
+         */
+        private final int editMaxAttempts = readEditMaxAttempts();
+
+        /**
+         * The value of {@code locale}.
+         */
+        private final String locale = readLocale();
+
+        /**
+         * Every setting under {@code http}, {@code rate-limit}, {@code caches} and {@code command-timeouts}, by full
+         * key. These are validated by their getters, as each caller gives its own default.
+         */
+        private final Map<String, Object> sections = readSections( "http", "rate-limit", "caches", "command-timeouts" );
+
+    }
+
 }
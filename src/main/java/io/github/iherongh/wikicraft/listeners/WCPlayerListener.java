@@ -0,0 +1,54 @@
+package io.github.iherongh.wikicraft.listeners;
+
+import io.github.iherongh.wikicraft.async.WCAsync;
+import io.github.iherongh.wikicraft.wiki.WCEditQueue;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Listens for player events relevant to WikiCraft.
+ *
+ * @author iHeronGH
+ *
+ * @version 0.2.0
+ *
+ * @since 0.2.0
+ */
+public class WCPlayerListener implements Listener {
+
+    /**
+     * Constructs a new {@code WCPlayerListener} object.
+     */
+    public WCPlayerListener() {}
+
+    /**
+     * Sends a player who joins any notices about page writes that were saved or dropped while they were away.
+     *
+     * @param event The join event.
+     *
+     * @since 0.2.0
+     */
+    @EventHandler ( priority = EventPriority.MONITOR )
+    public void onPlayerJoin( @NotNull PlayerJoinEvent event ) {
+        WCEditQueue.getInstance().deliverNotices( event.getPlayer() );
+
+    }
+
+    /**
+     * Cancels any wiki requests still in flight for a player who logs out.
+     *
+     * @param event The quit event.
+     *
+     * @since 0.2.0
+     */
+    @EventHandler ( priority = EventPriority.MONITOR )
+    public void onPlayerQuit( @NotNull PlayerQuitEvent event ) {
+        WCAsync.cancelAll( event.getPlayer().getUniqueId() );
+
+    }
+
+}
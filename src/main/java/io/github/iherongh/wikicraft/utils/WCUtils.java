@@ -12,9 +12,11 @@ import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Contains utility methods for the plugin.
@@ -36,8 +38,9 @@ public class WCUtils {
      * A UUID-to-long map that tracks when a given account last made a request to the wiki.
      * <p>This is used in conjunction with methods that make requests to the wiki and is
      * purposed with ensuring no single user can flood requests.
+     * <p>Concurrent, as requests are completed off the server thread.
      */
-    private static final Map<UUID, Long> lastRequestTime = new HashMap<>();
+    private static final Map<UUID, Long> lastRequestTime = new ConcurrentHashMap<>();
 
     /**
      * Gets a player object from a player name, regardless of whether they are online or not.
@@ -161,12 +164,12 @@ public class WCUtils {
     /**
      * Gets the last time a player sent a request to the wiki.
      *
-     * @return The last time a player sent a request to the wiki.
+     * @return A read-only view of the last time each player sent a request to the wiki.
      *
      * @since 0.1.0
      */
     public static Map<UUID, Long> getLastRequestTimeMap() {
-        return lastRequestTime;
+        return Collections.unmodifiableMap( lastRequestTime );
 
     }
 
@@ -185,12 +188,13 @@ public class WCUtils {
 
     /**
      * Sets the last time a player sent a request to the wiki.
+     * <p>An earlier time never replaces a later one, whichever thread records it last.
      *
      * @param uuid The UUID of the player.
      * @param time The time the request was sent.
      */
     public static void setLastRequestTime( UUID uuid, long time ) {
-        lastRequestTime.put( uuid, time );
+        lastRequestTime.merge( uuid, time, Math::max );
 
     }
 
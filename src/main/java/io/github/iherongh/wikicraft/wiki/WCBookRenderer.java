@@ -0,0 +1,707 @@
+package io.github.iherongh.wikicraft.wiki;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.github.iherongh.wikicraft.messages.WCMessages;
+import io.github.iherongh.wikicraft.utils.WCUtils;
+import net.kyori.adventure.inventory.Book;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextDecoration;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Renders wiki pages as written books, one section at a time.
+ * <p>Opening a page fetches only its table of contents and its lead section; every other section is fetched with
+ * {@code action=parse&section=N} when the player turns to it, from the buttons at the end of each book. Both are cached
+ * in the {@link WCRenderCache} by revision, so reopening an unchanged page costs a single {@code prop=info} request.
+ * <p>Wikitext is converted to components locally: headings, bold and italic text, lists and links are kept, while
+ * templates, tables, references, files and HTML are left out. The result is split into pages by an estimate of how
+ * much text fits on a book page, as the client does not say.
+ *
+ * @author iHeronGH
+ *
+ * @version 0.2.0
+ *
+ * @since 0.2.0
+ *
+ * @see WCBookRenderer#render(String, int)
+ * @see WCBookRenderer#toComponents(String)
+ * @see WCBookRenderer#paginate(List)
+ * @see WCPageSections
+ */
+public final class WCBookRenderer {
+
+    /**
+     * The rough number of characters that fit on a line of a book page.
+     */
+    private static final int LINE_WIDTH = 19;
+
+    /**
+     * The number of lines on a book page.
+     */
+    private static final int LINES_PER_PAGE = 14;
+
+    /**
+     * The most pages a written book may have.
+     */
+    private static final int MAX_PAGES = 100;
+
+    /**
+     * The longest title a written book may have.
+     */
+    private static final int MAX_TITLE_LENGTH = 32;
+
+    /**
+     * Splits text into page breaks, line breaks, words with their trailing spaces, and runs of spaces.
+     */
+    private static final Pattern TOKEN = Pattern.compile( "\f|\n|[^ \n\f]+ *| +" );
+
+    /**
+     * Matches a heading line, e.g. {@code == History ==}.
+     */
+    private static final Pattern HEADING = Pattern.compile( "^(={1,6})\\s*(.+?)\\s*\\1\\s*$" );
+
+    /**
+     * Matches a list item, e.g. {@code * item} or {@code # item}.
+     */
+    private static final Pattern LIST_ITEM = Pattern.compile( "^([*#:;]+)\\s*(.*)$" );
+
+    /**
+     * Matches bold and italic quotes, internal links and external links.
+     */
+    private static final Pattern INLINE = Pattern.compile( "('{2,3})|\\[\\[([^\\[\\]|]+)(?:\\|([^\\[\\]]*))?]]|\\[(https?://[^\\s\\]]+)(?:\\s+([^\\]]*))?]" );
+
+    /**
+     * Matches a template or table with nothing nested in it, so nested ones can be removed from the inside out.
+     */
+    private static final Pattern TEMPLATE = Pattern.compile( "\\{\\{[^{}]*}}|\\{\\|[^{}]*?\\|}" );
+
+    /**
+     * Matches files, images and categories, including links nested in their captions.
+     */
+    private static final Pattern MEDIA = Pattern.compile( "\\[\\[(?i:file|image|category):[^\\[\\]]*(?:\\[\\[[^\\[\\]]*]][^\\[\\]]*)*]]" );
+
+    /**
+     * The style of headings.
+     */
+    private static final Style HEADING_STYLE = Style.style( NamedTextColor.DARK_BLUE, TextDecoration.BOLD );
+
+    /**
+     * Constructs a new {@code WCBookRenderer} object.
+     */
+    private WCBookRenderer() {}
+
+    /**
+     * Renders a section of a page as a written book.
+     * <p>The lead section opens with the page's table of contents, each entry jumping to its section. Every book ends
+     * with buttons to the previous and next sections, which run {@code /wiki pages section}.
+     * <br>Waits on the wiki, so must not be called on the main thread.
+     *
+     * @param page    The title of the page.
+     * @param section The index of the section; {@code 0} is the lead section.
+     *
+     * @return The book, or {@code null} if the page does not exist.
+     *
+     * @throws IOException              If the wiki could not be reached, or returned an error.
+     * @throws IllegalArgumentException If the page has no section with that index.
+     *
+     * @since 0.2.0
+     */
+    public static @Nullable Book render( @NotNull String page, int section ) throws IOException {
+        long revisionId = WCWikiUtils.getRevisionId( page );
+
+        if ( revisionId == 0 ) {
+            return null;
+
+        }
+
+        WCPageSections sections = getSections( page, revisionId );
+        WCPageSections.Section current = sections.get( section );
+
+        if ( section != 0 && current == null ) {
+            throw new IllegalArgumentException( "Page " + sections.getTitle() + " has no section " + section + "." );
+
+        }
+
+        String title = sections.getTitle();
+        List<TextComponent> body = new ArrayList<>();
+
+        if ( section == 0 ) {
+            body.add( Component.text( title + "\n\n", HEADING_STYLE ) );
+
+            if ( !sections.getSections().isEmpty() ) {
+                body.add( Component.text( "Contents\n", Style.style( TextDecoration.BOLD ) ) );
+
+                for ( WCPageSections.Section entry : sections.getSections() ) {
+                    body.add( Component.text( entry.getNumber() + " " + entry.getHeading() + "\n", sectionLink( title, entry ) ) );
+
+                }
+
+                body.add( Component.text( "\f" ) );
+
+            }
+
+        } else {
+            body.add( Component.text( title + "\n", Style.style( NamedTextColor.DARK_GRAY, TextDecoration.ITALIC ) ) );
+
+        }
+
+        body.addAll( toComponents( getSectionText( page, revisionId, section ) ) );
+
+        List<TextComponent> navigation = getNavigation( sections, section );
+        List<TextComponent> all = new ArrayList<>( body );
+        all.addAll( navigation );
+
+        List<Component> pages = paginate( all );
+
+        // Written books are capped at 100 pages, so end the longest sections early with a link to the rest
+        if ( pages.size() > MAX_PAGES ) {
+            List<TextComponent> rest = new ArrayList<>();
+            rest.add( Component.text( "This section continues on the wiki.", linkStyle( WCUtils.pageURL( title.replace( ' ', '_' ) ), "Read the rest online" ) ) );
+            rest.addAll( navigation );
+
+            pages = new ArrayList<>( pages.subList( 0, MAX_PAGES - 1 ) );
+            pages.add( paginate( rest ).get( 0 ) );
+
+        }
+
+        String bookTitle = title.length() > MAX_TITLE_LENGTH ? title.substring( 0, MAX_TITLE_LENGTH - 1 ) + "\u2026" : title;
+        return Book.book( Component.text( bookTitle ), Component.text( "WikiCraft" ), pages );
+
+    }
+
+    /**
+     * Gets the sections of a revision of a page, from the render cache if it holds that revision.
+     *
+     * @param page       The title of the page.
+     * @param revisionId The ID of the latest revision of the page.
+     *
+     * @return The sections of the page.
+     *
+     * @throws IOException If the wiki could not be reached, or returned an error.
+     */
+    private static @NotNull WCPageSections getSections( @NotNull String page, long revisionId ) throws IOException {
+        String key = page + "#sections";
+        String response = WCWikiUtils.getRenderCache().get( key, revisionId );
+
+        if ( response != null ) {
+            return WCPageSections.parse( response, page );
+
+        }
+
+        WCMessages.debug( "info", "Getting the sections of " + page + " at revision " + revisionId + "..." );
+
+        response = WCWikiUtils.request( "parse", List.of(
+            "oldid", String.valueOf( revisionId ),
+            "prop", "sections|revid",
+            "formatversion", "2"
+        ) );
+
+        try {
+            WCPageSections sections = WCPageSections.parse( response, page );
+            WCWikiUtils.getRenderCache().put( key, revisionId, response );
+            return sections;
+
+        } catch ( IllegalStateException e ) {
+            throw new IOException( e.getMessage(), e );
+
+        }
+
+    }
+
+    /**
+     * Gets the wikitext of a section of a revision of a page, from the render cache if it holds that revision.
+     *
+     * @param page       The title of the page.
+     * @param revisionId The ID of the latest revision of the page.
+     * @param section    The index of the section.
+     *
+     * @return The wikitext of the section.
+     *
+     * @throws IOException If the wiki could not be reached, or returned an error.
+     */
+    private static @NotNull String getSectionText( @NotNull String page, long revisionId, int section ) throws IOException {
+        String key = page + "#" + section;
+        String cached = WCWikiUtils.getRenderCache().get( key, revisionId );
+
+        if ( cached != null ) {
+            return cached;
+
+        }
+
+        WCMessages.debug( "info", "Getting section " + section + " of " + page + " at revision " + revisionId + "..." );
+
+        JsonObject json = JsonParser.parseString( WCWikiUtils.request( "parse", List.of(
+            "oldid", String.valueOf( revisionId ),
+            "section", String.valueOf( section ),
+            "prop", "wikitext",
+            "formatversion", "2"
+        ) ) ).getAsJsonObject();
+
+        if ( json.has( "error" ) ) {
+            throw new IOException( "Wiki API returned an error: " + json.getAsJsonObject( "error" ).get( "info" ).getAsString() );
+
+        }
+
+        String wikitext = json.getAsJsonObject( "parse" ).get( "wikitext" ).getAsString();
+
+        WCWikiUtils.getRenderCache().put( key, revisionId, wikitext );
+        return wikitext;
+
+    }
+
+    /**
+     * Creates the buttons at the end of a section, to the previous and next sections and to the page online.
+     *
+     * @param sections The sections of the page.
+     * @param section  The index of the current section.
+     *
+     * @return The buttons, as components to paginate.
+     */
+    private static @NotNull List<TextComponent> getNavigation( @NotNull WCPageSections sections, int section ) {
+        String title = sections.getTitle();
+        List<TextComponent> navigation = new ArrayList<>();
+
+        navigation.add( Component.text( "\n\n" ) );
+
+        if ( section != 0 ) {
+            WCPageSections.Section previous = sections.previous( section );
+            WCPageSections.Section target = previous != null ? previous : new WCPageSections.Section( 0, "", title, 1 );
+
+            navigation.add( Component.text( "\u00AB " + target.getHeading() + "\n", sectionLink( title, target ) ) );
+
+        }
+
+        WCPageSections.Section next = sections.next( section );
+
+        if ( next != null ) {
+            navigation.add( Component.text( next.getHeading() + " \u00BB\n", sectionLink( title, next ) ) );
+
+        }
+
+        navigation.add( Component.text( "View online", linkStyle( WCUtils.pageURL( title.replace( ' ', '_' ) ), "Open " + title + " in the browser" ) ) );
+        return navigation;
+
+    }
+
+    /**
+     * Creates the style of a button that opens a section of a page.
+     *
+     * @param title   The title of the page.
+     * @param section The section to open.
+     *
+     * @return The style of the button.
+     */
+    private static @NotNull Style sectionLink( @NotNull String title, @NotNull WCPageSections.Section section ) {
+        return Style.style()
+            .color( NamedTextColor.DARK_AQUA )
+            .clickEvent( ClickEvent.runCommand( "/wiki pages section " + section.getIndex() + " " + title ) )
+            .hoverEvent( HoverEvent.showText( Component.text( "Go to " + section.getHeading() ) ) )
+            .build();
+
+    }
+
+    /**
+     * Creates the style of a link to a URL.
+     *
+     * @param url       The URL to open.
+     * @param hoverText The text shown when hovering over the link.
+     *
+     * @return The style of the link.
+     */
+    private static @NotNull Style linkStyle( @NotNull String url, @NotNull String hoverText ) {
+        return Style.style()
+            .color( NamedTextColor.BLUE )
+            .decoration( TextDecoration.UNDERLINED, true )
+            .clickEvent( ClickEvent.openUrl( url ) )
+            .hoverEvent( HoverEvent.showText( Component.text( hoverText ) ) )
+            .build();
+
+    }
+
+    /**
+     * Converts wikitext to styled text.
+     * <p>Headings, bold and italic text, lists, internal links and external links are kept. Templates, tables,
+     * references, comments, files, categories and HTML tags are removed.
+     *
+     * @param wikitext The wikitext to convert.
+     *
+     * @return The text, as a list of components with no children.
+     *
+     * @since 0.2.0
+     */
+    public static @NotNull List<TextComponent> toComponents( @NotNull String wikitext ) {
+        List<TextComponent> components = new ArrayList<>();
+        int listNumber = 0;
+
+        for ( String line : clean( wikitext ).split( "\n", -1 ) ) {
+            Matcher heading = HEADING.matcher( line );
+
+            if ( heading.matches() ) {
+                components.add( Component.text( "\n" + heading.group( 2 ).replace( "'''", "" ).replace( "''", "" ) + "\n", HEADING_STYLE ) );
+                listNumber = 0;
+                continue;
+
+            }
+
+            Matcher item = LIST_ITEM.matcher( line );
+
+            if ( item.matches() ) {
+                String marker = item.group( 1 );
+                char last = marker.charAt( marker.length() - 1 );
+
+                listNumber = last == '#' ? listNumber + 1 : 0;
+                components.add( Component.text( switch ( last ) {
+                    case '*' -> marker.length() > 1 ? "\u25E6 " : "\u2022 ";
+                    case '#' -> listNumber + ". ";
+                    default -> " ";
+
+                } ) );
+
+                line = item.group( 2 );
+
+            } else {
+                listNumber = 0;
+
+            }
+
+            addInline( components, line );
+            components.add( Component.text( "\n" ) );
+
+        }
+
+        return components;
+
+    }
+
+    /**
+     * Converts a line of wikitext with bold, italic and links to styled text.
+     *
+     * @param components The components to add the text to.
+     * @param line       The line of wikitext, with no block markup.
+     */
+    private static void addInline( @NotNull List<TextComponent> components, @NotNull String line ) {
+        Matcher inline = INLINE.matcher( line );
+        boolean bold = false;
+        boolean italic = false;
+        int last = 0;
+
+        while ( inline.find() ) {
+            Style style = Style.style().decoration( TextDecoration.BOLD, bold ).decoration( TextDecoration.ITALIC, italic ).build();
+
+            if ( inline.start() > last ) {
+                components.add( Component.text( line.substring( last, inline.start() ), style ) );
+
+            }
+
+            last = inline.end();
+
+            if ( inline.group( 1 ) != null ) {
+                if ( inline.group( 1 ).length() == 3 ) {
+                    bold = !bold;
+
+                } else {
+                    italic = !italic;
+
+                }
+
+            } else if ( inline.group( 2 ) != null ) {
+                String target = inline.group( 2 ).trim();
+                String label = inline.group( 3 ) != null && !inline.group( 3 ).isBlank() ? inline.group( 3 ) : target.replaceFirst( "^:", "" );
+
+                components.add( Component.text( label, linkStyle( WCUtils.pageURL( target.replaceFirst( "^:", "" ).replace( ' ', '_' ) ), target ).merge( style ) ) );
+
+            } else {
+                String url = inline.group( 4 );
+                String label = inline.group( 5 ) != null && !inline.group( 5 ).isBlank() ? inline.group( 5 ) : url;
+
+                components.add( Component.text( label, linkStyle( url, url ).merge( style ) ) );
+
+            }
+
+        }
+
+        if ( last < line.length() ) {
+            components.add( Component.text( line.substring( last ), Style.style().decoration( TextDecoration.BOLD, bold ).decoration( TextDecoration.ITALIC, italic ).build() ) );
+
+        }
+
+    }
+
+    /**
+     * Removes the parts of wikitext that cannot be shown in a book.
+     *
+     * @param wikitext The wikitext.
+     *
+     * @return The wikitext without comments, references, templates, tables, files, categories, HTML tags and magic
+     * words, and with common HTML entities decoded.
+     */
+    private static @NotNull String clean( @NotNull String wikitext ) {
+        String text = wikitext
+            .replaceAll( "(?s)<!--.*?-->", "" )
+            .replaceAll( "(?is)<ref[^>/]*/>|<ref[^>]*>.*?</ref>", "" );
+
+        // Remove nested templates and tables from the inside out
+        for ( int i = 0; i < 16; i++ ) {
+            String stripped = TEMPLATE.matcher( text ).replaceAll( "" );
+
+            if ( stripped.equals( text ) ) {
+                break;
+
+            }
+
+            text = stripped;
+
+        }
+
+        return MEDIA.matcher( text ).replaceAll( "" )
+            .replaceAll( "<[^>]*>", "" )
+            .replaceAll( "__[A-Z]+__", "" )
+            .replace( "&nbsp;", " " )
+            .replace( "&lt;", "<" )
+            .replace( "&gt;", ">" )
+            .replace( "&quot;", "\"" )
+            .replace( "&amp;", "&" )
+            .replaceAll( "\n{3,}", "\n\n" )
+            .strip();
+
+    }
+
+    /**
+     * Splits styled text into book pages.
+     * <p>Lines are wrapped between words, by an estimate of how many characters fit on a line. A form feed
+     * ({@code \f}) starts a new page, and line breaks at the top of a page are dropped.
+     *
+     * @param components The text, as a list of components with no children.
+     *
+     * @return The pages, at least one.
+     *
+     * @since 0.2.0
+     */
+    public static @NotNull List<Component> paginate( @NotNull List<TextComponent> components ) {
+        Paginator paginator = new Paginator();
+
+        for ( TextComponent component : components ) {
+            paginator.add( component.content(), component.style() );
+
+        }
+
+        return paginator.finish();
+
+    }
+
+    /**
+     * Lays styled text out on book pages, one word at a time.
+     */
+    private static final class Paginator {
+
+        /**
+         * The finished pages.
+         */
+        private final List<Component> pages = new ArrayList<>();
+
+        /**
+         * The page being filled.
+         */
+        private TextComponent.Builder page = Component.text();
+
+        /**
+         * Whether the page being filled has any text.
+         */
+        private boolean pageEmpty = true;
+
+        /**
+         * Text not yet added to the page, all in the same style.
+         */
+        private final StringBuilder pending = new StringBuilder();
+
+        /**
+         * The style of the pending text.
+         */
+        private Style pendingStyle = Style.empty();
+
+        /**
+         * The line of the page being filled, starting at {@code 0}.
+         */
+        private int line;
+
+        /**
+         * The number of characters on the line being filled.
+         */
+        private int column;
+
+        /**
+         * Lays out text in a style.
+         *
+         * @param text  The text.
+         * @param style The style of the text.
+         */
+        private void add( @NotNull String text, @NotNull Style style ) {
+            Matcher token = TOKEN.matcher( text );
+
+            while ( token.find() ) {
+                String word = token.group();
+
+                if ( word.equals( "\f" ) ) {
+                    if ( !atTop() ) {
+                        newPage();
+
+                    }
+
+                    continue;
+
+                }
+
+                if ( word.equals( "\n" ) ) {
+                    if ( !atTop() ) {
+                        newLine();
+
+                    }
+
+                    continue;
+
+                }
+
+                int width = word.stripTrailing().length();
+
+                if ( column > 0 && column + width > LINE_WIDTH ) {
+                    newLine();
+
+                }
+
+                // Never start a line with spaces
+                if ( column == 0 && width == 0 ) {
+                    continue;
+
+                }
+
+                append( word, style );
+
+                if ( width > LINE_WIDTH ) {
+                    // A word too long for a line is broken by the client
+                    line += width / LINE_WIDTH;
+                    column = width % LINE_WIDTH;
+
+                    if ( line >= LINES_PER_PAGE ) {
+                        newPage();
+
+                    }
+
+                } else {
+                    column = Math.min( LINE_WIDTH, column + word.length() );
+
+                }
+
+            }
+
+        }
+
+        /**
+         * Checks whether nothing has been laid out on the page being filled.
+         *
+         * @return {@code true} if the page is empty, {@code false} otherwise.
+         */
+        private boolean atTop() {
+            return line == 0 && column == 0;
+
+        }
+
+        /**
+         * Adds text to the pending text, first adding the pending text to the page if its style differs.
+         *
+         * @param text  The text.
+         * @param style The style of the text.
+         */
+        private void append( @NotNull String text, @NotNull Style style ) {
+            if ( !style.equals( pendingStyle ) ) {
+                flush();
+                pendingStyle = style;
+
+            }
+
+            pending.append( text );
+
+        }
+
+        /**
+         * Adds the pending text to the page.
+         */
+        private void flush() {
+            if ( pending.isEmpty() ) {
+                return;
+
+            }
+
+            page.append( Component.text( pending.toString(), pendingStyle ) );
+            pending.setLength( 0 );
+            pageEmpty = false;
+
+        }
+
+        /**
+         * Starts a new line, or a new page if the page is full.
+         */
+        private void newLine() {
+            line++;
+            column = 0;
+
+            if ( line >= LINES_PER_PAGE ) {
+                newPage();
+                return;
+
+            }
+
+            append( "\n", pendingStyle );
+
+        }
+
+        /**
+         * Finishes the page being filled and starts a new one.
+         */
+        private void newPage() {
+            flush();
+
+            if ( !pageEmpty ) {
+                pages.add( page.build() );
+
+            }
+
+            page = Component.text();
+            pageEmpty = true;
+            line = 0;
+            column = 0;
+
+        }
+
+        /**
+         * Finishes the last page.
+         *
+         * @return The pages, at least one.
+         */
+        private @NotNull List<Component> finish() {
+            newPage();
+
+            if ( pages.isEmpty() ) {
+                pages.add( Component.empty() );
+
+            }
+
+            return pages;
+
+        }
+
+    }
+
+}
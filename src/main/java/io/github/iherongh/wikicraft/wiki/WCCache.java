@@ -0,0 +1,471 @@
+package io.github.iherongh.wikicraft.wiki;
+
+import io.github.iherongh.wikicraft.WikiCraft;
+import io.github.iherongh.wikicraft.async.WCWikiExecutor;
+import io.github.iherongh.wikicraft.config.WCConfigUtils;
+import io.github.iherongh.wikicraft.messages.WCMessages;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * A cache of values loaded from the wiki, keyed by {@code K}.
+ * <p>Each cache has its own entries, time-to-live, maximum size and refresh policy, read from the
+ * {@code caches.<name>} section of config.yml. Loads are single-flight: however many callers find a key missing or
+ * expired at once, only one request is made to the wiki for it. Once full, the least recently used entry is evicted.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the cached values.
+ *
+ * @author iHeronGH
+ *
+ * @version 0.2.0
+ *
+ * @since 0.2.0
+ *
+ * @see WCCache#get(Object)
+ * @see WCCache#getIfPresent(Object)
+ * @see WCCache#refresh(Object)
+ * @see WCCacheRefreshPolicy
+ */
+public class WCCache<K, V> {
+
+    /**
+     * The name of the cache, matching its section in config.yml.
+     */
+    private final String name;
+
+    /**
+     * Loads the value for a key from the wiki.
+     */
+    private final Function<K, V> loader;
+
+    /**
+     * The time-to-live used if config.yml does not set one, in seconds.
+     */
+    private final int defaultTTL;
+
+    /**
+     * The maximum size used if config.yml does not set one.
+     */
+    private final int defaultMaxSize;
+
+    /**
+     * The refresh policy used if config.yml does not set one.
+     */
+    private final WCCacheRefreshPolicy defaultPolicy;
+
+    /**
+     * The cached entries, from least to most recently used.
+     */
+    private final LinkedHashMap<K, WCCacheEntry<V>> entries = new LinkedHashMap<>( 16, 0.75f, true );
+
+    /**
+     * The loads currently in flight, by key.
+     */
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * The number of lookups that found a fresh value.
+     */
+    private final AtomicLong hits = new AtomicLong();
+
+    /**
+     * The number of lookups that found no value, or an expired one.
+     */
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * The time-to-live of an entry, in milliseconds.
+     */
+    private volatile long ttl;
+
+    /**
+     * The maximum number of entries held at once.
+     */
+    private volatile int maxSize;
+
+    /**
+     * How expired entries are reloaded.
+     */
+    private volatile WCCacheRefreshPolicy policy;
+
+    /**
+     * The task that periodically reloads every entry, if the policy is {@link WCCacheRefreshPolicy#BACKGROUND}.
+     */
+    private BukkitTask refreshTask;
+
+    /**
+     * Constructs a new {@code WCCache} object.
+     *
+     * @param name           The name of the cache, matching its section in config.yml.
+     * @param loader         Loads the value for a key from the wiki. May throw to signal a failed load.
+     * @param defaultTTL     The time-to-live used if config.yml does not set one, in seconds.
+     * @param defaultMaxSize The maximum size used if config.yml does not set one.
+     * @param defaultPolicy  The refresh policy used if config.yml does not set one.
+     */
+    public WCCache( @NotNull String name, @NotNull Function<K, V> loader, int defaultTTL, int defaultMaxSize, @NotNull WCCacheRefreshPolicy defaultPolicy ) {
+        this.name = name;
+        this.loader = loader;
+        this.defaultTTL = defaultTTL;
+        this.defaultMaxSize = defaultMaxSize;
+        this.defaultPolicy = defaultPolicy;
+
+        reloadSettings();
+
+    }
+
+    /**
+     * Gets the value for a key, loading it if it is missing or expired.
+     * <p>With the {@link WCCacheRefreshPolicy#BACKGROUND} policy, an expired value is returned immediately while it
+     * is reloaded in the background. Otherwise, this method waits on the wiki and must not be called on the main
+     * thread.
+     *
+     * @param key The key to look up.
+     *
+     * @return The value for the key.
+     *
+     * @throws java.util.concurrent.CompletionException If the value had to be loaded and the load failed.
+     *
+     * @since 0.2.0
+     */
+    public V get( @NotNull K key ) {
+        WCCacheEntry<V> entry = getEntry( key );
+
+        if ( entry != null && !entry.isExpired( ttl ) ) {
+            hits.incrementAndGet();
+            return entry.getValue();
+
+        }
+
+        misses.incrementAndGet();
+
+        if ( entry != null && policy == WCCacheRefreshPolicy.BACKGROUND ) {
+            refresh( key );
+            return entry.getValue();
+
+        }
+
+        return loadInline( key ).join();
+
+    }
+
+    /**
+     * Gets the value for a key without waiting on the wiki.
+     * <p>If the value is missing or expired, it is reloaded in the background.
+     *
+     * @param key The key to look up.
+     *
+     * @return The value for the key, possibly expired, or {@code null} if it has not been loaded yet.
+     *
+     * @since 0.2.0
+     */
+    public @Nullable V getIfPresent( @NotNull K key ) {
+        WCCacheEntry<V> entry = getEntry( key );
+
+        if ( entry != null && !entry.isExpired( ttl ) ) {
+            hits.incrementAndGet();
+            return entry.getValue();
+
+        }
+
+        misses.incrementAndGet();
+        refresh( key );
+
+        return entry == null ? null : entry.getValue();
+
+    }
+
+    /**
+     * Reloads the value for a key in the background.
+     * <p>If a load for the key is already in flight, no new request is made and the in-flight load is returned.
+     *
+     * @param key The key to reload.
+     *
+     * @return A future completed with the reloaded value.
+     *
+     * @since 0.2.0
+     */
+    public @NotNull CompletableFuture<V> refresh( @NotNull K key ) {
+        CompletableFuture<V> load = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent( key, load );
+
+        if ( existing != null ) {
+            return existing;
+
+        }
+
+        try {
+            WCWikiExecutor.getInstance().execute( () -> load( key, load ) );
+
+        } catch ( RejectedExecutionException e ) {
+            inFlight.remove( key, load );
+            load.completeExceptionally( e );
+
+        }
+
+        return load;
+
+    }
+
+    /**
+     * Loads the value for a key on the calling thread, unless a load is already in flight.
+     *
+     * @param key The key to load.
+     *
+     * @return A future completed with the loaded value.
+     */
+    private CompletableFuture<V> loadInline( K key ) {
+        CompletableFuture<V> load = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent( key, load );
+
+        if ( existing != null ) {
+            return existing;
+
+        }
+
+        load( key, load );
+        return load;
+
+    }
+
+    /**
+     * Loads the value for a key from the wiki and stores it.
+     * <p>If the key was invalidated while the load was in flight, the loaded value may already be out of date, so it
+     * is handed to the callers waiting on the load but not stored.
+     *
+     * @param key  The key to load.
+     * @param load The future to complete with the loaded value.
+     */
+    private void load( K key, CompletableFuture<V> load ) {
+        try {
+            WCMessages.debug( "info", "Loading " + name + " cache entry " + key + "..." );
+            V value = loader.apply( key );
+
+            synchronized ( entries ) {
+                if ( inFlight.get( key ) == load ) {
+                    put( key, value );
+
+                } else {
+                    WCMessages.debug( "info", "Discarded " + name + " cache entry " + key + ", invalidated while loading." );
+
+                }
+
+            }
+
+            load.complete( value );
+
+        } catch ( Exception e ) {
+            WCMessages.debug( "warning", "Unable to load " + name + " cache entry " + key + ": " + e.getMessage() );
+            load.completeExceptionally( e );
+
+        } finally {
+            inFlight.remove( key, load );
+
+        }
+
+    }
+
+    /**
+     * Stores a value, evicting the least recently used entries if the cache is full.
+     *
+     * @param key   The key to store the value under.
+     * @param value The value to store.
+     *
+     * @since 0.2.0
+     */
+    public void put( @NotNull K key, V value ) {
+        synchronized ( entries ) {
+            entries.remove( key );
+            entries.put( key, new WCCacheEntry<>( value ) );
+
+            Iterator<K> eldest = entries.keySet().iterator();
+
+            while ( entries.size() > maxSize && eldest.hasNext() ) {
+                eldest.next();
+                eldest.remove();
+
+            }
+
+        }
+
+    }
+
+    /**
+     * Gets the entry for a key.
+     *
+     * @param key The key to look up.
+     *
+     * @return The entry for the key, or {@code null} if there is none.
+     */
+    private @Nullable WCCacheEntry<V> getEntry( K key ) {
+        synchronized ( entries ) {
+            return entries.get( key );
+
+        }
+
+    }
+
+    /**
+     * Removes the entry for a key.
+     * <p>A load of the key already in flight is detached, so its value is not stored and the next lookup loads the key
+     * again.
+     *
+     * @param key The key to remove.
+     *
+     * @since 0.2.0
+     */
+    public void invalidate( @NotNull K key ) {
+        synchronized ( entries ) {
+            entries.remove( key );
+            inFlight.remove( key );
+
+        }
+
+    }
+
+    /**
+     * Removes every entry.
+     * <p>Loads already in flight are detached, so their values are not stored.
+     *
+     * @since 0.2.0
+     */
+    public void invalidateAll() {
+        synchronized ( entries ) {
+            entries.clear();
+            inFlight.clear();
+
+        }
+
+    }
+
+    /**
+     * Reloads every cached entry in the background.
+     *
+     * @since 0.2.0
+     */
+    public void refreshAll() {
+        List<K> keys;
+
+        synchronized ( entries ) {
+            keys = new ArrayList<>( entries.keySet() );
+
+        }
+
+        for ( K key : keys ) {
+            refresh( key );
+
+        }
+
+    }
+
+    /**
+     * Re-reads the time-to-live, maximum size and refresh policy from config.yml.
+     *
+     * @since 0.2.0
+     */
+    public void reloadSettings() {
+        this.ttl = WCConfigUtils.getCacheTTL( name, defaultTTL ) * 1000L;
+        this.maxSize = WCConfigUtils.getCacheMaxSize( name, defaultMaxSize );
+        this.policy = WCConfigUtils.getCacheRefreshPolicy( name, defaultPolicy );
+
+        WCMessages.debug( "info", "Cache " + name + ": ttl " + ( ttl / 1000 ) + "s, max size " + maxSize + ", refresh " + policy.name().toLowerCase() + "." );
+
+    }
+
+    /**
+     * Starts reloading every entry once per time-to-live, if the policy is {@link WCCacheRefreshPolicy#BACKGROUND}.
+     *
+     * @since 0.2.0
+     */
+    public synchronized void start() {
+        stop();
+
+        if ( policy != WCCacheRefreshPolicy.BACKGROUND ) {
+            return;
+
+        }
+
+        long period = Math.max( 1, ttl / 50 );
+        refreshTask = Bukkit.getScheduler().runTaskTimerAsynchronously( WikiCraft.getInstance(), this::refreshAll, period, period );
+
+    }
+
+    /**
+     * Stops reloading entries periodically.
+     *
+     * @since 0.2.0
+     */
+    public synchronized void stop() {
+        if ( refreshTask != null ) {
+            refreshTask.cancel();
+            refreshTask = null;
+
+        }
+
+    }
+
+    /**
+     * Gets the name of the cache.
+     *
+     * @return The name of the cache.
+     *
+     * @since 0.2.0
+     */
+    public @NotNull String getName() {
+        return name;
+
+    }
+
+    /**
+     * Gets the number of entries currently cached.
+     *
+     * @return The number of entries currently cached.
+     *
+     * @since 0.2.0
+     */
+    public int size() {
+        synchronized ( entries ) {
+            return entries.size();
+
+        }
+
+    }
+
+    /**
+     * Gets the number of lookups that found a fresh value.
+     *
+     * @return The number of lookups that found a fresh value.
+     *
+     * @since 0.2.0
+     */
+    public long getHits() {
+        return hits.get();
+
+    }
+
+    /**
+     * Gets the number of lookups that found no value, or an expired one.
+     *
+     * @return The number of lookups that found no value, or an expired one.
+     *
+     * @since 0.2.0
+     */
+    public long getMisses() {
+        return misses.get();
+
+    }
+
+}
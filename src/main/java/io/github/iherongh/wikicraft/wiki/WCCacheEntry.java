@@ -0,0 +1,86 @@
+package io.github.iherongh.wikicraft.wiki;
+
+/**
+ * A single value held by a {@link WCCache}, along with the time it was loaded.
+ *
+ * @param <V> The type of the cached value.
+ *
+ * @author iHeronGH
+ *
+ * @version 0.2.0
+ *
+ * @since 0.2.0
+ */
+public final class WCCacheEntry<V> {
+
+    /**
+     * The cached value.
+     */
+    private final V value;
+
+    /**
+     * The time the value was loaded, in milliseconds.
+     */
+    private final long loadedAt;
+
+    /**
+     * Constructs a new {@code WCCacheEntry} object loaded now.
+     *
+     * @param value The cached value.
+     */
+    public WCCacheEntry( V value ) {
+        this( value, System.currentTimeMillis() );
+
+    }
+
+    /**
+     * Constructs a new {@code WCCacheEntry} object.
+     *
+     * @param value    The cached value.
+     * @param loadedAt The time the value was loaded, in milliseconds.
+     */
+    public WCCacheEntry( V value, long loadedAt ) {
+        this.value = value;
+        this.loadedAt = loadedAt;
+
+    }
+
+    /**
+     * Gets the cached value.
+     *
+     * @return The cached value.
+     *
+     * @since 0.2.0
+     */
+    public V getValue() {
+        return value;
+
+    }
+
+    /**
+     * Gets the time the value was loaded.
+     *
+     * @return The time the value was loaded, in milliseconds.
+     *
+     * @since 0.2.0
+     */
+    public long getLoadedAt() {
+        return loadedAt;
+
+    }
+
+    /**
+     * Checks whether the value has outlived a time-to-live.
+     *
+     * @param ttl The time-to-live, in milliseconds.
+     *
+     * @return {@code true} if the value is older than {@code ttl}, {@code false} otherwise.
+     *
+     * @since 0.2.0
+     */
+    public boolean isExpired( long ttl ) {
+        return System.currentTimeMillis() - loadedAt > ttl;
+
+    }
+
+}
@@ -0,0 +1,52 @@
+package io.github.iherongh.wikicraft.wiki;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * How a {@link WCCache} reloads an expired value.
+ *
+ * @author iHeronGH
+ *
+ * @version 0.2.0
+ *
+ * @since 0.2.0
+ */
+public enum WCCacheRefreshPolicy {
+
+    /**
+     * Expired values keep being served while a single reload runs in the background, and every cached value is
+     * also reloaded periodically.
+     */
+    BACKGROUND,
+
+    /**
+     * Expired values are reloaded by the next caller, who waits for the reload to finish.
+     */
+    ON_ACCESS;
+
+    /**
+     * Gets a refresh policy from its config.yml name.
+     *
+     * @param name     The name of the refresh policy, e.g. {@code background} or {@code on-access}.
+     * @param fallback The refresh policy to use if {@code name} is not recognised.
+     *
+     * @return The matching refresh policy, or {@code fallback} if none matches.
+     *
+     * @since 0.2.0
+     */
+    public static @NotNull WCCacheRefreshPolicy fromName( String name, @NotNull WCCacheRefreshPolicy fallback ) {
+        if ( name == null ) {
+            return fallback;
+
+        }
+
+        return switch ( name.toLowerCase().replace( '_', '-' ) ) {
+            case "background" -> BACKGROUND;
+            case "on-access" -> ON_ACCESS;
+            default -> fallback;
+
+        };
+
+    }
+
+}
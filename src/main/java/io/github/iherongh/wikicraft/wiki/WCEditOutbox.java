@@ -0,0 +1,363 @@
+package io.github.iherongh.wikicraft.wiki;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.github.iherongh.wikicraft.messages.WCMessages;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Keeps page writes that have not reached the wiki yet, and notices for their authors, in edit_outbox.json.
+ * <p>{@link WCEditQueue} records every write here as soon as it is queued and removes it once the wiki saves it, so
+ * writes survive a restart or a wiki outage. Authors who were told their write was delayed are sent a notice when it
+ * finally succeeds or is given up on; if they are offline, the notice waits here until they next join.
+ * <p>Changes are written on a dedicated thread, so neither the server thread nor a thread holding the edit queue's
+ * monitor waits on the disk. A newly queued write is written straight away, and its author is only told it is queued
+ * once it is on disk; status changes are coalesced over {@link #SAVE_DELAY} into a single write. Each write replaces
+ * the file with a synced temporary file, so a crash leaves either the old outbox or the new one.
+ *
+ * @author iHeronGH
+ *
+ * @version 0.2.0
+ *
+ * @since 0.2.0
+ *
+ * @see WCEditQueue
+ * @see WCEditOutbox#deliverNotices(Player)
+ * @see WCEditOutbox#saveNow()
+ * @see WCEditOutbox#flush()
+ */
+public final class WCEditOutbox {
+
+    /**
+     * How long to wait for more changes before writing the outbox file, in milliseconds.
+     */
+    private static final long SAVE_DELAY = 1000;
+
+    /**
+     * The path of the outbox file.
+     */
+    private final Path file;
+
+    /**
+     * Takes a snapshot of the writes not yet saved by the wiki.
+     */
+    private Supplier<JsonArray> writes = JsonArray::new;
+
+    /**
+     * The notices waiting for each author, keyed by UUID.
+     */
+    private final Map<UUID, List<String>> notices = new LinkedHashMap<>();
+
+    /**
+     * The thread the outbox file is written on.
+     */
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor( task -> {
+        Thread thread = new Thread( task, "WikiCraft-Outbox" );
+        thread.setDaemon( true );
+        return thread;
+
+    } );
+
+    /**
+     * The write waiting to be made, or {@code null} if there is none.
+     */
+    private ScheduledFuture<?> pending;
+
+    /**
+     * Completed once the next write of the outbox file is on disk, or failed if it could not be written.
+     */
+    private CompletableFuture<Void> nextSave = new CompletableFuture<>();
+
+    /**
+     * Held while writing, so two snapshots are never written at the same time.
+     */
+    private final Object writeLock = new Object();
+
+    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+
+    /**
+     * Constructs a new {@code WCEditOutbox} object.
+     *
+     * @param file The path of the outbox file.
+     */
+    public WCEditOutbox( @NotNull Path file ) {
+        this.file = file;
+
+    }
+
+    /**
+     * Reads the outbox file, if there is one.
+     *
+     * @return The writes not yet saved by the wiki when the outbox was last written.
+     *
+     * @since 0.2.0
+     */
+    public synchronized @NotNull JsonArray load() {
+        if ( !Files.exists( file ) ) {
+            return new JsonArray();
+
+        }
+
+        try {
+            JsonObject json = JsonParser.parseString( Files.readString( file, StandardCharsets.UTF_8 ) ).getAsJsonObject();
+            JsonArray writes = json.has( "writes" ) ? json.getAsJsonArray( "writes" ) : new JsonArray();
+
+            notices.clear();
+
+            if ( json.has( "notices" ) ) {
+                for ( Map.Entry<String, JsonElement> entry : json.getAsJsonObject( "notices" ).entrySet() ) {
+                    List<String> messages = new ArrayList<>();
+                    entry.getValue().getAsJsonArray().forEach( message -> messages.add( message.getAsString() ) );
+                    notices.put( UUID.fromString( entry.getKey() ), messages );
+
+                }
+
+            }
+
+            WCMessages.debug( "info", "Loaded " + writes.size() + " pending page write(s) from the edit outbox." );
+            return writes;
+
+        } catch ( Exception e ) {
+            WCMessages.debug( "severe", "Could not read the edit outbox: " + e.getMessage() );
+            return new JsonArray();
+
+        }
+
+    }
+
+    /**
+     * Sets where the writes not yet saved by the wiki are taken from each time the outbox file is written.
+     *
+     * @param writes Takes a snapshot of the writes, as written by {@link WCEditQueue}. Called on the writer thread.
+     *
+     * @since 0.2.0
+     */
+    public synchronized void setWrites( @NotNull Supplier<JsonArray> writes ) {
+        this.writes = writes;
+
+    }
+
+    /**
+     * Schedules the outbox file to be written, unless a write is already waiting.
+     *
+     * @since 0.2.0
+     */
+    public synchronized void requestSave() {
+        if ( writer.isShutdown() || ( pending != null && !pending.isDone() ) ) {
+            return;
+
+        }
+
+        pending = writer.schedule( this::save, SAVE_DELAY, TimeUnit.MILLISECONDS );
+
+    }
+
+    /**
+     * Schedules the outbox file to be written straight away, ahead of any write waiting on {@link #SAVE_DELAY}.
+     * <p>The write takes its snapshot after this call, so it holds every change made before it.
+     *
+     * @return A future completed once the outbox file is on disk, or failed if it could not be written.
+     *
+     * @since 0.2.0
+     */
+    public synchronized @NotNull CompletableFuture<Void> saveNow() {
+        if ( writer.isShutdown() ) {
+            return CompletableFuture.failedFuture( new IOException( "The edit outbox is closed." ) );
+
+        }
+
+        // A write still waiting on its delay has not taken its snapshot, so bring it forward
+        if ( pending != null && !pending.isDone() && pending.getDelay( TimeUnit.MILLISECONDS ) > 0 ) {
+            pending.cancel( false );
+            pending = null;
+
+        }
+
+        if ( pending == null || pending.isDone() ) {
+            pending = writer.schedule( this::save, 0, TimeUnit.MILLISECONDS );
+
+        }
+
+        return nextSave;
+
+    }
+
+    /**
+     * Writes the outbox file now, on the calling thread, cancelling any waiting write, and stops the writer thread.
+     * <p>Called when WikiCraft is disabled.
+     *
+     * @since 0.2.0
+     */
+    public void flush() {
+        synchronized ( this ) {
+            writer.shutdown();
+
+            if ( pending != null ) {
+                pending.cancel( false );
+                pending = null;
+
+            }
+
+        }
+
+        save();
+
+    }
+
+    /**
+     * Leaves a notice for an author.
+     *
+     * @param author  The UUID of the author.
+     * @param message The notice.
+     *
+     * @since 0.2.0
+     */
+    public synchronized void addNotice( @NotNull UUID author, @NotNull String message ) {
+        notices.computeIfAbsent( author, key -> new ArrayList<>() ).add( message );
+        requestSave();
+
+    }
+
+    /**
+     * Sends a player every notice waiting for them.
+     * <p>Must be called on the main thread.
+     *
+     * @param player The player.
+     *
+     * @since 0.2.0
+     */
+    public void deliverNotices( @NotNull Player player ) {
+        List<String> messages;
+
+        synchronized ( this ) {
+            messages = notices.remove( player.getUniqueId() );
+
+            if ( messages == null ) {
+                return;
+
+            }
+
+            requestSave();
+
+        }
+
+        for ( String message : messages ) {
+            player.sendMessage( WCMessages.message( "info", message ) );
+
+        }
+
+    }
+
+    /**
+     * Takes a snapshot of the outbox and writes it to the outbox file.
+     * <p>The writes are taken without holding this object's monitor, since the edit queue holds its own monitor while
+     * requesting a save. Those waiting on {@link #saveNow()} are told the outcome once the write lock is released.
+     */
+    private void save() {
+        CompletableFuture<Void> done;
+        IOException failure = null;
+
+        synchronized ( writeLock ) {
+            Supplier<JsonArray> source;
+            JsonObject noticesJson = new JsonObject();
+
+            synchronized ( this ) {
+                pending = null;
+                source = writes;
+                done = nextSave;
+                nextSave = new CompletableFuture<>();
+
+                for ( Map.Entry<UUID, List<String>> entry : notices.entrySet() ) {
+                    JsonArray messages = new JsonArray();
+                    entry.getValue().forEach( messages::add );
+                    noticesJson.add( entry.getKey().toString(), messages );
+
+                }
+
+            }
+
+            JsonObject json = new JsonObject();
+            json.add( "writes", source.get() );
+            json.add( "notices", noticesJson );
+
+            try {
+                Files.createDirectories( file.getParent() );
+                write( json );
+
+            } catch ( IOException e ) {
+                WCMessages.debug( "warning", "Could not write the edit outbox: " + e.getMessage() );
+                failure = e;
+
+            }
+
+        }
+
+        if ( failure != null ) {
+            done.completeExceptionally( failure );
+
+        } else {
+            done.complete( null );
+
+        }
+
+    }
+
+    /**
+     * Replaces the outbox file atomically.
+     * <p>The data is written to a temporary file beside the outbox file, synced to disk, then renamed over it.
+     *
+     * @param data The data to write.
+     *
+     * @throws IOException If the file could not be written.
+     */
+    private void write( @NotNull JsonObject data ) throws IOException {
+        Path temp = file.resolveSibling( file.getFileName() + ".tmp" );
+        ByteBuffer bytes = ByteBuffer.wrap( gson.toJson( data ).getBytes( StandardCharsets.UTF_8 ) );
+
+        try ( FileChannel channel = FileChannel.open( temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING ) ) {
+            while ( bytes.hasRemaining() ) {
+                channel.write( bytes );
+
+            }
+
+            channel.force( true );
+
+        }
+
+        try {
+            Files.move( temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+
+        } catch ( AtomicMoveNotSupportedException e ) {
+            Files.move( temp, file, StandardCopyOption.REPLACE_EXISTING );
+
+        }
+
+    }
+
+}
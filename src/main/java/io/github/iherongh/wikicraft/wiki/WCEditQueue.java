@@ -0,0 +1,713 @@
+package io.github.iherongh.wikicraft.wiki;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import io.github.iherongh.wikicraft.async.WCAsync;
+import io.github.iherongh.wikicraft.async.WCWikiExecutor;
+import io.github.iherongh.wikicraft.config.WCConfigUtils;
+import io.github.iherongh.wikicraft.messages.WCMessages;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes page edits and deletions one title at a time, combining writes that pile up while a title is being written.
+ * <p>Writes to a title are sent in the order they were made, and never two at once, so players changing the same
+ * page no longer race each other. Each write replaces the whole page, or deletes it, so if more writes to a title
+ * arrive while it is being written, only the latest needs to be sent: they are combined into a single write, crediting
+ * every contributor in the edit summary, and every contributor is told the result.
+ * <p>Every write is kept in the {@link WCEditOutbox} until the wiki saves it. If the wiki cannot be reached, the write
+ * is retried in the background with exponential backoff, up to {@code edit-max-attempts} times, including after a
+ * restart, and its authors are sent a notice once it is saved or given up on. If the wiki rejects the write itself,
+ * e.g. because the page is protected, it is dropped straight away and its authors are told the wiki's reason.
+ *
+ * @author iHeronGH
+ *
+ * @version 0.2.0
+ *
+ * @since 0.2.0
+ *
+ * @see WCEditQueue#submit(String, String, String, UUID, Runnable, Runnable)
+ * @see WCEditOutbox
+ */
+public final class WCEditQueue {
+
+    /**
+     * The singleton instance of the edit queue.
+     */
+    private static final WCEditQueue instance = new WCEditQueue();
+
+    /**
+     * How long to wait before the first retry, in milliseconds.
+     */
+    private static final long BASE_RETRY_DELAY = 30_000;
+
+    /**
+     * The longest to wait between retries, in milliseconds.
+     */
+    private static final long MAX_RETRY_DELAY = 3_600_000;
+
+    /**
+     * The writes waiting to be sent, keyed by title.
+     */
+    private final Map<String, PendingEdit> pending = new LinkedHashMap<>();
+
+    /**
+     * The writes being sent, keyed by title.
+     */
+    private final Map<String, PendingEdit> sending = new HashMap<>();
+
+    /**
+     * The titles being written.
+     */
+    private final Set<String> writing = new HashSet<>();
+
+    /**
+     * Starts retries once their backoff has passed.
+     */
+    private final ScheduledExecutorService retries = Executors.newSingleThreadScheduledExecutor( task -> {
+        Thread thread = new Thread( task, "WikiCraft-Edits" );
+        thread.setDaemon( true );
+        return thread;
+
+    } );
+
+    /**
+     * The outbox writes are kept in, or {@code null} before {@link #start(WCEditOutbox)}.
+     */
+    private WCEditOutbox outbox;
+
+    /**
+     * Constructs a new {@code WCEditQueue} object.
+     */
+    private WCEditQueue() {}
+
+    /**
+     * Gets the singleton instance of the edit queue.
+     *
+     * @return The singleton instance of the edit queue.
+     *
+     * @since 0.2.0
+     */
+    public static @NotNull WCEditQueue getInstance() {
+        return instance;
+
+    }
+
+    /**
+     * Starts keeping writes in an outbox, and schedules the writes left in it by the last run.
+     *
+     * @param outbox The outbox.
+     *
+     * @since 0.2.0
+     */
+    public synchronized void start( @NotNull WCEditOutbox outbox ) {
+        this.outbox = outbox;
+        outbox.setWrites( this::snapshot );
+
+        for ( JsonElement element : outbox.load() ) {
+            try {
+                PendingEdit edit = PendingEdit.fromJson( element.getAsJsonObject() );
+                PendingEdit older = pending.get( edit.title );
+
+                if ( older != null ) {
+                    edit.carry( older );
+
+                }
+
+                pending.put( edit.title, edit );
+
+            } catch ( Exception e ) {
+                WCMessages.debug( "warning", "Skipping unreadable write in the edit outbox: " + e.getMessage() );
+
+            }
+
+        }
+
+        for ( PendingEdit edit : pending.values() ) {
+            scheduleRetry( edit.title, edit.nextAttempt - System.currentTimeMillis() );
+
+        }
+
+    }
+
+    /**
+     * Queues an edit to a page, creating it if it does not exist, or a deletion if {@code content} is {@code null}.
+     * <p>If a write to the same title is already waiting, this write replaces it and joins its contributors. The write
+     * is kept in the outbox file before it is sent, so it survives a crash from the moment {@code onQueued} runs.
+     *
+     * @param title       The title of the page.
+     * @param content     The new content of the page, or {@code null} to delete it.
+     * @param contributor Who made the write, as credited in the edit summary.
+     * @param author      The UUID of the player who made the write, who is sent notices about it.
+     * @param onQueued    Run, off the main thread, once the write is kept in the outbox file, or straight away if it
+     *                    could not be.
+     * @param onSending   Run, off the main thread, when the write is sent to the wiki.
+     *
+     * @return A future completed with the number of writes combined into the one sent once it is saved, or completed
+     * exceptionally with an {@link IOException} describing the delay if it could not be saved yet.
+     *
+     * @since 0.2.0
+     */
+    public synchronized @NotNull CompletableFuture<Integer> submit( @NotNull String title, @Nullable String content, @NotNull String contributor, @NotNull UUID author, @NotNull Runnable onQueued, @NotNull Runnable onSending ) {
+        PendingEdit edit = pending.get( title );
+
+        // A write already waiting on a retry has told its authors; start a new one for this player to wait on
+        if ( edit == null || edit.result.isDone() ) {
+            PendingEdit fresh = new PendingEdit( title );
+
+            if ( edit != null ) {
+                fresh.carry( edit );
+
+            }
+
+            edit = fresh;
+            pending.put( title, edit );
+
+        }
+
+        edit.content = content;
+        edit.contributors.add( contributor );
+        edit.authors.add( author );
+        edit.onSending.add( onSending );
+
+        if ( edit.contributors.size() > 1 ) {
+            WCMessages.debug( "info", "Combined " + edit.contributors.size() + " pending writes to " + title + "." );
+
+        }
+
+        CompletableFuture<Void> saved = outbox == null ? CompletableFuture.completedFuture( null ) : outbox.saveNow();
+
+        // Only acknowledge and send the write once it would survive a crash
+        saved.whenComplete( ( ignored, error ) -> {
+            if ( error != null ) {
+                WCMessages.debug( "severe", "Could not keep the write to " + title + " in the edit outbox: " + error.getMessage() );
+
+            }
+
+            try {
+                onQueued.run();
+
+            } catch ( RuntimeException e ) {
+                WCMessages.debug( "warning", "Error while notifying the queueing of " + title + ": " + e );
+
+            }
+
+            synchronized ( this ) {
+                if ( pending.containsKey( title ) ) {
+                    send( title );
+
+                }
+
+            }
+
+        } );
+
+        return edit.result;
+
+    }
+
+    /**
+     * Gets the number of titles with writes waiting to be sent, including those waiting on a retry.
+     *
+     * @return The number of titles with writes waiting.
+     *
+     * @since 0.2.0
+     */
+    public synchronized int getPendingCount() {
+        return pending.size();
+
+    }
+
+    /**
+     * Sends a player every notice about their writes waiting in the outbox.
+     * <p>Must be called on the main thread.
+     *
+     * @param player The player.
+     *
+     * @since 0.2.0
+     */
+    public void deliverNotices( @NotNull Player player ) {
+        WCEditOutbox current;
+
+        synchronized ( this ) {
+            current = outbox;
+
+        }
+
+        if ( current != null ) {
+            current.deliverNotices( player );
+
+        }
+
+    }
+
+    /**
+     * Stops retrying writes; those not yet saved stay in the outbox for the next run.
+     * <p>Called when WikiCraft is disabled.
+     *
+     * @since 0.2.0
+     */
+    public void shutdown() {
+        WCEditOutbox current;
+
+        synchronized ( this ) {
+            retries.shutdownNow();
+            current = outbox;
+
+        }
+
+        // Written without holding this object's monitor, since the outbox takes its snapshot of the writes under it
+        if ( current != null ) {
+            current.flush();
+
+        }
+
+    }
+
+    /**
+     * Starts writing a title, unless it is already being written.
+     * <p>Must be called while holding this object's monitor.
+     *
+     * @param title The title of the page.
+     */
+    private void send( @NotNull String title ) {
+        if ( !writing.add( title ) ) {
+            return;
+
+        }
+
+        try {
+            WCWikiExecutor.getInstance().execute( () -> drain( title ) );
+
+        } catch ( RejectedExecutionException e ) {
+            writing.remove( title );
+
+            PendingEdit edit = pending.get( title );
+
+            if ( edit != null ) {
+                defer( edit, "The wiki is busy right now" );
+
+            }
+
+            scheduleRetry( title, BASE_RETRY_DELAY );
+
+        }
+
+    }
+
+    /**
+     * Sends the writes waiting for a title until none are left, or one fails and is left for a retry.
+     * <p>If anything unexpected is thrown, the title is released and retried later, so later writes to it are never
+     * stuck behind a drain that died.
+     *
+     * @param title The title of the page.
+     */
+    private void drain( @NotNull String title ) {
+        try {
+            sendAll( title );
+
+        } catch ( RuntimeException e ) {
+            WCMessages.debug( "error", "Unexpected error while writing " + title + ": " + e );
+
+            synchronized ( this ) {
+                PendingEdit edit = sending.remove( title );
+                writing.remove( title );
+
+                // The write had not been settled yet, so put it back to be sent again
+                if ( edit != null ) {
+                    PendingEdit newer = pending.get( title );
+
+                    if ( newer != null ) {
+                        newer.carry( edit );
+
+                    } else {
+                        pending.put( title, edit );
+
+                    }
+
+                }
+
+                record();
+
+                if ( pending.containsKey( title ) ) {
+                    scheduleRetry( title, BASE_RETRY_DELAY );
+
+                }
+
+            }
+
+        }
+
+    }
+
+    /**
+     * Sends the writes waiting for a title until none are left, or one fails and is left for a retry.
+     *
+     * @param title The title of the page.
+     */
+    private void sendAll( @NotNull String title ) {
+        while ( true ) {
+            PendingEdit edit;
+
+            synchronized ( this ) {
+                edit = pending.remove( title );
+
+                if ( edit == null ) {
+                    writing.remove( title );
+                    return;
+
+                }
+
+                sending.put( title, edit );
+
+            }
+
+            for ( Runnable callback : edit.onSending ) {
+                try {
+                    callback.run();
+
+                } catch ( RuntimeException e ) {
+                    WCMessages.debug( "warning", "Error while notifying the sending of " + title + ": " + e );
+
+                }
+
+            }
+
+            String credits = String.join( ", ", new LinkedHashSet<>( edit.contributors ) ) + ".";
+            boolean saved = false;
+            String rejection = null;
+
+            try {
+                if ( edit.content == null ) {
+                    WCWikiUtils.delete( title, "Content deleted from WikiCraft by " + credits );
+
+                } else {
+                    WCWikiUtils.edit( title, edit.content, "Content generated from WikiCraft by " + credits );
+
+                }
+
+                saved = true;
+
+            } catch ( WCWikiException e ) {
+                WCMessages.debug( "error", "Unable to write " + title + ": " + e.getMessage() );
+
+                if ( !e.isRetryable() ) {
+                    rejection = e.getInfo();
+
+                }
+
+            } catch ( IOException e ) {
+                WCMessages.debug( "error", "Unable to write " + title + ": " + e.getMessage() );
+
+            } catch ( RuntimeException e ) {
+                // Such as an unexpected response from the wiki; treated like any other failure that may pass
+                WCMessages.debug( "error", "Unexpected error while writing " + title + ": " + e );
+
+            }
+
+            synchronized ( this ) {
+                sending.remove( title );
+
+                if ( rejection != null ) {
+                    // Sending it again would get the same answer, so drop it straight away
+                    String message = "The wiki rejected your changes to \"" + title + "\": " + rejection;
+                    edit.result.completeExceptionally( new IOException( message ) );
+                    notify( edit.noticeAuthors, message + " They were dropped." );
+                    record();
+                    continue;
+
+                }
+
+                if ( saved ) {
+                    WCWikiUtils.pageChanged( title, edit.content != null );
+                    edit.result.complete( edit.contributors.size() );
+                    notify( edit.noticeAuthors, "Your changes to \"" + title + "\" have now been saved to the wiki." );
+                    record();
+                    continue;
+
+                }
+
+                edit.attempts++;
+
+                PendingEdit newer = pending.get( title );
+
+                if ( edit.attempts >= WCConfigUtils.getEditMaxAttempts() ) {
+                    WCMessages.debug( "warning", "Giving up on writing " + title + " after " + edit.attempts + " attempt(s)." );
+                    edit.result.completeExceptionally( new IOException( "Your changes to \"" + title + "\" could not be saved to the wiki." ) );
+                    notify( edit.noticeAuthors, "Your changes to \"" + title + "\" could not be saved to the wiki after " + edit.attempts + " attempts, and were dropped." );
+                    record();
+                    continue;
+
+                }
+
+                defer( edit, "The wiki did not save your changes to \"" + title + "\"" );
+
+                if ( newer != null ) {
+                    // The newer write replaces this one, so send it instead
+                    newer.carry( edit );
+                    record();
+                    continue;
+
+                }
+
+                long delay = Math.min( MAX_RETRY_DELAY, BASE_RETRY_DELAY << Math.min( edit.attempts - 1, 16 ) );
+                delay += ThreadLocalRandom.current().nextLong( delay / 5 + 1 );
+                edit.nextAttempt = System.currentTimeMillis() + delay;
+
+                pending.put( title, edit );
+                writing.remove( title );
+                record();
+
+                WCMessages.debug( "warning", "Could not write " + title + "; retrying in " + delay / 1000 + " seconds." );
+                scheduleRetry( title, delay );
+                return;
+
+            }
+
+        }
+
+    }
+
+    /**
+     * Tells the players waiting on a write that it is delayed, and marks them to be sent a notice when it is done.
+     * <p>Must be called while holding this object's monitor.
+     *
+     * @param edit   The delayed write.
+     * @param reason Why it is delayed.
+     */
+    private void defer( @NotNull PendingEdit edit, @NotNull String reason ) {
+        edit.noticeAuthors.addAll( edit.authors );
+        edit.result.completeExceptionally( new IOException( reason + "; it will be sent again automatically, and you will be told once it is saved." ) );
+
+    }
+
+    /**
+     * Retries a title once a delay has passed.
+     *
+     * @param title The title of the page.
+     * @param delay How long to wait, in milliseconds.
+     */
+    private void scheduleRetry( @NotNull String title, long delay ) {
+        if ( retries.isShutdown() ) {
+            return;
+
+        }
+
+        retries.schedule( () -> {
+            synchronized ( this ) {
+                if ( pending.containsKey( title ) ) {
+                    send( title );
+
+                }
+
+            }
+
+        }, Math.max( 0, delay ), TimeUnit.MILLISECONDS );
+
+    }
+
+    /**
+     * Leaves a notice for each author, and sends it straight away to those online.
+     *
+     * @param authors The UUIDs of the authors.
+     * @param message The notice.
+     */
+    private void notify( @NotNull Set<UUID> authors, @NotNull String message ) {
+        if ( authors.isEmpty() || outbox == null ) {
+            return;
+
+        }
+
+        for ( UUID author : authors ) {
+            outbox.addNotice( author, message );
+
+        }
+
+        WCAsync.runOnMainThread( () -> {
+            for ( UUID author : authors ) {
+                Player player = Bukkit.getPlayer( author );
+
+                if ( player != null && player.isOnline() ) {
+                    outbox.deliverNotices( player );
+
+                }
+
+            }
+
+        } );
+
+    }
+
+    /**
+     * Schedules the outbox to record every write not yet saved; it is written in the background.
+     * <p>Must be called while holding this object's monitor.
+     */
+    private void record() {
+        if ( outbox != null ) {
+            outbox.requestSave();
+
+        }
+
+    }
+
+    /**
+     * Takes a snapshot of every write not yet saved, for the outbox.
+     *
+     * @return The writes as JSON.
+     */
+    private synchronized @NotNull JsonArray snapshot() {
+        JsonArray writes = new JsonArray();
+        sending.values().forEach( edit -> writes.add( edit.toJson() ) );
+        pending.values().forEach( edit -> writes.add( edit.toJson() ) );
+        return writes;
+
+    }
+
+    /**
+     * The writes to one title waiting to be sent together.
+     */
+    private static final class PendingEdit {
+
+        /**
+         * The title of the page.
+         */
+        private final String title;
+
+        /**
+         * The content of the latest write, or {@code null} to delete the page.
+         */
+        private String content;
+
+        /**
+         * Who made each write, in order.
+         */
+        private final List<String> contributors = new ArrayList<>();
+
+        /**
+         * The UUIDs of the players who made the writes.
+         */
+        private final Set<UUID> authors = new LinkedHashSet<>();
+
+        /**
+         * The UUIDs of the authors who were told the write is delayed, and are sent a notice when it is done.
+         */
+        private final Set<UUID> noticeAuthors = new LinkedHashSet<>();
+
+        /**
+         * Run when the write is sent, one for each write.
+         */
+        private final List<Runnable> onSending = new ArrayList<>();
+
+        /**
+         * Completed once the write is saved, or is delayed.
+         */
+        private final CompletableFuture<Integer> result = new CompletableFuture<>();
+
+        /**
+         * The number of times sending the write has failed.
+         */
+        private int attempts;
+
+        /**
+         * When the write may next be retried, in milliseconds since the epoch.
+         */
+        private long nextAttempt;
+
+        /**
+         * Constructs a new {@code PendingEdit} object.
+         *
+         * @param title The title of the page.
+         */
+        private PendingEdit( @NotNull String title ) {
+            this.title = title;
+
+        }
+
+        /**
+         * Takes over the contributors and authors of an older write this one replaces.
+         *
+         * @param older The older write, which must already have been delayed.
+         */
+        private void carry( @NotNull PendingEdit older ) {
+            contributors.addAll( 0, older.contributors );
+            authors.addAll( older.authors );
+            noticeAuthors.addAll( older.noticeAuthors );
+            attempts = Math.max( attempts, older.attempts );
+
+        }
+
+        /**
+         * Writes this write as JSON, for the outbox.
+         *
+         * @return The write as JSON.
+         */
+        private @NotNull JsonObject toJson() {
+            JsonObject json = new JsonObject();
+            JsonArray contributorsJson = new JsonArray();
+            JsonArray authorsJson = new JsonArray();
+
+            contributors.forEach( contributorsJson::add );
+            authors.forEach( author -> authorsJson.add( author.toString() ) );
+
+            json.addProperty( "title", title );
+
+            if ( content != null ) {
+                json.addProperty( "content", content );
+
+            }
+
+            json.add( "contributors", contributorsJson );
+            json.add( "authors", authorsJson );
+            json.addProperty( "attempts", attempts );
+            json.addProperty( "next-attempt", nextAttempt );
+
+            return json;
+
+        }
+
+        /**
+         * Reads a write from the outbox.
+         * <p>Its authors were told it was queued before the restart, so all of them are sent a notice when it is done.
+         *
+         * @param json The write as JSON.
+         *
+         * @return The write, with no one waiting on its result.
+         */
+        private static @NotNull PendingEdit fromJson( @NotNull JsonObject json ) {
+            PendingEdit edit = new PendingEdit( json.get( "title" ).getAsString() );
+
+            edit.content = json.has( "content" ) ? json.get( "content" ).getAsString() : null;
+            json.getAsJsonArray( "contributors" ).forEach( contributor -> edit.contributors.add( contributor.getAsString() ) );
+            json.getAsJsonArray( "authors" ).forEach( author -> edit.authors.add( UUID.fromString( author.getAsString() ) ) );
+            edit.noticeAuthors.addAll( edit.authors );
+            edit.attempts = json.has( "attempts" ) ? json.get( "attempts" ).getAsInt() : 0;
+            edit.nextAttempt = json.has( "next-attempt" ) ? json.get( "next-attempt" ).getAsLong() : 0;
+            edit.result.completeExceptionally( new IOException( "Restored from the edit outbox" ) );
+
+            return edit;
+
+        }
+
+    }
+
+}
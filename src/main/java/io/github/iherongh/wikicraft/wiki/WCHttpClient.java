@@ -0,0 +1,151 @@
+package io.github.iherongh.wikicraft.wiki;
+
+import io.github.fastily.jwiki.core.Wiki;
+import io.github.iherongh.wikicraft.config.WCConfigUtils;
+import io.github.iherongh.wikicraft.messages.WCMessages;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configures the HTTP client every {@link Wiki} talks to the wiki with.
+ * <p>jwiki builds its own OkHttp client with default settings and offers no way to pass one in, so once a wiki is
+ * built its client is swapped for one derived from it, keeping its login cookies and user agent, with the settings in
+ * the {@code http} section of config.yml:
+ * <ul>
+ *     <li>A connection pool shared by every wiki WikiCraft builds, so TLS connections survive {@code /wiki reload}.
+ *     <li>Connect and read timeouts.
+ *     <li>HTTP/2, where the wiki supports it, falling back to HTTP/1.1.
+ *     <li>The global rate limit of {@link WCRateLimiter}.
+ *     <li>The per-endpoint latency, error and size statistics of {@link WCWikiStats}.
+ * </ul>
+ * <p>OkHttp already asks for gzip and decompresses responses itself, as long as no {@code Accept-Encoding} header is
+ * set by hand, so none is.
+ *
+ * @author iHeronGH
+ *
+ * @version 0.2.0
+ *
+ * @since 0.2.0
+ *
+ * @see WCHttpClient#apply(Wiki)
+ * @see WCWiki#buildWiki()
+ */
+public final class WCHttpClient {
+
+    /**
+     * The connection pool shared by every wiki, created on first use.
+     */
+    private static ConnectionPool pool;
+
+    /**
+     * Constructs a new {@code WCHttpClient} object.
+     */
+    private WCHttpClient() {}
+
+    /**
+     * Replaces the HTTP client of a wiki with one configured by WikiCraft.
+     * <p>If jwiki's client cannot be found, the wiki keeps its default client.
+     *
+     * @param wiki The wiki to configure.
+     *
+     * @since 0.2.0
+     */
+    public static void apply( @NotNull Wiki wiki ) {
+        try {
+            for ( Field apiField : Wiki.class.getDeclaredFields() ) {
+                if ( Modifier.isStatic( apiField.getModifiers() ) || apiField.getType().isPrimitive() ) {
+                    continue;
+
+                }
+
+                for ( Field clientField : apiField.getType().getDeclaredFields() ) {
+                    if ( clientField.getType() != OkHttpClient.class || Modifier.isStatic( clientField.getModifiers() ) ) {
+                        continue;
+
+                    }
+
+                    apiField.setAccessible( true );
+                    clientField.setAccessible( true );
+
+                    Object api = apiField.get( wiki );
+                    clientField.set( api, configure( ( OkHttpClient ) clientField.get( api ) ) );
+
+                    WCMessages.debug( "info", "Configured the wiki's HTTP client." );
+                    return;
+
+                }
+
+            }
+
+            WCMessages.debug( "warning", "Could not find the wiki's HTTP client; using jwiki's defaults." );
+
+        } catch ( Exception e ) {
+            WCMessages.debug( "warning", "Could not configure the wiki's HTTP client; using jwiki's defaults: " + e.getMessage() );
+
+        }
+
+    }
+
+    /**
+     * Derives a client with WikiCraft's settings from jwiki's client.
+     *
+     * @param client jwiki's client, whose cookies, interceptors and user agent are kept.
+     *
+     * @return The configured client.
+     */
+    private static @NotNull OkHttpClient configure( @NotNull OkHttpClient client ) {
+        return client.newBuilder()
+            .connectionPool( getPool() )
+            .connectTimeout( WCConfigUtils.getHttpSetting( "connect-timeout", 10 ), TimeUnit.SECONDS )
+            .readTimeout( WCConfigUtils.getHttpSetting( "read-timeout", 30 ), TimeUnit.SECONDS )
+            .protocols( List.of( Protocol.HTTP_2, Protocol.HTTP_1_1 ) )
+            .retryOnConnectionFailure( true )
+            .addInterceptor( WCRateLimiter.getInstance() )
+            .addNetworkInterceptor( WCWikiStats.getInstance() )
+            .build();
+
+    }
+
+    /**
+     * Gets the shared connection pool, creating it on first use.
+     *
+     * @return The shared connection pool.
+     */
+    private static synchronized @NotNull ConnectionPool getPool() {
+        if ( pool == null ) {
+            pool = new ConnectionPool(
+                WCConfigUtils.getHttpSetting( "max-idle-connections", 8 ),
+                WCConfigUtils.getHttpSetting( "keep-alive", 300 ),
+                TimeUnit.SECONDS
+            );
+
+        }
+
+        return pool;
+
+    }
+
+    /**
+     * Closes every idle connection and forgets the shared pool, so the next wiki built starts a new one with the
+     * current settings.
+     * <p>Called when WikiCraft is disabled.
+     *
+     * @since 0.2.0
+     */
+    public static synchronized void shutdown() {
+        if ( pool != null ) {
+            pool.evictAll();
+            pool = null;
+
+        }
+
+    }
+
+}
@@ -0,0 +1,205 @@
+package io.github.iherongh.wikicraft.wiki;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of latencies, in microseconds, with a fixed relative precision.
+ * <p>Like HdrHistogram, values are counted in buckets that double in width with each power of two, each split into
+ * 16 equal sub-buckets, so any percentile is reported to within about 6% of the true value, whether it is 200
+ * microseconds or 20 seconds. The whole range up to about 12 days fits in a few kilobytes, and recording a value is
+ * a single atomic increment.
+ *
+ * @author iHeronGH
+ *
+ * @version 0.2.0
+ *
+ * @since 0.2.0
+ *
+ * @see WCLatencyHistogram#record(long)
+ * @see WCLatencyHistogram#getPercentile(double)
+ * @see WCWikiStats
+ */
+public final class WCLatencyHistogram {
+
+    /**
+     * The number of bits of precision kept below the highest bit of a value.
+     */
+    private static final int SUB_BUCKET_BITS = 4;
+
+    /**
+     * The number of sub-buckets each power of two is split into.
+     */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * The highest power of two counted; larger values are counted as the largest value below the next.
+     */
+    private static final int MAX_EXPONENT = 39;
+
+    /**
+     * The largest value counted, in microseconds.
+     */
+    private static final long MAX_VALUE = ( 1L << ( MAX_EXPONENT + 1 ) ) - 1;
+
+    /**
+     * The number of values counted in each bucket.
+     */
+    private final AtomicLongArray counts = new AtomicLongArray( ( MAX_EXPONENT - SUB_BUCKET_BITS + 2 ) * SUB_BUCKETS );
+
+    /**
+     * The number of values recorded.
+     */
+    private final AtomicLong count = new AtomicLong();
+
+    /**
+     * The sum of the values recorded, in microseconds.
+     */
+    private final AtomicLong total = new AtomicLong();
+
+    /**
+     * The largest value recorded, in microseconds.
+     */
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Constructs a new, empty {@code WCLatencyHistogram} object.
+     */
+    public WCLatencyHistogram() {}
+
+    /**
+     * Records a latency.
+     *
+     * @param micros The latency, in microseconds; negative values are counted as {@code 0}.
+     *
+     * @since 0.2.0
+     */
+    public void record( long micros ) {
+        long value = Math.min( MAX_VALUE, Math.max( 0, micros ) );
+
+        counts.incrementAndGet( indexOf( value ) );
+        count.incrementAndGet();
+        total.addAndGet( value );
+        max.accumulateAndGet( value, Math::max );
+
+    }
+
+    /**
+     * Gets the number of latencies recorded.
+     *
+     * @return The number of latencies recorded.
+     *
+     * @since 0.2.0
+     */
+    public long getCount() {
+        return count.get();
+
+    }
+
+    /**
+     * Gets the mean latency.
+     *
+     * @return The mean latency, in microseconds, or {@code 0} if none were recorded.
+     *
+     * @since 0.2.0
+     */
+    public long getMean() {
+        long recorded = count.get();
+        return recorded == 0 ? 0 : total.get() / recorded;
+
+    }
+
+    /**
+     * Gets the largest latency recorded.
+     *
+     * @return The largest latency, in microseconds, or {@code 0} if none were recorded.
+     *
+     * @since 0.2.0
+     */
+    public long getMax() {
+        return max.get();
+
+    }
+
+    /**
+     * Gets the latency at a percentile.
+     * <p>Values recorded while this method runs may or may not be counted.
+     *
+     * @param percentile The percentile, between {@code 0} and {@code 100}, e.g. {@code 99.9}.
+     *
+     * @return The highest latency in the bucket holding that percentile, in microseconds, never more than the largest
+     * recorded; or {@code 0} if none were recorded.
+     *
+     * @since 0.2.0
+     */
+    public long getPercentile( double percentile ) {
+        long recorded = 0;
+
+        for ( int i = 0; i < counts.length(); i++ ) {
+            recorded += counts.get( i );
+
+        }
+
+        if ( recorded == 0 ) {
+            return 0;
+
+        }
+
+        long rank = Math.max( 1, ( long ) Math.ceil( Math.min( 100, Math.max( 0, percentile ) ) / 100 * recorded ) );
+        long seen = 0;
+
+        for ( int i = 0; i < counts.length(); i++ ) {
+            seen += counts.get( i );
+
+            if ( seen >= rank ) {
+                return Math.min( highestValueAt( i ), max.get() );
+
+            }
+
+        }
+
+        return max.get();
+
+    }
+
+    /**
+     * Gets the bucket a value is counted in.
+     *
+     * @param value The value, between {@code 0} and {@link #MAX_VALUE}.
+     *
+     * @return The index of the bucket.
+     */
+    private static int indexOf( long value ) {
+        if ( value < SUB_BUCKETS ) {
+            return ( int ) value;
+
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros( value );
+        int subBucket = ( int ) ( value >>> ( exponent - SUB_BUCKET_BITS ) ) & ( SUB_BUCKETS - 1 );
+
+        return ( exponent - SUB_BUCKET_BITS + 1 ) * SUB_BUCKETS + subBucket;
+
+    }
+
+    /**
+     * Gets the highest value counted in a bucket.
+     *
+     * @param index The index of the bucket.
+     *
+     * @return The highest value counted in the bucket.
+     */
+    private static long highestValueAt( int index ) {
+        if ( index < SUB_BUCKETS ) {
+            return index;
+
+        }
+
+        int shift = index / SUB_BUCKETS - 1;
+        long lowest = ( long ) ( SUB_BUCKETS + index % SUB_BUCKETS ) << shift;
+
+        return lowest + ( 1L << shift ) - 1;
+
+    }
+
+}
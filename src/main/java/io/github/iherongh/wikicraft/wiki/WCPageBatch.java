@@ -0,0 +1,133 @@
+package io.github.iherongh.wikicraft.wiki;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One batch of titles from a {@code list=allpages} query, along with where the next batch starts.
+ * <p>The wiki returns at most {@code aplimit} titles per request; the rest are fetched by passing
+ * {@link #getContinueFrom()} back as {@code apcontinue} until the wiki stops returning one.
+ *
+ * @author iHeronGH
+ *
+ * @version 0.2.0
+ *
+ * @since 0.2.0
+ *
+ * @see WCPageBatch#parse(String)
+ * @see WCWikiUtils#forEachPage(String, java.util.function.Consumer)
+ */
+public final class WCPageBatch {
+
+    /**
+     * The titles in this batch, in the order the wiki returned them.
+     */
+    private final List<String> titles;
+
+    /**
+     * The {@code apcontinue} value of the next batch, or {@code null} if this is the last batch.
+     */
+    private final String continueFrom;
+
+    /**
+     * Constructs a new {@code WCPageBatch} object.
+     *
+     * @param titles       The titles in this batch.
+     * @param continueFrom The {@code apcontinue} value of the next batch, or {@code null} if this is the last batch.
+     */
+    public WCPageBatch( @NotNull List<String> titles, @Nullable String continueFrom ) {
+        this.titles = Collections.unmodifiableList( titles );
+        this.continueFrom = continueFrom;
+
+    }
+
+    /**
+     * Parses the response to a {@code list=allpages} query.
+     * <p>Both {@code formatversion=1} and {@code formatversion=2} responses are accepted.
+     *
+     * @param response The body of the response.
+     *
+     * @return The batch of titles in the response.
+     *
+     * @throws IllegalStateException If the wiki returned an error, such as {@code maxlag}.
+     *
+     * @since 0.2.0
+     */
+    @Contract ( "_ -> new" )
+    public static @NotNull WCPageBatch parse( @NotNull String response ) {
+        JsonObject json = JsonParser.parseString( response ).getAsJsonObject();
+
+        if ( json.has( "error" ) ) {
+            JsonObject error = json.getAsJsonObject( "error" );
+            String code = error.has( "code" ) ? error.get( "code" ).getAsString() : "unknown";
+            String info = error.has( "info" ) ? error.get( "info" ).getAsString() : "";
+            throw new IllegalStateException( "Wiki API returned an error (" + code + "): " + info );
+
+        }
+
+        List<String> titles = new ArrayList<>();
+
+        if ( json.has( "query" ) && json.getAsJsonObject( "query" ).has( "allpages" ) ) {
+            for ( JsonElement page : json.getAsJsonObject( "query" ).getAsJsonArray( "allpages" ) ) {
+                titles.add( page.getAsJsonObject().get( "title" ).getAsString() );
+
+            }
+
+        }
+
+        String continueFrom = null;
+
+        if ( json.has( "continue" ) && json.getAsJsonObject( "continue" ).has( "apcontinue" ) ) {
+            continueFrom = json.getAsJsonObject( "continue" ).get( "apcontinue" ).getAsString();
+
+        }
+
+        return new WCPageBatch( titles, continueFrom );
+
+    }
+
+    /**
+     * Gets the titles in this batch.
+     *
+     * @return A read-only list of the titles in this batch.
+     *
+     * @since 0.2.0
+     */
+    public @NotNull List<String> getTitles() {
+        return titles;
+
+    }
+
+    /**
+     * Gets the {@code apcontinue} value of the next batch.
+     *
+     * @return The {@code apcontinue} value of the next batch, or {@code null} if this is the last batch.
+     *
+     * @since 0.2.0
+     */
+    public @Nullable String getContinueFrom() {
+        return continueFrom;
+
+    }
+
+    /**
+     * Checks whether there is another batch after this one.
+     *
+     * @return {@code true} if there is another batch, {@code false} otherwise.
+     *
+     * @since 0.2.0
+     */
+    public boolean hasMore() {
+        return continueFrom != null;
+
+    }
+
+}
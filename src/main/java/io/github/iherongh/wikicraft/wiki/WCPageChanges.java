@@ -0,0 +1,255 @@
+package io.github.iherongh.wikicraft.wiki;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One batch of page creations, deletions and moves from a {@code list=recentchanges} query.
+ * <p>Changes are reduced to whether each affected title exists afterwards, so they can be applied to a
+ * {@link WCPageIndex} with {@link WCPageIndex#withChanges(Map)}. The newest change seen is kept as a cursor, so the
+ * next query only asks for what happened since.
+ *
+ * @author iHeronGH
+ *
+ * @version 0.2.0
+ *
+ * @since 0.2.0
+ *
+ * @see WCPageChanges#parse(String, int, long)
+ * @see WCPageSync
+ */
+public final class WCPageChanges {
+
+    /**
+     * Whether each affected title exists after the changes, in the order they were first changed.
+     */
+    private final Map<String, Boolean> changes;
+
+    /**
+     * The {@code rccontinue} value of the next batch, or {@code null} if this is the last batch.
+     */
+    private final String continueFrom;
+
+    /**
+     * The timestamp of the newest change in this batch, or {@code null} if it is empty.
+     */
+    private final String lastTimestamp;
+
+    /**
+     * The ID of the newest change in this batch, or {@code 0} if it is empty.
+     */
+    private final long lastId;
+
+    /**
+     * Constructs a new {@code WCPageChanges} object.
+     *
+     * @param changes       Whether each affected title exists after the changes.
+     * @param continueFrom  The {@code rccontinue} value of the next batch, or {@code null} if this is the last batch.
+     * @param lastTimestamp The timestamp of the newest change, or {@code null} if there are none.
+     * @param lastId        The ID of the newest change, or {@code 0} if there are none.
+     */
+    public WCPageChanges( @NotNull Map<String, Boolean> changes, @Nullable String continueFrom, @Nullable String lastTimestamp, long lastId ) {
+        this.changes = Collections.unmodifiableMap( changes );
+        this.continueFrom = continueFrom;
+        this.lastTimestamp = lastTimestamp;
+        this.lastId = lastId;
+
+    }
+
+    /**
+     * Parses the response to a {@code list=recentchanges} query made with {@code rcprop=title|ids|timestamp|loginfo}.
+     * <p>Page creations, imports and undeletions add a title; deletions remove one; moves remove the old title and
+     * add the new one, keeping the old title if a redirect was left behind. Other changes only advance the cursor.
+     *
+     * @param response  The body of the response.
+     * @param namespace The ID of the namespace to keep changes for.
+     * @param afterId   Changes with this ID or lower have already been applied, and are skipped.
+     *
+     * @return The changes in the response.
+     *
+     * @throws IllegalStateException If the wiki returned an error.
+     *
+     * @since 0.2.0
+     */
+    @Contract ( "_, _, _ -> new" )
+    public static @NotNull WCPageChanges parse( @NotNull String response, int namespace, long afterId ) {
+        JsonObject json = JsonParser.parseString( response ).getAsJsonObject();
+
+        if ( json.has( "error" ) ) {
+            JsonObject error = json.getAsJsonObject( "error" );
+            String code = error.has( "code" ) ? error.get( "code" ).getAsString() : "unknown";
+            String info = error.has( "info" ) ? error.get( "info" ).getAsString() : "";
+            throw new IllegalStateException( "Wiki API returned an error (" + code + "): " + info );
+
+        }
+
+        Map<String, Boolean> changes = new LinkedHashMap<>();
+        String lastTimestamp = null;
+        long lastId = 0;
+
+        if ( json.has( "query" ) && json.getAsJsonObject( "query" ).has( "recentchanges" ) ) {
+            for ( JsonElement element : json.getAsJsonObject( "query" ).getAsJsonArray( "recentchanges" ) ) {
+                JsonObject change = element.getAsJsonObject();
+                long id = change.has( "rcid" ) ? change.get( "rcid" ).getAsLong() : 0;
+
+                if ( id != 0 && id <= afterId ) {
+                    continue;
+
+                }
+
+                if ( id > lastId ) {
+                    lastId = id;
+                    lastTimestamp = change.has( "timestamp" ) ? change.get( "timestamp" ).getAsString() : lastTimestamp;
+
+                }
+
+                apply( changes, change, namespace );
+
+            }
+
+        }
+
+        String continueFrom = null;
+
+        if ( json.has( "continue" ) && json.getAsJsonObject( "continue" ).has( "rccontinue" ) ) {
+            continueFrom = json.getAsJsonObject( "continue" ).get( "rccontinue" ).getAsString();
+
+        }
+
+        return new WCPageChanges( changes, continueFrom, lastTimestamp, lastId );
+
+    }
+
+    /**
+     * Applies a single change to the titles it affects.
+     *
+     * @param changes   Whether each affected title exists after the changes so far.
+     * @param change    The change to apply.
+     * @param namespace The ID of the namespace to keep changes for.
+     */
+    private static void apply( Map<String, Boolean> changes, JsonObject change, int namespace ) {
+        String type = change.has( "type" ) ? change.get( "type" ).getAsString() : "";
+        String title = change.has( "title" ) ? change.get( "title" ).getAsString() : null;
+        boolean inNamespace = change.has( "ns" ) && change.get( "ns" ).getAsInt() == namespace;
+
+        if ( title == null ) {
+            return;
+
+        }
+
+        if ( type.equals( "new" ) ) {
+            if ( inNamespace ) {
+                changes.put( title, true );
+
+            }
+
+            return;
+
+        }
+
+        if ( !type.equals( "log" ) ) {
+            return;
+
+        }
+
+        String logType = change.has( "logtype" ) ? change.get( "logtype" ).getAsString() : "";
+        String logAction = change.has( "logaction" ) ? change.get( "logaction" ).getAsString() : "";
+
+        switch ( logType ) {
+            case "delete" -> {
+                if ( inNamespace && logAction.equals( "delete" ) ) {
+                    changes.put( title, false );
+
+                } else if ( inNamespace && logAction.equals( "restore" ) ) {
+                    changes.put( title, true );
+
+                }
+
+            }
+            case "import" -> {
+                if ( inNamespace ) {
+                    changes.put( title, true );
+
+                }
+
+            }
+            case "move" -> {
+                JsonObject params = change.has( "logparams" ) ? change.getAsJsonObject( "logparams" ) : new JsonObject();
+
+                if ( inNamespace && params.has( "suppressredirect" ) ) {
+                    changes.put( title, false );
+
+                }
+
+                if ( params.has( "target_title" ) && params.has( "target_ns" ) && params.get( "target_ns" ).getAsInt() == namespace ) {
+                    changes.put( params.get( "target_title" ).getAsString(), true );
+
+                }
+
+            }
+            default -> {
+                // Other log entries do not create or remove pages
+
+            }
+
+        }
+
+    }
+
+    /**
+     * Gets whether each affected title exists after the changes.
+     *
+     * @return A read-only map of each affected title to {@code true} if it exists afterwards, or {@code false} if not.
+     *
+     * @since 0.2.0
+     */
+    public @NotNull Map<String, Boolean> getChanges() {
+        return changes;
+
+    }
+
+    /**
+     * Gets the {@code rccontinue} value of the next batch.
+     *
+     * @return The {@code rccontinue} value of the next batch, or {@code null} if this is the last batch.
+     *
+     * @since 0.2.0
+     */
+    public @Nullable String getContinueFrom() {
+        return continueFrom;
+
+    }
+
+    /**
+     * Gets the timestamp of the newest change in this batch.
+     *
+     * @return The timestamp of the newest change, or {@code null} if there are none.
+     *
+     * @since 0.2.0
+     */
+    public @Nullable String getLastTimestamp() {
+        return lastTimestamp;
+
+    }
+
+    /**
+     * Gets the ID of the newest change in this batch.
+     *
+     * @return The ID of the newest change, or {@code 0} if there are none.
+     *
+     * @since 0.2.0
+     */
+    public long getLastId() {
+        return lastId;
+
+    }
+
+}
@@ -0,0 +1,249 @@
+package io.github.iherongh.wikicraft.wiki;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * An immutable, sorted index of page titles.
+ * <p>Titles are kept in two sorted arrays: one in natural order, for validating an exact title in {@code O(log n)},
+ * and one keyed by lower-case title, for finding the first {@code n} titles starting with a prefix in
+ * {@code O(log n + n)}. Neither lookup allocates more than its result.
+ *
+ * @author iHeronGH
+ *
+ * @version 0.2.0
+ *
+ * @since 0.2.0
+ *
+ * @see WCPageIndex#of(Collection)
+ * @see WCPageIndex#withChanges(Map)
+ * @see WCPageIndex#contains(String)
+ * @see WCPageIndex#suggest(String, int)
+ */
+public final class WCPageIndex {
+
+    /**
+     * An index containing no titles.
+     */
+    public static final WCPageIndex EMPTY = new WCPageIndex( new String[ 0 ] );
+
+    /**
+     * Every title, sorted in natural order.
+     */
+    private final String[] titles;
+
+    /**
+     * Every title in lower case, sorted in natural order.
+     */
+    private final String[] keys;
+
+    /**
+     * The original title of each entry in {@link #keys}.
+     */
+    private final String[] keyedTitles;
+
+    /**
+     * Constructs a new {@code WCPageIndex} object.
+     *
+     * @param sortedTitles Every title, sorted in natural order and without duplicates.
+     */
+    private WCPageIndex( String @NotNull [] sortedTitles ) {
+        this.titles = sortedTitles;
+
+        Integer[] order = new Integer[ sortedTitles.length ];
+        String[] lowered = new String[ sortedTitles.length ];
+
+        for ( int i = 0; i < sortedTitles.length; i++ ) {
+            order[ i ] = i;
+            lowered[ i ] = sortedTitles[ i ].toLowerCase( Locale.ROOT );
+
+        }
+
+        Arrays.sort( order, Comparator.comparing( i -> lowered[ i ] ) );
+
+        this.keys = new String[ sortedTitles.length ];
+        this.keyedTitles = new String[ sortedTitles.length ];
+
+        for ( int i = 0; i < order.length; i++ ) {
+            keys[ i ] = lowered[ order[ i ] ];
+            keyedTitles[ i ] = sortedTitles[ order[ i ] ];
+
+        }
+
+    }
+
+    /**
+     * Builds an index over a collection of titles.
+     *
+     * @param titles The titles to index. Duplicates and {@code null} titles are dropped.
+     *
+     * @return An index over the given titles.
+     *
+     * @since 0.2.0
+     */
+    @Contract ( "_ -> new" )
+    public static @NotNull WCPageIndex of( @NotNull Collection<String> titles ) {
+        String[] sorted = titles.stream()
+            .filter( title -> title != null && !title.isEmpty() )
+            .sorted()
+            .distinct()
+            .toArray( String[]::new );
+
+        return new WCPageIndex( sorted );
+
+    }
+
+    /**
+     * Builds a new index with titles added and removed.
+     * <p>This index is left unchanged; if there are no changes, it is returned as is.
+     *
+     * @param changes Each title to change, mapped to {@code true} to add it or {@code false} to remove it.
+     *
+     * @return An index with the changes applied.
+     *
+     * @since 0.2.0
+     */
+    public @NotNull WCPageIndex withChanges( @NotNull Map<String, Boolean> changes ) {
+        if ( changes.isEmpty() ) {
+            return this;
+
+        }
+
+        List<String> changed = new ArrayList<>( titles.length + changes.size() );
+
+        for ( String title : titles ) {
+            if ( !changes.containsKey( title ) ) {
+                changed.add( title );
+
+            }
+
+        }
+
+        for ( Map.Entry<String, Boolean> change : changes.entrySet() ) {
+            if ( change.getValue() ) {
+                changed.add( change.getKey() );
+
+            }
+
+        }
+
+        return of( changed );
+
+    }
+
+    /**
+     * Checks whether a title is in the index.
+     *
+     * @param title The exact title to look for.
+     *
+     * @return {@code true} if the title is in the index, {@code false} otherwise.
+     *
+     * @since 0.2.0
+     */
+    public boolean contains( String title ) {
+        return title != null && Arrays.binarySearch( titles, title ) >= 0;
+
+    }
+
+    /**
+     * Finds the first titles starting with a prefix, ignoring case.
+     *
+     * @param prefix The prefix to match; an empty prefix matches every title.
+     * @param limit  The maximum number of titles to return.
+     *
+     * @return Up to {@code limit} titles starting with {@code prefix}, in alphabetical order.
+     *
+     * @since 0.2.0
+     */
+    public @NotNull List<String> suggest( String prefix, int limit ) {
+        if ( limit <= 0 || titles.length == 0 ) {
+            return List.of();
+
+        }
+
+        String key = prefix == null ? "" : prefix.toLowerCase( Locale.ROOT );
+        List<String> matches = new ArrayList<>( Math.min( limit, 16 ) );
+
+        for ( int i = lowerBound( key ); i < keys.length && matches.size() < limit && keys[ i ].startsWith( key ); i++ ) {
+            matches.add( keyedTitles[ i ] );
+
+        }
+
+        return matches;
+
+    }
+
+    /**
+     * Finds the index of the first key not less than the given key.
+     *
+     * @param key The key to search for.
+     *
+     * @return The index of the first key not less than {@code key}.
+     */
+    private int lowerBound( String key ) {
+        int low = 0;
+        int high = keys.length;
+
+        while ( low < high ) {
+            int middle = ( low + high ) >>> 1;
+
+            if ( keys[ middle ].compareTo( key ) < 0 ) {
+                low = middle + 1;
+
+            } else {
+                high = middle;
+
+            }
+
+        }
+
+        return low;
+
+    }
+
+    /**
+     * Gets every title in the index.
+     *
+     * @return An unmodifiable list of every title, sorted in natural order.
+     *
+     * @since 0.2.0
+     */
+    public @NotNull List<String> titles() {
+        return Collections.unmodifiableList( Arrays.asList( titles ) );
+
+    }
+
+    /**
+     * Gets the number of titles in the index.
+     *
+     * @return The number of titles in the index.
+     *
+     * @since 0.2.0
+     */
+    public int size() {
+        return titles.length;
+
+    }
+
+    /**
+     * Checks whether the index contains no titles.
+     *
+     * @return {@code true} if the index is empty, {@code false} otherwise.
+     *
+     * @since 0.2.0
+     */
+    public boolean isEmpty() {
+        return titles.length == 0;
+
+    }
+
+}
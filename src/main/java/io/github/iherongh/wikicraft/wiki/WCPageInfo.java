@@ -0,0 +1,235 @@
+package io.github.iherongh.wikicraft.wiki;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Information about a wiki page, read from a single {@code prop=info|categories|revisions} query.
+ * <p>Immutable, so it can be cached and shared between threads.
+ *
+ * @author iHeronGH
+ *
+ * @version 0.2.0
+ *
+ * @since 0.2.0
+ *
+ * @see WCPageInfo#parse(String, String)
+ * @see WCWikiUtils#getPageInfo(String)
+ */
+public final class WCPageInfo {
+
+    /**
+     * The title of the page, as normalized by the wiki.
+     */
+    private final String title;
+
+    /**
+     * Whether the page exists.
+     */
+    private final boolean exists;
+
+    /**
+     * The URL of the page, or {@code null} if the wiki did not report one.
+     */
+    private final String url;
+
+    /**
+     * The categories the page is in, including the namespace prefix.
+     */
+    private final List<String> categories;
+
+    /**
+     * The user who last edited the page, or {@code null} if it does not exist.
+     */
+    private final String lastEditor;
+
+    /**
+     * When the page was last edited, or {@code null} if it does not exist.
+     */
+    private final String lastEdited;
+
+    /**
+     * The ID of the latest revision of the page, or {@code 0} if it does not exist.
+     */
+    private final long revisionId;
+
+    /**
+     * Constructs a new {@code WCPageInfo} object.
+     *
+     * @param title      The title of the page.
+     * @param exists     Whether the page exists.
+     * @param url        The URL of the page, or {@code null} if unknown.
+     * @param categories The categories the page is in.
+     * @param lastEditor The user who last edited the page, or {@code null} if it does not exist.
+     * @param lastEdited When the page was last edited, or {@code null} if it does not exist.
+     * @param revisionId The ID of the latest revision of the page, or {@code 0} if it does not exist.
+     */
+    public WCPageInfo( @NotNull String title, boolean exists, @Nullable String url, @NotNull List<String> categories, @Nullable String lastEditor, @Nullable String lastEdited, long revisionId ) {
+        this.title = title;
+        this.exists = exists;
+        this.url = url;
+        this.categories = Collections.unmodifiableList( categories );
+        this.lastEditor = lastEditor;
+        this.lastEdited = lastEdited;
+        this.revisionId = revisionId;
+
+    }
+
+    /**
+     * Parses the response to a {@code prop=info|categories|revisions} query for a single title, made with
+     * {@code inprop=url}, {@code rvprop=ids|user|timestamp} and {@code formatversion=2}.
+     *
+     * @param response The body of the response.
+     * @param title    The title that was queried, used if the response does not name the page.
+     *
+     * @return The information about the page.
+     *
+     * @throws IllegalStateException If the wiki returned an error.
+     *
+     * @since 0.2.0
+     */
+    @Contract ( "_, _ -> new" )
+    public static @NotNull WCPageInfo parse( @NotNull String response, @NotNull String title ) {
+        JsonObject json = JsonParser.parseString( response ).getAsJsonObject();
+
+        if ( json.has( "error" ) ) {
+            JsonObject error = json.getAsJsonObject( "error" );
+            String code = error.has( "code" ) ? error.get( "code" ).getAsString() : "unknown";
+            String info = error.has( "info" ) ? error.get( "info" ).getAsString() : "";
+            throw new IllegalStateException( "Wiki API returned an error (" + code + "): " + info );
+
+        }
+
+        JsonObject query = json.has( "query" ) ? json.getAsJsonObject( "query" ) : new JsonObject();
+        JsonArray pages = query.has( "pages" ) ? query.getAsJsonArray( "pages" ) : new JsonArray();
+
+        if ( pages.isEmpty() ) {
+            return new WCPageInfo( title, false, null, List.of(), null, null, 0 );
+
+        }
+
+        JsonObject page = pages.get( 0 ).getAsJsonObject();
+        String pageTitle = page.has( "title" ) ? page.get( "title" ).getAsString() : title;
+        boolean exists = !page.has( "missing" ) && !page.has( "invalid" );
+        String url = page.has( "fullurl" ) ? page.get( "fullurl" ).getAsString() : null;
+
+        List<String> categories = new ArrayList<>();
+
+        if ( page.has( "categories" ) ) {
+            for ( JsonElement category : page.getAsJsonArray( "categories" ) ) {
+                categories.add( category.getAsJsonObject().get( "title" ).getAsString() );
+
+            }
+
+        }
+
+        String lastEditor = null;
+        String lastEdited = null;
+        long revisionId = page.has( "lastrevid" ) ? page.get( "lastrevid" ).getAsLong() : 0;
+
+        if ( page.has( "revisions" ) && !page.getAsJsonArray( "revisions" ).isEmpty() ) {
+            JsonObject revision = page.getAsJsonArray( "revisions" ).get( 0 ).getAsJsonObject();
+            lastEditor = revision.has( "user" ) ? revision.get( "user" ).getAsString() : null;
+            lastEdited = revision.has( "timestamp" ) ? revision.get( "timestamp" ).getAsString() : null;
+            revisionId = revision.has( "revid" ) ? revision.get( "revid" ).getAsLong() : revisionId;
+
+        }
+
+        return new WCPageInfo( pageTitle, exists, url, categories, lastEditor, lastEdited, revisionId );
+
+    }
+
+    /**
+     * Gets the title of the page, as normalized by the wiki.
+     *
+     * @return The title of the page.
+     *
+     * @since 0.2.0
+     */
+    public @NotNull String getTitle() {
+        return title;
+
+    }
+
+    /**
+     * Checks whether the page exists.
+     *
+     * @return {@code true} if the page exists, {@code false} otherwise.
+     *
+     * @since 0.2.0
+     */
+    public boolean exists() {
+        return exists;
+
+    }
+
+    /**
+     * Gets the URL of the page.
+     *
+     * @return The URL of the page, or {@code null} if the wiki did not report one.
+     *
+     * @since 0.2.0
+     */
+    public @Nullable String getUrl() {
+        return url;
+
+    }
+
+    /**
+     * Gets the categories the page is in.
+     *
+     * @return A read-only list of the categories the page is in, including the namespace prefix.
+     *
+     * @since 0.2.0
+     */
+    public @NotNull List<String> getCategories() {
+        return categories;
+
+    }
+
+    /**
+     * Gets the user who last edited the page.
+     *
+     * @return The user who last edited the page, or {@code null} if it does not exist.
+     *
+     * @since 0.2.0
+     */
+    public @Nullable String getLastEditor() {
+        return lastEditor;
+
+    }
+
+    /**
+     * Gets when the page was last edited.
+     *
+     * @return When the page was last edited, as an ISO 8601 timestamp, or {@code null} if it does not exist.
+     *
+     * @since 0.2.0
+     */
+    public @Nullable String getLastEdited() {
+        return lastEdited;
+
+    }
+
+    /**
+     * Gets the ID of the latest revision of the page.
+     *
+     * @return The ID of the latest revision, or {@code 0} if the page does not exist.
+     *
+     * @since 0.2.0
+     */
+    public long getRevisionId() {
+        return revisionId;
+
+    }
+
+}
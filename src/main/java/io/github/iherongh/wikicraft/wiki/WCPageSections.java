@@ -0,0 +1,314 @@
+package io.github.iherongh.wikicraft.wiki;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The sections of a revision of a wiki page, read from a single {@code action=parse&prop=sections} request.
+ * <p>Sections transcluded from templates are left out, as they cannot be fetched by their index on the page.
+ * <br>Immutable, so it can be cached and shared between threads.
+ *
+ * @author iHeronGH
+ *
+ * @version 0.2.0
+ *
+ * @since 0.2.0
+ *
+ * @see WCPageSections#parse(String, String)
+ * @see WCBookRenderer
+ */
+public final class WCPageSections {
+
+    /**
+     * The title of the page, as normalized by the wiki.
+     */
+    private final String title;
+
+    /**
+     * The ID of the revision the sections were read from.
+     */
+    private final long revisionId;
+
+    /**
+     * The sections of the page, in order, not counting the lead section.
+     */
+    private final List<Section> sections;
+
+    /**
+     * Constructs a new {@code WCPageSections} object.
+     *
+     * @param title      The title of the page.
+     * @param revisionId The ID of the revision the sections were read from.
+     * @param sections   The sections of the page, in order, not counting the lead section.
+     */
+    public WCPageSections( @NotNull String title, long revisionId, @NotNull List<Section> sections ) {
+        this.title = title;
+        this.revisionId = revisionId;
+        this.sections = Collections.unmodifiableList( sections );
+
+    }
+
+    /**
+     * Parses the response to an {@code action=parse} request made with {@code prop=sections|revid} and
+     * {@code formatversion=2}.
+     *
+     * @param response The body of the response.
+     * @param title    The title that was parsed, used if the response does not name the page.
+     *
+     * @return The sections of the page.
+     *
+     * @throws IllegalStateException If the wiki returned an error.
+     *
+     * @since 0.2.0
+     */
+    @Contract ( "_, _ -> new" )
+    public static @NotNull WCPageSections parse( @NotNull String response, @NotNull String title ) {
+        JsonObject json = JsonParser.parseString( response ).getAsJsonObject();
+
+        if ( json.has( "error" ) ) {
+            JsonObject error = json.getAsJsonObject( "error" );
+            String code = error.has( "code" ) ? error.get( "code" ).getAsString() : "unknown";
+            String info = error.has( "info" ) ? error.get( "info" ).getAsString() : "";
+            throw new IllegalStateException( "Wiki API returned an error (" + code + "): " + info );
+
+        }
+
+        JsonObject parse = json.has( "parse" ) ? json.getAsJsonObject( "parse" ) : new JsonObject();
+        String pageTitle = parse.has( "title" ) ? parse.get( "title" ).getAsString() : title;
+        long revisionId = parse.has( "revid" ) ? parse.get( "revid" ).getAsLong() : 0;
+
+        List<Section> sections = new ArrayList<>();
+        JsonArray array = parse.has( "sections" ) ? parse.getAsJsonArray( "sections" ) : new JsonArray();
+
+        for ( JsonElement element : array ) {
+            JsonObject section = element.getAsJsonObject();
+            String index = section.has( "index" ) ? section.get( "index" ).getAsString() : "";
+
+            // Transcluded sections are indexed "T-1", "T-2", ...
+            if ( !index.matches( "\\d+" ) ) {
+                continue;
+
+            }
+
+            sections.add( new Section(
+                Integer.parseInt( index ),
+                section.has( "number" ) ? section.get( "number" ).getAsString() : index,
+                section.has( "line" ) ? section.get( "line" ).getAsString().replaceAll( "<[^>]*>", "" ) : "",
+                section.has( "toclevel" ) ? section.get( "toclevel" ).getAsInt() : 1
+            ) );
+
+        }
+
+        return new WCPageSections( pageTitle, revisionId, sections );
+
+    }
+
+    /**
+     * Gets the title of the page.
+     *
+     * @return The title of the page, as normalized by the wiki.
+     *
+     * @since 0.2.0
+     */
+    public @NotNull String getTitle() {
+        return title;
+
+    }
+
+    /**
+     * Gets the ID of the revision the sections were read from.
+     *
+     * @return The ID of the revision the sections were read from.
+     *
+     * @since 0.2.0
+     */
+    public long getRevisionId() {
+        return revisionId;
+
+    }
+
+    /**
+     * Gets the sections of the page.
+     *
+     * @return A read-only list of the sections of the page, in order, not counting the lead section.
+     *
+     * @since 0.2.0
+     */
+    public @NotNull List<Section> getSections() {
+        return sections;
+
+    }
+
+    /**
+     * Gets a section by its index.
+     *
+     * @param index The index of the section; {@code 0} is the lead section, which is never listed.
+     *
+     * @return The section, or {@code null} if the page has no section with that index.
+     *
+     * @since 0.2.0
+     */
+    public @Nullable Section get( int index ) {
+        for ( Section section : sections ) {
+            if ( section.getIndex() == index ) {
+                return section;
+
+            }
+
+        }
+
+        return null;
+
+    }
+
+    /**
+     * Gets the section after a given section.
+     *
+     * @param index The index of the section; {@code 0} for the lead section.
+     *
+     * @return The next section, or {@code null} if it is the last one.
+     *
+     * @since 0.2.0
+     */
+    public @Nullable Section next( int index ) {
+        for ( Section section : sections ) {
+            if ( section.getIndex() > index ) {
+                return section;
+
+            }
+
+        }
+
+        return null;
+
+    }
+
+    /**
+     * Gets the section before a given section.
+     *
+     * @param index The index of the section.
+     *
+     * @return The previous section, or {@code null} if it comes right after the lead section.
+     *
+     * @since 0.2.0
+     */
+    public @Nullable Section previous( int index ) {
+        Section previous = null;
+
+        for ( Section section : sections ) {
+            if ( section.getIndex() >= index ) {
+                break;
+
+            }
+
+            previous = section;
+
+        }
+
+        return previous;
+
+    }
+
+    /**
+     * A section of a page.
+     *
+     * @since 0.2.0
+     */
+    public static final class Section {
+
+        /**
+         * The index of the section, as passed to {@code action=parse&section=}.
+         */
+        private final int index;
+
+        /**
+         * The number of the section in the table of contents, e.g. {@code 2.1}.
+         */
+        private final String number;
+
+        /**
+         * The heading of the section, without markup.
+         */
+        private final String heading;
+
+        /**
+         * The level of the section in the table of contents, starting at {@code 1}.
+         */
+        private final int level;
+
+        /**
+         * Constructs a new {@code Section} object.
+         *
+         * @param index   The index of the section.
+         * @param number  The number of the section in the table of contents.
+         * @param heading The heading of the section, without markup.
+         * @param level   The level of the section in the table of contents, starting at {@code 1}.
+         */
+        public Section( int index, @NotNull String number, @NotNull String heading, int level ) {
+            this.index = index;
+            this.number = number;
+            this.heading = heading;
+            this.level = level;
+
+        }
+
+        /**
+         * Gets the index of the section.
+         *
+         * @return The index of the section, as passed to {@code action=parse&section=}.
+         *
+         * @since 0.2.0
+         */
+        public int getIndex() {
+            return index;
+
+        }
+
+        /**
+         * Gets the number of the section in the table of contents.
+         *
+         * @return The number of the section, e.g. {@code 2.1}.
+         *
+         * @since 0.2.0
+         */
+        public @NotNull String getNumber() {
+            return number;
+
+        }
+
+        /**
+         * Gets the heading of the section.
+         *
+         * @return The heading of the section, without markup.
+         *
+         * @since 0.2.0
+         */
+        public @NotNull String getHeading() {
+            return heading;
+
+        }
+
+        /**
+         * Gets the level of the section in the table of contents.
+         *
+         * @return The level of the section, starting at {@code 1}.
+         *
+         * @since 0.2.0
+         */
+        public int getLevel() {
+            return level;
+
+        }
+
+    }
+
+}
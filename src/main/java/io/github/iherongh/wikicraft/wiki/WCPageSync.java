@@ -0,0 +1,259 @@
+package io.github.iherongh.wikicraft.wiki;
+
+import io.github.iherongh.wikicraft.config.WCConfigUtils;
+import io.github.iherongh.wikicraft.messages.WCMessages;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the title index of a namespace up to date.
+ * <p>The first sync lists every page. After that, if {@code page-sync} is {@code incremental}, each sync only asks
+ * {@code list=recentchanges} for pages created, deleted or moved since the last one, and applies them to the index.
+ * A full list is only made again if the cursor into recent changes is lost: the wiki rejects it, it is too old to
+ * still be in recent changes, or there are too many changes to be worth applying one by one.
+ *
+ * @author iHeronGH
+ *
+ * @version 0.2.0
+ *
+ * @since 0.2.0
+ *
+ * @see WCPageSync#sync()
+ * @see WCPageChanges
+ * @see WCPageIndex
+ */
+public final class WCPageSync {
+
+    /**
+     * How old the cursor may be before recent changes may no longer reach back to it.
+     * <p>MediaWiki keeps recent changes for 90 days by default; this leaves a wide margin.
+     */
+    private static final Duration MAX_CURSOR_AGE = Duration.ofDays( 7 );
+
+    /**
+     * The number of batches of changes after which a full list is cheaper than applying every change.
+     */
+    private static final int MAX_CHANGE_BATCHES = 10;
+
+    /**
+     * The name of the namespace, e.g. {@code main}.
+     */
+    private final String namespace;
+
+    /**
+     * The ID of the namespace.
+     */
+    private final int namespaceId;
+
+    /**
+     * The last synced index, or {@code null} if no sync has been made yet.
+     */
+    private WCPageIndex index;
+
+    /**
+     * The timestamp of the last change applied, or {@code null} if the cursor is lost.
+     */
+    private String cursorTimestamp;
+
+    /**
+     * The ID of the last change applied.
+     */
+    private long cursorId;
+
+    /**
+     * Constructs a new {@code WCPageSync} object.
+     *
+     * @param namespace The name of the namespace to sync; see {@link WCWikiUtils#getAllPages(String)}.
+     */
+    public WCPageSync( @NotNull String namespace ) {
+        this.namespace = namespace;
+        this.namespaceId = WCWikiUtils.getNamespace( namespace ).v;
+
+    }
+
+    /**
+     * Brings the index up to date with the wiki.
+     * <p>Waits on the wiki, so must not be called on the main thread.
+     *
+     * @return The up-to-date index.
+     *
+     * @throws UncheckedIOException If the wiki could not be reached.
+     *
+     * @since 0.2.0
+     */
+    public synchronized @NotNull WCPageIndex sync() {
+        try {
+            if ( index == null || cursorTimestamp == null || !WCConfigUtils.getPageSync().equals( "incremental" ) || isCursorTooOld() ) {
+                return fullSync();
+
+            }
+
+            return incrementalSync();
+
+        } catch ( IOException e ) {
+            throw new UncheckedIOException( e );
+
+        }
+
+    }
+
+    /**
+     * Forgets the index and cursor, so the next sync lists every page.
+     *
+     * @since 0.2.0
+     */
+    public synchronized void reset() {
+        index = null;
+        cursorTimestamp = null;
+        cursorId = 0;
+
+    }
+
+    /**
+     * Lists every page in the namespace, after noting the newest change as the cursor.
+     * <p>The cursor is taken first, so any change made while the pages are listed is applied again by the next sync;
+     * applying a change twice leaves the index the same.
+     *
+     * @return The index of every page.
+     *
+     * @throws IOException If the wiki could not be reached, or returned an error.
+     */
+    private @NotNull WCPageIndex fullSync() throws IOException {
+        WCMessages.debug( "info", "Listing every page in " + namespace + "..." );
+
+        WCPageChanges latest;
+
+        try {
+            latest = WCPageChanges.parse( WCWikiUtils.query( List.of(
+                "list", "recentchanges",
+                "rcprop", "ids|timestamp",
+                "rclimit", "1",
+                "formatversion", "2",
+                "maxlag", String.valueOf( WCWikiUtils.getMaxLag() )
+            ) ), namespaceId, 0 );
+
+        } catch ( IllegalStateException e ) {
+            throw new IOException( e.getMessage(), e );
+
+        }
+
+        WCPageIndex listed = WCPageIndex.of( WCWikiUtils.getAllPages( namespace ) );
+
+        // Pages may have come or gone since the last listing
+        if ( index != null ) {
+            WCWikiUtils.invalidateSearches();
+
+        }
+
+        index = listed;
+        cursorTimestamp = latest.getLastTimestamp() != null ? latest.getLastTimestamp() : Instant.now().truncatedTo( ChronoUnit.SECONDS ).toString();
+        cursorId = latest.getLastId();
+
+        return listed;
+
+    }
+
+    /**
+     * Applies every page creation, deletion and move since the cursor to the index.
+     * <p>Falls back to {@link #fullSync()} if the cursor is lost.
+     *
+     * @return The up-to-date index.
+     *
+     * @throws IOException If the wiki could not be reached.
+     */
+    private @NotNull WCPageIndex incrementalSync() throws IOException {
+        Map<String, Boolean> changes = new LinkedHashMap<>();
+        String timestamp = cursorTimestamp;
+        long id = cursorId;
+        String continueFrom = null;
+        int batches = 0;
+
+        do {
+            if ( ++batches > MAX_CHANGE_BATCHES ) {
+                WCMessages.debug( "info", "Too many changes in " + namespace + " since the last sync; listing every page instead." );
+                return fullSync();
+
+            }
+
+            List<String> params = new ArrayList<>( List.of(
+                "list", "recentchanges",
+                "rctype", "new|log",
+                "rcprop", "title|ids|timestamp|loginfo",
+                "rcdir", "newer",
+                "rcstart", cursorTimestamp,
+                "rclimit", "max",
+                "formatversion", "2",
+                "maxlag", String.valueOf( WCWikiUtils.getMaxLag() )
+            ) );
+
+            if ( continueFrom != null ) {
+                params.add( "rccontinue" );
+                params.add( continueFrom );
+
+            }
+
+            WCPageChanges batch;
+
+            try {
+                batch = WCPageChanges.parse( WCWikiUtils.query( params ), namespaceId, cursorId );
+
+            } catch ( IllegalStateException e ) {
+                WCMessages.debug( "warning", "Lost place in recent changes for " + namespace + "; listing every page instead: " + e.getMessage() );
+                return fullSync();
+
+            }
+
+            // Later batches are newer, so their changes win
+            changes.putAll( batch.getChanges() );
+
+            if ( batch.getLastId() > id ) {
+                id = batch.getLastId();
+                timestamp = batch.getLastTimestamp();
+
+            }
+
+            continueFrom = batch.getContinueFrom();
+
+        } while ( continueFrom != null );
+
+        index = index.withChanges( changes );
+        cursorTimestamp = timestamp;
+        cursorId = id;
+
+        if ( !changes.isEmpty() ) {
+            WCWikiUtils.invalidateSearches();
+            WCMessages.debug( "info", "Applied " + changes.size() + " page change(s) to " + namespace + "." );
+
+        }
+
+        return index;
+
+    }
+
+    /**
+     * Checks whether the cursor is too old to still be in recent changes.
+     *
+     * @return {@code true} if the cursor is too old or cannot be read, {@code false} otherwise.
+     */
+    private boolean isCursorTooOld() {
+        try {
+            return Instant.parse( cursorTimestamp ).isBefore( Instant.now().minus( MAX_CURSOR_AGE ) );
+
+        } catch ( DateTimeParseException e ) {
+            return true;
+
+        }
+
+    }
+
+}
@@ -0,0 +1,322 @@
+package io.github.iherongh.wikicraft.wiki;
+
+import io.github.iherongh.wikicraft.config.WCConfigUtils;
+import io.github.iherongh.wikicraft.messages.WCMessages;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits how fast WikiCraft sends requests to the wiki, across every player and command.
+ * <p>Each request takes a token from a bucket refilled at {@code rate-limit.requests-per-second}, holding up to
+ * {@code rate-limit.burst} tokens. When the wiki answers that it is lagging ({@code maxlag}) or receiving too many
+ * requests ({@code 429}), the rate is halved and the request is retried after the wiki's {@code Retry-After}, or an
+ * exponential backoff with jitter, up to {@code rate-limit.max-retries} times. The rate then climbs back to the limit
+ * as requests succeed.
+ * <p>Every read is sent with {@code maxlag}, so the wiki turns WikiCraft away rather than serving it while lagging.
+ *
+ * @author iHeronGH
+ *
+ * @version 0.2.0
+ *
+ * @since 0.2.0
+ *
+ * @see WCRateLimiter#getInstance()
+ * @see WCHttpClient
+ */
+public final class WCRateLimiter implements Interceptor {
+
+    /**
+     * The singleton instance of the rate limiter, shared by every wiki.
+     */
+    private static final WCRateLimiter instance = new WCRateLimiter();
+
+    /**
+     * The lowest the rate is lowered to, in requests per second.
+     */
+    private static final double MIN_RATE = 0.2;
+
+    /**
+     * The first backoff, in milliseconds, if the wiki does not say how long to wait.
+     */
+    private static final long BASE_BACKOFF = 1000;
+
+    /**
+     * The longest backoff, in milliseconds.
+     */
+    private static final long MAX_BACKOFF = 60_000;
+
+    /**
+     * The number of requests the wiki has asked WikiCraft to slow down for.
+     */
+    private final AtomicLong throttled = new AtomicLong();
+
+    /**
+     * The tokens in the bucket.
+     */
+    private double tokens = -1;
+
+    /**
+     * The current rate, in requests per second, or {@code -1} before the first request.
+     */
+    private double rate = -1;
+
+    /**
+     * When the bucket was last refilled, from {@link System#nanoTime()}.
+     */
+    private long lastRefill = System.nanoTime();
+
+    /**
+     * Constructs a new {@code WCRateLimiter} object.
+     */
+    private WCRateLimiter() {}
+
+    /**
+     * Gets the singleton instance of the rate limiter.
+     *
+     * @return The singleton instance of the rate limiter.
+     *
+     * @since 0.2.0
+     */
+    public static @NotNull WCRateLimiter getInstance() {
+        return instance;
+
+    }
+
+    /**
+     * Sends a request once a token is free, retrying with backoff if the wiki asks WikiCraft to slow down.
+     *
+     * @param chain The chain of the request.
+     *
+     * @return The response to the request.
+     *
+     * @throws IOException If the wiki could not be reached, or the thread was interrupted while waiting.
+     */
+    @Override
+    public @NotNull Response intercept( @NotNull Chain chain ) throws IOException {
+        Request request = withMaxLag( chain.request() );
+        int maxRetries = WCConfigUtils.getRateLimitSetting( "max-retries", 3 );
+
+        for ( int attempt = 0; ; attempt++ ) {
+            acquire();
+
+            Response response = chain.proceed( request );
+
+            if ( !isThrottled( response ) ) {
+                recover();
+                return response;
+
+            }
+
+            throttled.incrementAndGet();
+            slowDown();
+
+            if ( attempt >= maxRetries ) {
+                WCMessages.debug( "warning", "Wiki is still asking WikiCraft to slow down after " + attempt + " retries; giving up." );
+                return response;
+
+            }
+
+            long delay = getBackoff( response, attempt );
+            response.close();
+
+            WCMessages.debug( "warning", "Wiki asked WikiCraft to slow down; retrying in " + delay + " ms." );
+            sleep( delay );
+
+        }
+
+    }
+
+    /**
+     * Gets the number of requests the wiki has asked WikiCraft to slow down for.
+     *
+     * @return The number of requests throttled by the wiki.
+     *
+     * @since 0.2.0
+     */
+    public long getThrottled() {
+        return throttled.get();
+
+    }
+
+    /**
+     * Gets the current rate.
+     *
+     * @return The current rate, in requests per second.
+     *
+     * @since 0.2.0
+     */
+    public synchronized double getRate() {
+        return rate < 0 ? getMaxRate() : rate;
+
+    }
+
+    /**
+     * Adds {@code maxlag} to a read that does not already have it.
+     *
+     * @param request The request.
+     *
+     * @return The request, with {@code maxlag} if it is a read.
+     */
+    private static @NotNull Request withMaxLag( @NotNull Request request ) {
+        HttpUrl url = request.url();
+
+        if ( !request.method().equals( "GET" ) || url.queryParameter( "maxlag" ) != null ) {
+            return request;
+
+        }
+
+        return request.newBuilder()
+            .url( url.newBuilder().addQueryParameter( "maxlag", String.valueOf( WCWikiUtils.getMaxLag() ) ).build() )
+            .build();
+
+    }
+
+    /**
+     * Checks whether the wiki asked WikiCraft to slow down.
+     *
+     * @param response The response.
+     *
+     * @return {@code true} if the wiki is lagging or receiving too many requests, {@code false} otherwise.
+     */
+    private static boolean isThrottled( @NotNull Response response ) {
+        return response.code() == 429 || "maxlag".equals( response.header( "MediaWiki-API-Error" ) );
+
+    }
+
+    /**
+     * Gets how long to wait before retrying.
+     *
+     * @param response The response that asked WikiCraft to slow down.
+     * @param attempt  The number of retries so far.
+     *
+     * @return The delay, in milliseconds: the wiki's {@code Retry-After} if it gave one, or an exponential backoff,
+     * plus up to half again of jitter.
+     */
+    private static long getBackoff( @NotNull Response response, int attempt ) {
+        long delay = Math.min( MAX_BACKOFF, BASE_BACKOFF << Math.min( attempt, 16 ) );
+        String retryAfter = response.header( "Retry-After" );
+
+        if ( retryAfter != null ) {
+            try {
+                delay = Math.min( MAX_BACKOFF, TimeUnit.SECONDS.toMillis( Long.parseLong( retryAfter.trim() ) ) );
+
+            } catch ( NumberFormatException e ) {
+                // Retry-After may also be an HTTP date; the exponential backoff is close enough
+
+            }
+
+        }
+
+        return delay + ThreadLocalRandom.current().nextLong( delay / 2 + 1 );
+
+    }
+
+    /**
+     * Waits for a token, then takes it.
+     *
+     * @throws InterruptedIOException If the thread was interrupted while waiting.
+     */
+    private void acquire() throws InterruptedIOException {
+        while ( true ) {
+            long wait;
+
+            synchronized ( this ) {
+                refill();
+
+                if ( tokens >= 1 ) {
+                    tokens--;
+                    return;
+
+                }
+
+                wait = ( long ) Math.ceil( ( 1 - tokens ) / rate * 1000 );
+
+            }
+
+            sleep( wait );
+
+        }
+
+    }
+
+    /**
+     * Adds the tokens earned since the last refill.
+     * <p>Must be called while holding this object's monitor.
+     */
+    private void refill() {
+        double burst = Math.max( 1, WCConfigUtils.getRateLimitSetting( "burst", 10 ) );
+        long now = System.nanoTime();
+
+        if ( rate < 0 ) {
+            rate = getMaxRate();
+            tokens = burst;
+
+        }
+
+        tokens = Math.min( burst, tokens + ( now - lastRefill ) / 1e9 * rate );
+        lastRefill = now;
+
+    }
+
+    /**
+     * Halves the rate after the wiki asked WikiCraft to slow down.
+     */
+    private synchronized void slowDown() {
+        refill();
+        rate = Math.max( MIN_RATE, rate / 2 );
+
+    }
+
+    /**
+     * Raises the rate a little towards the limit after a request succeeds.
+     */
+    private synchronized void recover() {
+        double max = getMaxRate();
+
+        if ( rate >= 0 && rate < max ) {
+            refill();
+            rate = Math.min( max, rate + max / 20 );
+
+        }
+
+    }
+
+    /**
+     * Gets the configured rate limit.
+     *
+     * @return The most requests to send per second.
+     */
+    private static double getMaxRate() {
+        return Math.max( MIN_RATE, WCConfigUtils.getRateLimitSetting( "requests-per-second", 5 ) );
+
+    }
+
+    /**
+     * Sleeps, passing on an interrupt as an {@link InterruptedIOException}.
+     *
+     * @param millis How long to sleep, in milliseconds.
+     *
+     * @throws InterruptedIOException If the thread was interrupted while sleeping.
+     */
+    private static void sleep( long millis ) throws InterruptedIOException {
+        try {
+            Thread.sleep( Math.max( 1, millis ) );
+
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException( "Interrupted while waiting to send a request to the wiki" );
+
+        }
+
+    }
+
+}
@@ -0,0 +1,237 @@
+package io.github.iherongh.wikicraft.wiki;
+
+import io.github.iherongh.wikicraft.config.WCConfigUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A cache of rendered pages, each tagged with the revision it was rendered from.
+ * <p>A rendered page never goes stale on a timer: it is valid for as long as its revision is the latest, which is
+ * far cheaper to check with {@code prop=info} than to render the page again. The cache is bounded by the total size
+ * of what it holds, set in kilobytes by {@code caches.render.max-kilobytes}, rather than by a number of entries, as
+ * one long article can outweigh hundreds of short ones. Once full, the entry used least recently is dropped first.
+ *
+ * @author iHeronGH
+ *
+ * @version 0.2.0
+ *
+ * @since 0.2.0
+ *
+ * @see WCRenderCache#get(String, long)
+ * @see WCBookRenderer
+ */
+public final class WCRenderCache {
+
+    /**
+     * The rough size of an entry besides its key and text, in bytes.
+     */
+    private static final long ENTRY_OVERHEAD = 64;
+
+    /**
+     * The maximum size used if config.yml does not set one, in kilobytes.
+     */
+    private final int defaultMaxKilobytes;
+
+    /**
+     * The cached entries, from least to most recently used.
+     */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>( 16, 0.75f, true );
+
+    /**
+     * The number of lookups that found the requested revision.
+     */
+    private final AtomicLong hits = new AtomicLong();
+
+    /**
+     * The number of lookups that found no entry, or an older revision.
+     */
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * The total size of the cached entries, in bytes.
+     */
+    private long bytes;
+
+    /**
+     * Constructs a new {@code WCRenderCache} object.
+     *
+     * @param defaultMaxKilobytes The maximum size used if config.yml does not set one, in kilobytes.
+     */
+    public WCRenderCache( int defaultMaxKilobytes ) {
+        this.defaultMaxKilobytes = defaultMaxKilobytes;
+
+    }
+
+    /**
+     * Gets a rendered page, if it was rendered from the given revision.
+     *
+     * @param key        The key of the page, e.g. its title.
+     * @param revisionId The ID of the latest revision of the page.
+     *
+     * @return The rendered page, or {@code null} if it is not cached or was rendered from another revision.
+     *
+     * @since 0.2.0
+     */
+    public synchronized @Nullable String get( @NotNull String key, long revisionId ) {
+        Entry entry = entries.get( key );
+
+        if ( entry == null || entry.revisionId != revisionId ) {
+            misses.incrementAndGet();
+            return null;
+
+        }
+
+        hits.incrementAndGet();
+        return entry.text;
+
+    }
+
+    /**
+     * Caches a rendered page, replacing any other revision of it, then drops the least recently used entries until
+     * the cache fits its size.
+     *
+     * @param key        The key of the page, e.g. its title.
+     * @param revisionId The ID of the revision the page was rendered from.
+     * @param text       The rendered page.
+     *
+     * @since 0.2.0
+     */
+    public synchronized void put( @NotNull String key, long revisionId, @NotNull String text ) {
+        Entry entry = new Entry( revisionId, text, sizeOf( key, text ) );
+        Entry old = entries.put( key, entry );
+
+        bytes += entry.bytes - ( old != null ? old.bytes : 0 );
+
+        long maxBytes = WCConfigUtils.getCacheMaxKilobytes( "render", defaultMaxKilobytes ) * 1024L;
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+
+        // Always keep the entry just added, even if it alone is larger than the cache
+        while ( bytes > maxBytes && entries.size() > 1 && eldest.hasNext() ) {
+            Map.Entry<String, Entry> next = eldest.next();
+
+            if ( next.getValue() == entry ) {
+                continue;
+
+            }
+
+            bytes -= next.getValue().bytes;
+            eldest.remove();
+
+        }
+
+    }
+
+    /**
+     * Removes every entry.
+     *
+     * @since 0.2.0
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+        bytes = 0;
+
+    }
+
+    /**
+     * Gets the number of entries currently cached.
+     *
+     * @return The number of entries currently cached.
+     *
+     * @since 0.2.0
+     */
+    public synchronized int size() {
+        return entries.size();
+
+    }
+
+    /**
+     * Gets the total size of the cached entries.
+     *
+     * @return The total size of the cached entries, in bytes.
+     *
+     * @since 0.2.0
+     */
+    public synchronized long getBytes() {
+        return bytes;
+
+    }
+
+    /**
+     * Gets the number of lookups that found the requested revision.
+     *
+     * @return The number of lookups that found the requested revision.
+     *
+     * @since 0.2.0
+     */
+    public long getHits() {
+        return hits.get();
+
+    }
+
+    /**
+     * Gets the number of lookups that found no entry, or an older revision.
+     *
+     * @return The number of lookups that found no entry, or an older revision.
+     *
+     * @since 0.2.0
+     */
+    public long getMisses() {
+        return misses.get();
+
+    }
+
+    /**
+     * Estimates the memory an entry takes up.
+     *
+     * @param key  The key of the entry.
+     * @param text The rendered page.
+     *
+     * @return The rough size of the entry, in bytes.
+     */
+    private static long sizeOf( @NotNull String key, @NotNull String text ) {
+        return ENTRY_OVERHEAD + 2L * ( key.length() + text.length() );
+
+    }
+
+    /**
+     * A rendered page and the revision it was rendered from.
+     */
+    private static final class Entry {
+
+        /**
+         * The ID of the revision the page was rendered from.
+         */
+        private final long revisionId;
+
+        /**
+         * The rendered page.
+         */
+        private final String text;
+
+        /**
+         * The rough size of the entry, in bytes.
+         */
+        private final long bytes;
+
+        /**
+         * Constructs a new {@code Entry} object.
+         *
+         * @param revisionId The ID of the revision the page was rendered from.
+         * @param text       The rendered page.
+         * @param bytes      The rough size of the entry, in bytes.
+         */
+        private Entry( long revisionId, @NotNull String text, long bytes ) {
+            this.revisionId = revisionId;
+            this.text = text;
+            this.bytes = bytes;
+
+        }
+
+    }
+
+}
@@ -0,0 +1,96 @@
+package io.github.iherongh.wikicraft.wiki;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The key of a cached page of search results.
+ * <p>Keys are compared by offset and normalized query, so queries differing only in case or spacing share a cache
+ * entry. The query is still sent to the wiki as the player typed it, with only its spacing collapsed: the wiki only
+ * treats {@code AND}, {@code OR} and {@code NOT} as operators in upper case, and {@code insource:} patterns are case
+ * sensitive.
+ *
+ * @author iHeronGH
+ *
+ * @version 0.2.0
+ *
+ * @since 0.2.0
+ *
+ * @see WCWikiUtils#search(String, int)
+ * @see WCWikiUtils#normalizeQuery(String)
+ */
+public final class WCSearchKey {
+
+    /**
+     * The offset of the first result.
+     */
+    private final int offset;
+
+    /**
+     * The query as typed, with surrounding spaces removed and inner runs of spaces collapsed.
+     */
+    private final String query;
+
+    /**
+     * The normalized query, compared between keys.
+     */
+    private final String normalized;
+
+    /**
+     * Constructs a new {@code WCSearchKey} object.
+     *
+     * @param query  The query as typed.
+     * @param offset The offset of the first result. Negative offsets are treated as {@code 0}.
+     */
+    public WCSearchKey( @Nullable String query, int offset ) {
+        this.offset = Math.max( 0, offset );
+        this.query = query == null ? "" : query.strip().replaceAll( "\\s+", " " );
+        this.normalized = WCWikiUtils.normalizeQuery( this.query );
+
+    }
+
+    /**
+     * Gets the offset of the first result.
+     *
+     * @return The offset of the first result.
+     *
+     * @since 0.2.0
+     */
+    public int getOffset() {
+        return offset;
+
+    }
+
+    /**
+     * Gets the query to send to the wiki.
+     *
+     * @return The query as typed, with its spacing collapsed.
+     *
+     * @since 0.2.0
+     */
+    public @NotNull String getQuery() {
+        return query;
+
+    }
+
+    @Override
+    @Contract ( value = "null -> false", pure = true )
+    public boolean equals( @Nullable Object other ) {
+        return other instanceof WCSearchKey key && offset == key.offset && normalized.equals( key.normalized );
+
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * offset + normalized.hashCode();
+
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return offset + ":" + normalized;
+
+    }
+
+}
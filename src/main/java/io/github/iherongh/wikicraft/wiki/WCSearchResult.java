@@ -0,0 +1,198 @@
+package io.github.iherongh.wikicraft.wiki;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of results from a {@code list=search} query.
+ * <p>Holds the titles on the page along with the total number of hits reported by the wiki, so a single request is
+ * enough to both display results and page through them.
+ *
+ * @author iHeronGH
+ *
+ * @version 0.2.0
+ *
+ * @since 0.2.0
+ *
+ * @see WCSearchResult#parse(String, int)
+ * @see WCWikiUtils#search(String, int)
+ */
+public final class WCSearchResult {
+
+    /**
+     * A result containing no titles.
+     */
+    public static final WCSearchResult EMPTY = new WCSearchResult( List.of(), 0, 0, -1 );
+
+    /**
+     * The titles on this page, in the order the wiki ranked them.
+     */
+    private final List<String> titles;
+
+    /**
+     * The total number of hits across every page.
+     */
+    private final int totalHits;
+
+    /**
+     * The offset of the first title on this page.
+     */
+    private final int offset;
+
+    /**
+     * The offset of the next page, or {@code -1} if this is the last page.
+     */
+    private final int nextOffset;
+
+    /**
+     * Constructs a new {@code WCSearchResult} object.
+     *
+     * @param titles     The titles on this page.
+     * @param totalHits  The total number of hits across every page.
+     * @param offset     The offset of the first title on this page.
+     * @param nextOffset The offset of the next page, or {@code -1} if this is the last page.
+     */
+    public WCSearchResult( @NotNull List<String> titles, int totalHits, int offset, int nextOffset ) {
+        this.titles = Collections.unmodifiableList( titles );
+        this.totalHits = totalHits;
+        this.offset = offset;
+        this.nextOffset = nextOffset;
+
+    }
+
+    /**
+     * Parses the response to a {@code list=search} query made with {@code srinfo=totalhits}.
+     *
+     * @param response The body of the response.
+     * @param offset   The {@code sroffset} the query was made with.
+     *
+     * @return The page of results in the response.
+     *
+     * @throws IllegalStateException If the wiki returned an error.
+     *
+     * @since 0.2.0
+     */
+    @Contract ( "_, _ -> new" )
+    public static @NotNull WCSearchResult parse( @NotNull String response, int offset ) {
+        JsonObject json = JsonParser.parseString( response ).getAsJsonObject();
+
+        if ( json.has( "error" ) ) {
+            JsonObject error = json.getAsJsonObject( "error" );
+            String code = error.has( "code" ) ? error.get( "code" ).getAsString() : "unknown";
+            String info = error.has( "info" ) ? error.get( "info" ).getAsString() : "";
+            throw new IllegalStateException( "Wiki API returned an error (" + code + "): " + info );
+
+        }
+
+        List<String> titles = new ArrayList<>();
+        int totalHits = 0;
+
+        if ( json.has( "query" ) ) {
+            JsonObject query = json.getAsJsonObject( "query" );
+
+            if ( query.has( "search" ) ) {
+                for ( JsonElement hit : query.getAsJsonArray( "search" ) ) {
+                    titles.add( hit.getAsJsonObject().get( "title" ).getAsString() );
+
+                }
+
+            }
+
+            if ( query.has( "searchinfo" ) && query.getAsJsonObject( "searchinfo" ).has( "totalhits" ) ) {
+                totalHits = query.getAsJsonObject( "searchinfo" ).get( "totalhits" ).getAsInt();
+
+            }
+
+        }
+
+        int nextOffset = -1;
+
+        if ( json.has( "continue" ) && json.getAsJsonObject( "continue" ).has( "sroffset" ) ) {
+            nextOffset = json.getAsJsonObject( "continue" ).get( "sroffset" ).getAsInt();
+
+        }
+
+        return new WCSearchResult( titles, Math.max( totalHits, offset + titles.size() ), offset, nextOffset );
+
+    }
+
+    /**
+     * Gets the titles on this page.
+     *
+     * @return A read-only list of the titles on this page, in the order the wiki ranked them.
+     *
+     * @since 0.2.0
+     */
+    public @NotNull List<String> getTitles() {
+        return titles;
+
+    }
+
+    /**
+     * Gets the total number of hits across every page.
+     *
+     * @return The total number of hits.
+     *
+     * @since 0.2.0
+     */
+    public int getTotalHits() {
+        return totalHits;
+
+    }
+
+    /**
+     * Gets the offset of the first title on this page.
+     *
+     * @return The offset of the first title on this page.
+     *
+     * @since 0.2.0
+     */
+    public int getOffset() {
+        return offset;
+
+    }
+
+    /**
+     * Gets the offset of the next page.
+     *
+     * @return The offset of the next page, or {@code -1} if this is the last page.
+     *
+     * @since 0.2.0
+     */
+    public int getNextOffset() {
+        return nextOffset;
+
+    }
+
+    /**
+     * Checks whether there is a page after this one.
+     *
+     * @return {@code true} if there is a next page, {@code false} otherwise.
+     *
+     * @since 0.2.0
+     */
+    public boolean hasNext() {
+        return nextOffset >= 0;
+
+    }
+
+    /**
+     * Checks whether there is a page before this one.
+     *
+     * @return {@code true} if there is a previous page, {@code false} otherwise.
+     *
+     * @since 0.2.0
+     */
+    public boolean hasPrevious() {
+        return offset > 0;
+
+    }
+
+}
@@ -0,0 +1,289 @@
+package io.github.iherongh.wikicraft.wiki;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.github.iherongh.wikicraft.config.WCConfigUtils;
+import io.github.iherongh.wikicraft.messages.WCMessages;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces page existence checks made at about the same time into a single request.
+ * <p>Titles asked about within {@code title-batch-window} milliseconds of each other are looked up together with one
+ * {@code titles=A|B|C} query, of up to 50 titles, or 500 if the bot account has {@code apihighlimits}. Each caller
+ * gets its own answer from the shared response, so a burst of players adding, deleting or editing pages costs one
+ * request instead of one each.
+ * <p>Batches are sent on their own virtual thread rather than through {@link io.github.iherongh.wikicraft.async.WCWikiExecutor},
+ * as the callers waiting on a batch may be holding every one of its permits.
+ *
+ * @author iHeronGH
+ *
+ * @version 0.2.0
+ *
+ * @since 0.2.0
+ *
+ * @see WCTitleBatcher#exists(String)
+ * @see WCTitleBatcher#parse(String, Collection)
+ */
+public final class WCTitleBatcher {
+
+    /**
+     * The singleton instance of the batcher.
+     */
+    private static final WCTitleBatcher instance = new WCTitleBatcher();
+
+    /**
+     * The most titles the wiki accepts in one query.
+     */
+    private static final int MAX_TITLES = 50;
+
+    /**
+     * The most titles the wiki accepts in one query from an account with {@code apihighlimits}.
+     */
+    private static final int MAX_TITLES_HIGH_LIMITS = 500;
+
+    /**
+     * Starts a batch once its window has passed.
+     */
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor( task -> {
+        Thread thread = new Thread( task, "WikiCraft-Titles" );
+        thread.setDaemon( true );
+        return thread;
+
+    } );
+
+    /**
+     * The titles waiting to be looked up, each with the future its callers are waiting on.
+     */
+    private Map<String, CompletableFuture<Boolean>> pending = new LinkedHashMap<>();
+
+    /**
+     * The scheduled start of the pending batch, or {@code null} if nothing is pending.
+     */
+    private ScheduledFuture<?> scheduled;
+
+    /**
+     * Constructs a new {@code WCTitleBatcher} object.
+     */
+    private WCTitleBatcher() {}
+
+    /**
+     * Gets the singleton instance of the batcher.
+     *
+     * @return The singleton instance of the batcher.
+     *
+     * @since 0.2.0
+     */
+    public static @NotNull WCTitleBatcher getInstance() {
+        return instance;
+
+    }
+
+    /**
+     * Checks whether a page exists, waiting for the answer.
+     * <p>Waits on the wiki, so must not be called on the main thread.
+     *
+     * @param title The title of the page.
+     *
+     * @return {@code true} if the page exists, {@code false} otherwise.
+     *
+     * @throws IOException If the wiki could not be reached, or returned an error.
+     * @throws InterruptedException If the calling thread was interrupted while waiting.
+     *
+     * @since 0.2.0
+     */
+    public boolean existsNow( @NotNull String title ) throws IOException, InterruptedException {
+        try {
+            return exists( title ).get();
+
+        } catch ( ExecutionException e ) {
+            throw e.getCause() instanceof IOException io ? io : new IOException( e.getCause() );
+
+        }
+
+    }
+
+    /**
+     * Checks whether a page exists.
+     * <p>The title joins the pending batch, which is sent once its window has passed or it is full.
+     *
+     * @param title The title of the page.
+     *
+     * @return A future completed with {@code true} if the page exists, or {@code false} otherwise.
+     *
+     * @since 0.2.0
+     */
+    public synchronized @NotNull CompletableFuture<Boolean> exists( @NotNull String title ) {
+        CompletableFuture<Boolean> future = pending.computeIfAbsent( title, key -> new CompletableFuture<>() );
+
+        if ( pending.size() >= getBatchLimit() ) {
+            send();
+
+        } else if ( scheduled == null ) {
+            scheduled = timer.schedule( this::sendPending, WCConfigUtils.getTitleBatchWindow(), TimeUnit.MILLISECONDS );
+
+        }
+
+        return future;
+
+    }
+
+    /**
+     * Sends the pending batch, if it has not already been sent.
+     */
+    private synchronized void sendPending() {
+        if ( !pending.isEmpty() ) {
+            send();
+
+        }
+
+    }
+
+    /**
+     * Sends the pending batch on its own virtual thread and starts a new one.
+     * <p>Must be called while holding this object's monitor.
+     */
+    private void send() {
+        if ( scheduled != null ) {
+            scheduled.cancel( false );
+            scheduled = null;
+
+        }
+
+        Map<String, CompletableFuture<Boolean>> batch = pending;
+        pending = new LinkedHashMap<>();
+
+        Thread.ofVirtual().name( "WikiCraft-Titles-Batch" ).start( () -> lookUp( batch ) );
+
+    }
+
+    /**
+     * Looks up a batch of titles and completes each title's future.
+     *
+     * @param batch The titles to look up, each with its future.
+     */
+    private void lookUp( @NotNull Map<String, CompletableFuture<Boolean>> batch ) {
+        try {
+            WCMessages.debug( "debug", "Checking whether " + batch.size() + " page(s) exist in one request..." );
+
+            Map<String, Boolean> found = parse( WCWikiUtils.query( List.of(
+                "prop", "info",
+                "titles", String.join( "|", batch.keySet() ),
+                "formatversion", "2",
+                "maxlag", String.valueOf( WCWikiUtils.getMaxLag() )
+            ) ), batch.keySet() );
+
+            for ( Map.Entry<String, CompletableFuture<Boolean>> entry : batch.entrySet() ) {
+                entry.getValue().complete( found.getOrDefault( entry.getKey(), false ) );
+
+            }
+
+        } catch ( Exception e ) {
+            IOException error = e instanceof IOException io ? io : new IOException( e.getMessage(), e );
+
+            for ( CompletableFuture<Boolean> future : batch.values() ) {
+                future.completeExceptionally( error );
+
+            }
+
+        }
+
+    }
+
+    /**
+     * Parses the response to a {@code prop=info} query for several titles.
+     * <p>Titles the wiki normalized, such as {@code foo_bar} to {@code Foo bar}, are mapped back to the title asked
+     * for.
+     *
+     * @param response The body of the response.
+     * @param titles   The titles that were asked for.
+     *
+     * @return Each title asked for, mapped to {@code true} if the page exists or {@code false} otherwise.
+     *
+     * @throws IllegalStateException If the wiki returned an error.
+     *
+     * @since 0.2.0
+     */
+    @Contract ( "_, _ -> new" )
+    public static @NotNull Map<String, Boolean> parse( @NotNull String response, @NotNull Collection<String> titles ) {
+        JsonObject json = JsonParser.parseString( response ).getAsJsonObject();
+
+        if ( json.has( "error" ) ) {
+            JsonObject error = json.getAsJsonObject( "error" );
+            String code = error.has( "code" ) ? error.get( "code" ).getAsString() : "unknown";
+            String info = error.has( "info" ) ? error.get( "info" ).getAsString() : "";
+            throw new IllegalStateException( "Wiki API returned an error (" + code + "): " + info );
+
+        }
+
+        JsonObject query = json.has( "query" ) ? json.getAsJsonObject( "query" ) : new JsonObject();
+        Map<String, String> normalized = new HashMap<>();
+
+        if ( query.has( "normalized" ) ) {
+            for ( JsonElement element : query.getAsJsonArray( "normalized" ) ) {
+                JsonObject entry = element.getAsJsonObject();
+                normalized.put( entry.get( "from" ).getAsString(), entry.get( "to" ).getAsString() );
+
+            }
+
+        }
+
+        Map<String, Boolean> existing = new HashMap<>();
+
+        if ( query.has( "pages" ) ) {
+            for ( JsonElement element : query.getAsJsonArray( "pages" ) ) {
+                JsonObject page = element.getAsJsonObject();
+                existing.put( page.get( "title" ).getAsString(), !page.has( "missing" ) && !page.has( "invalid" ) );
+
+            }
+
+        }
+
+        Map<String, Boolean> found = new LinkedHashMap<>();
+
+        for ( String title : titles ) {
+            found.put( title, existing.getOrDefault( normalized.getOrDefault( title, title ), false ) );
+
+        }
+
+        return found;
+
+    }
+
+    /**
+     * Gets the most titles to look up in one request.
+     *
+     * @return 500 if the bot account has {@code apihighlimits}, or 50 otherwise.
+     */
+    private static int getBatchLimit() {
+        return WCWiki.hasHighLimits() ? MAX_TITLES_HIGH_LIMITS : MAX_TITLES;
+
+    }
+
+    /**
+     * Sends any pending batch and stops the timer.
+     * <p>Called when WikiCraft is disabled.
+     *
+     * @since 0.2.0
+     */
+    public synchronized void shutdown() {
+        sendPending();
+        timer.shutdown();
+
+    }
+
+}
@@ -0,0 +1,133 @@
+package io.github.iherongh.wikicraft.wiki;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One batch of user names from a {@code list=allusers} query, along with where the next batch starts.
+ * <p>The wiki returns at most {@code aulimit} names per request; the rest are fetched by passing
+ * {@link #getContinueFrom()} back as {@code aufrom} until the wiki stops returning one.
+ *
+ * @author iHeronGH
+ *
+ * @version 0.2.0
+ *
+ * @since 0.2.0
+ *
+ * @see WCUserBatch#parse(String)
+ * @see WCWikiUtils#accountExists(String)
+ */
+public final class WCUserBatch {
+
+    /**
+     * The user names in this batch, in the order the wiki returned them.
+     */
+    private final List<String> names;
+
+    /**
+     * The {@code aufrom} value of the next batch, or {@code null} if this is the last batch.
+     */
+    private final String continueFrom;
+
+    /**
+     * Constructs a new {@code WCUserBatch} object.
+     *
+     * @param names        The user names in this batch.
+     * @param continueFrom The {@code aufrom} value of the next batch, or {@code null} if this is the last batch.
+     */
+    public WCUserBatch( @NotNull List<String> names, @Nullable String continueFrom ) {
+        this.names = Collections.unmodifiableList( names );
+        this.continueFrom = continueFrom;
+
+    }
+
+    /**
+     * Parses the response to a {@code list=allusers} query.
+     * <p>Both {@code formatversion=1} and {@code formatversion=2} responses are accepted.
+     *
+     * @param response The body of the response.
+     *
+     * @return The batch of user names in the response.
+     *
+     * @throws IllegalStateException If the wiki returned an error, such as {@code maxlag}.
+     *
+     * @since 0.2.0
+     */
+    @Contract ( "_ -> new" )
+    public static @NotNull WCUserBatch parse( @NotNull String response ) {
+        JsonObject json = JsonParser.parseString( response ).getAsJsonObject();
+
+        if ( json.has( "error" ) ) {
+            JsonObject error = json.getAsJsonObject( "error" );
+            String code = error.has( "code" ) ? error.get( "code" ).getAsString() : "unknown";
+            String info = error.has( "info" ) ? error.get( "info" ).getAsString() : "";
+            throw new IllegalStateException( "Wiki API returned an error (" + code + "): " + info );
+
+        }
+
+        List<String> names = new ArrayList<>();
+
+        if ( json.has( "query" ) && json.getAsJsonObject( "query" ).has( "allusers" ) ) {
+            for ( JsonElement user : json.getAsJsonObject( "query" ).getAsJsonArray( "allusers" ) ) {
+                names.add( user.getAsJsonObject().get( "name" ).getAsString() );
+
+            }
+
+        }
+
+        String continueFrom = null;
+
+        if ( json.has( "continue" ) && json.getAsJsonObject( "continue" ).has( "aufrom" ) ) {
+            continueFrom = json.getAsJsonObject( "continue" ).get( "aufrom" ).getAsString();
+
+        }
+
+        return new WCUserBatch( names, continueFrom );
+
+    }
+
+    /**
+     * Gets the user names in this batch.
+     *
+     * @return A read-only list of the user names in this batch.
+     *
+     * @since 0.2.0
+     */
+    public @NotNull List<String> getNames() {
+        return names;
+
+    }
+
+    /**
+     * Gets the {@code aufrom} value of the next batch.
+     *
+     * @return The {@code aufrom} value of the next batch, or {@code null} if this is the last batch.
+     *
+     * @since 0.2.0
+     */
+    public @Nullable String getContinueFrom() {
+        return continueFrom;
+
+    }
+
+    /**
+     * Checks whether there is another batch after this one.
+     *
+     * @return {@code true} if there is another batch, {@code false} otherwise.
+     *
+     * @since 0.2.0
+     */
+    public boolean hasMore() {
+        return continueFrom != null;
+
+    }
+
+}
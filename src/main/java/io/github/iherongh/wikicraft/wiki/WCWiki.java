@@ -11,7 +11,7 @@ import java.util.ArrayList;
  *
  * @author iHeronGH
  *
- * @version 0.1.0
+ * @version 0.2.0
  *
  * @since 0.1.0
  */
@@ -22,7 +22,15 @@ public class WCWiki {
      */
     public WCWiki() {}
 
-    private static Wiki wiki;
+    /**
+     * The wiki, replaced as a whole when it is rebuilt so other threads only ever see a fully built wiki.
+     */
+    private static volatile Wiki wiki;
+
+    /**
+     * Whether the bot account has {@code apihighlimits}, and so may ask for more titles in one query.
+     */
+    private static volatile boolean highLimits;
 
     /**
      * Retrieves the {@link Wiki} instance.
@@ -41,6 +49,19 @@ public class WCWiki {
 
     }
 
+    /**
+     * Checks whether the bot account has the {@code apihighlimits} right.
+     *
+     * @return {@code true} if the bot account has {@code apihighlimits}, {@code false} otherwise or if no wiki has
+     * been built.
+     *
+     * @since 0.2.0
+     */
+    public static boolean hasHighLimits() {
+        return highLimits;
+
+    }
+
     /**
      * Builds the {@link Wiki} based on the link as set in config.yml.
      * <p>Fails if:
@@ -79,15 +100,22 @@ public class WCWiki {
 
             // Attempt to build wiki with the given information
             WCMessages.debug( "info", "Building wiki at " + wikiUrl + " as user " + wikiUsername + "..." );
-            wiki = new Wiki.Builder()
+            Wiki built = new Wiki.Builder()
                         // Set the wiki URL, login credentials, and user agent
                         .withDomain( wikiUrl )
                         .withLogin( wikiUsername, wikiPassword )
                         .withUserAgent( header )
                         .build();
 
-            ArrayList<String> rights = wiki.listUserRights( wikiUsername );
+            // Reuse connections and set timeouts for every request the wiki makes
+            WCHttpClient.apply( built );
+
+            ArrayList<String> rights = built.listUserRights( wikiUsername );
             WCMessages.debug( "info", "WikiCraft has the following rights: " + rights );
+
+            // Publish the wiki once it is fully built
+            highLimits = rights != null && rights.contains( "apihighlimits" );
+            wiki = built;
             
             // Get the wiki
             getWiki();
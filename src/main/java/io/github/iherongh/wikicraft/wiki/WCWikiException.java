@@ -0,0 +1,90 @@
+package io.github.iherongh.wikicraft.wiki;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * An error returned by the wiki API in answer to a request.
+ * <p>Most errors reject the request itself, e.g. because the page is protected or an abuse filter disallowed the edit,
+ * and sending it again will get the same answer. A few only mean the wiki could not take the request right now, and
+ * are worth retrying: see {@link #isRetryable()}.
+ *
+ * @author iHeronGH
+ *
+ * @version 0.2.0
+ *
+ * @since 0.2.0
+ *
+ * @see WCWikiUtils#edit(String, String, String)
+ * @see WCWikiUtils#delete(String, String)
+ */
+public final class WCWikiException extends IOException {
+
+    /**
+     * The error codes that only mean the wiki could not take the request right now.
+     */
+    private static final Set<String> RETRYABLE_CODES = Set.of( "maxlag", "readonly", "ratelimited", "badtoken", "assertuserfailed", "assertbotfailed" );
+
+    /**
+     * The error code, e.g. {@code protectedpage}.
+     */
+    private final String code;
+
+    /**
+     * The error message the wiki gave.
+     */
+    private final String info;
+
+    /**
+     * Constructs a new {@code WCWikiException} object.
+     *
+     * @param code The error code, e.g. {@code protectedpage}.
+     * @param info The error message the wiki gave.
+     */
+    public WCWikiException( @NotNull String code, @NotNull String info ) {
+        super( "Wiki API returned an error (" + code + "): " + info );
+        this.code = code;
+        this.info = info;
+
+    }
+
+    /**
+     * Gets the error code.
+     *
+     * @return The error code, e.g. {@code protectedpage}.
+     *
+     * @since 0.2.0
+     */
+    public @NotNull String getCode() {
+        return code;
+
+    }
+
+    /**
+     * Gets the error message the wiki gave.
+     *
+     * @return The error message, or the error code if the wiki gave none.
+     *
+     * @since 0.2.0
+     */
+    public @NotNull String getInfo() {
+        return info.isEmpty() ? code : info;
+
+    }
+
+    /**
+     * Checks whether the request may succeed if sent again later.
+     *
+     * @return {@code true} if the wiki was lagging, read-only, rate limiting or had lost the session, or failed
+     * internally; {@code false} if it rejected the request itself.
+     *
+     * @since 0.2.0
+     */
+    public boolean isRetryable() {
+        return RETRYABLE_CODES.contains( code ) || code.startsWith( "internal_api_error" );
+
+    }
+
+}
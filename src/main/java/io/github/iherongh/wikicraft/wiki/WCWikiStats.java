@@ -0,0 +1,320 @@
+package io.github.iherongh.wikicraft.wiki;
+
+import okhttp3.FormBody;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures every request WikiCraft sends to the wiki, grouped by API endpoint.
+ * <p>Installed as a network interceptor on the wiki's HTTP client, so it sees every request jwiki and WikiCraft make,
+ * after the rate limit and once per retry. The latency it records is the time from sending a request to receiving the
+ * headers of its response, so it reflects the wiki and the network rather than time spent waiting for a token. For
+ * each endpoint it counts requests, errors and the bytes received over the wire.
+ * <p>An endpoint is the API action, followed by the module for {@code query} requests, e.g. {@code parse} or
+ * {@code query:allpages}.
+ *
+ * @author iHeronGH
+ *
+ * @version 0.2.0
+ *
+ * @since 0.2.0
+ *
+ * @see WCWikiStats#getInstance()
+ * @see WCWikiStats#getEndpoints()
+ * @see WCHttpClient
+ */
+public final class WCWikiStats implements Interceptor {
+
+    /**
+     * The singleton instance of the statistics, shared by every wiki.
+     */
+    private static final WCWikiStats instance = new WCWikiStats();
+
+    /**
+     * The statistics of each endpoint, keyed by endpoint.
+     */
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    /**
+     * When the statistics were last reset, from {@link System#currentTimeMillis()}.
+     */
+    private volatile long since = System.currentTimeMillis();
+
+    /**
+     * Constructs a new {@code WCWikiStats} object.
+     */
+    private WCWikiStats() {}
+
+    /**
+     * Gets the singleton instance of the statistics.
+     *
+     * @return The singleton instance of the statistics.
+     *
+     * @since 0.2.0
+     */
+    public static @NotNull WCWikiStats getInstance() {
+        return instance;
+
+    }
+
+    /**
+     * Sends a request, recording its latency, whether it failed, and the size of its response.
+     *
+     * @param chain The chain of the request.
+     *
+     * @return The response, whose body counts the bytes read from it.
+     *
+     * @throws IOException If the wiki could not be reached.
+     */
+    @Override
+    public @NotNull Response intercept( @NotNull Chain chain ) throws IOException {
+        Request request = chain.request();
+        Endpoint endpoint = endpoints.computeIfAbsent( getEndpoint( request ), key -> new Endpoint() );
+        long start = System.nanoTime();
+        Response response;
+
+        try {
+            response = chain.proceed( request );
+
+        } catch ( IOException e ) {
+            endpoint.record( start, true );
+            throw e;
+
+        }
+
+        endpoint.record( start, response.code() >= 400 || response.header( "MediaWiki-API-Error" ) != null );
+
+        ResponseBody body = response.body();
+
+        if ( body == null ) {
+            return response;
+
+        }
+
+        BufferedSource source = Okio.buffer( new ForwardingSource( body.source() ) {
+            @Override
+            public long read( @NotNull Buffer sink, long byteCount ) throws IOException {
+                long read = super.read( sink, byteCount );
+
+                if ( read > 0 ) {
+                    endpoint.bytes.addAndGet( read );
+
+                }
+
+                return read;
+
+            }
+
+        } );
+
+        return response.newBuilder()
+            .body( ResponseBody.create( source, body.contentType(), body.contentLength() ) )
+            .build();
+
+    }
+
+    /**
+     * Gets the statistics of every endpoint requested since the last reset.
+     *
+     * @return A read-only snapshot of the statistics of each endpoint, sorted by endpoint.
+     *
+     * @since 0.2.0
+     */
+    public @NotNull Map<String, Endpoint> getEndpoints() {
+        return Collections.unmodifiableMap( new TreeMap<>( endpoints ) );
+
+    }
+
+    /**
+     * Gets when the statistics were last reset.
+     *
+     * @return When the statistics were last reset, from {@link System#currentTimeMillis()}.
+     *
+     * @since 0.2.0
+     */
+    public long getSince() {
+        return since;
+
+    }
+
+    /**
+     * Forgets every statistic recorded so far.
+     *
+     * @since 0.2.0
+     */
+    public void reset() {
+        endpoints.clear();
+        since = System.currentTimeMillis();
+
+    }
+
+    /**
+     * Gets the endpoint of a request.
+     *
+     * @param request The request.
+     *
+     * @return The API action, followed by the module for {@code query} requests, or {@code unknown}.
+     */
+    private static @NotNull String getEndpoint( @NotNull Request request ) {
+        String action = getParameter( request, "action" );
+
+        if ( action == null ) {
+            return "unknown";
+
+        }
+
+        if ( !action.equals( "query" ) ) {
+            return action;
+
+        }
+
+        for ( String module : new String[] { "list", "prop", "meta" } ) {
+            String value = getParameter( request, module );
+
+            if ( value != null ) {
+                return action + ":" + value;
+
+            }
+
+        }
+
+        return action;
+
+    }
+
+    /**
+     * Gets a parameter of a request, from its URL or, for a {@code POST}, its form.
+     *
+     * @param request The request.
+     * @param name    The name of the parameter.
+     *
+     * @return The value of the parameter, or {@code null} if it was not sent.
+     */
+    private static @Nullable String getParameter( @NotNull Request request, @NotNull String name ) {
+        String value = request.url().queryParameter( name );
+
+        if ( value == null && request.body() instanceof FormBody form ) {
+            for ( int i = 0; i < form.size(); i++ ) {
+                if ( form.name( i ).equals( name ) ) {
+                    return form.value( i );
+
+                }
+
+            }
+
+        }
+
+        return value;
+
+    }
+
+    /**
+     * The statistics of an API endpoint.
+     *
+     * @since 0.2.0
+     */
+    public static final class Endpoint {
+
+        /**
+         * The latency of each request, in microseconds.
+         */
+        private final WCLatencyHistogram latency = new WCLatencyHistogram();
+
+        /**
+         * The number of requests that failed, or that the wiki answered with an error.
+         */
+        private final AtomicLong errors = new AtomicLong();
+
+        /**
+         * The number of bytes received, as sent over the wire.
+         */
+        private final AtomicLong bytes = new AtomicLong();
+
+        /**
+         * Constructs a new {@code Endpoint} object.
+         */
+        private Endpoint() {}
+
+        /**
+         * Records a request.
+         *
+         * @param start When the request was sent, from {@link System#nanoTime()}.
+         * @param error Whether the request failed, or the wiki answered with an error.
+         */
+        private void record( long start, boolean error ) {
+            latency.record( TimeUnit.NANOSECONDS.toMicros( System.nanoTime() - start ) );
+
+            if ( error ) {
+                errors.incrementAndGet();
+
+            }
+
+        }
+
+        /**
+         * Gets the latency of the requests.
+         *
+         * @return The histogram of the latency of each request, in microseconds.
+         *
+         * @since 0.2.0
+         */
+        public @NotNull WCLatencyHistogram getLatency() {
+            return latency;
+
+        }
+
+        /**
+         * Gets the number of requests.
+         *
+         * @return The number of requests.
+         *
+         * @since 0.2.0
+         */
+        public long getCount() {
+            return latency.getCount();
+
+        }
+
+        /**
+         * Gets the number of requests that failed, or that the wiki answered with an error.
+         *
+         * @return The number of errors.
+         *
+         * @since 0.2.0
+         */
+        public long getErrors() {
+            return errors.get();
+
+        }
+
+        /**
+         * Gets the number of bytes received.
+         *
+         * @return The number of bytes received, as sent over the wire.
+         *
+         * @since 0.2.0
+         */
+        public long getBytes() {
+            return bytes.get();
+
+        }
+
+    }
+
+}
@@ -1,12 +1,15 @@
 package io.github.iherongh.wikicraft.wiki;
 
 import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonParser;
 import io.github.fastily.jwiki.core.NS;
+import io.github.fastily.jwiki.core.Wiki;
 import io.github.iherongh.wikicraft.WikiCraft;
 import io.github.iherongh.wikicraft.account.WCAccountBridge;
+import io.github.iherongh.wikicraft.async.WCWikiExecutor;
+import io.github.iherongh.wikicraft.config.WCConfigUtils;
 import io.github.iherongh.wikicraft.messages.WCMessages;
 import io.github.iherongh.wikicraft.utils.WCUtils;
 import okhttp3.Response;
@@ -15,24 +18,44 @@ import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 
 /**
  * Utility methods for wiki operations.
  *
  * @see WCWikiUtils#accountExists(String)
- * @see WCWikiUtils#getAllAccounts()
+ * @see WCWikiUtils#applySettings()
+ * @see WCWikiUtils#forEachPage(String, Consumer)
  * @see WCWikiUtils#getAllPages()
  * @see WCWikiUtils#getAllPages(String)
- * @see WCWikiUtils#getCacheTime()
+ * @see WCWikiUtils#delete(String, String)
+ * @see WCWikiUtils#edit(String, String, String)
+ * @see WCWikiUtils#getCaches()
  * @see WCWikiUtils#getHeader()
- * @see WCWikiUtils#getLastRequest()
  * @see WCWikiUtils#getMaxLag()
  * @see WCWikiUtils#getPageCache()
+ * @see WCWikiUtils#getPageIndex()
  * @see WCWikiUtils#getPageInfo(String)
+ * @see WCWikiUtils#getPageSync(String)
+ * @see WCWikiUtils#getRenderCache()
  * @see WCWikiUtils#getResultCount(String)
+ * @see WCWikiUtils#getRevisionId(String)
+ * @see WCWikiUtils#getToken()
  * @see WCWikiUtils#getUserCache()
+ * @see WCWikiUtils#normalizeQuery(String)
+ * @see WCWikiUtils#pageChanged(String, boolean)
+ * @see WCWikiUtils#pageExists(String)
+ * @see WCWikiUtils#search(String, int)
  * @see WCWikiUtils#searchWiki(String)
  */
 public class WCWikiUtils {
@@ -60,20 +83,63 @@ public class WCWikiUtils {
 
     /**
      * To reduce the amount of requests made to the wiki, caches are used to store the results of previous requests.
+     * <p>Each cache expires on its own clock, configured in the {@code caches} section of config.yml.
+     * <br>The page cache is keyed by namespace, and each namespace is kept up to date by its {@link WCPageSync}.
      */
-    private static ArrayList<String> pageCache = new ArrayList<>();
-    private static ArrayList<String> userCache = new ArrayList<>();
+    private static final WCCache<String, WCPageIndex> pageCache = new WCCache<>( "pages", namespace -> getPageSync( namespace ).sync(), 10, 16, WCCacheRefreshPolicy.BACKGROUND );
 
     /**
-     * The last time a request was made.
+     * The cache of page information, keyed by title.
      */
-    private static long lastRequest = 0;
+    private static final WCCache<String, WCPageInfo> infoCache = new WCCache<>( "info", WCWikiUtils::fetchPageInfo, 30, 256, WCCacheRefreshPolicy.ON_ACCESS );
 
     /**
-     * The time in milliseconds that a request can be cached for.
-     * <br>Currently set to 10 seconds in milliseconds.
+     * The cache of page sections and tables of contents for {@link WCBookRenderer}, tagged with the revision each was
+     * read from.
      */
-    private static final long CACHE_TIME = 10000;
+    private static final WCRenderCache renderCache = new WCRenderCache( 4096 );
+
+    /**
+     * The page sync of each namespace in the page cache, keyed by namespace.
+     */
+    private static final Map<String, WCPageSync> pageSyncs = new ConcurrentHashMap<>();
+
+    /**
+     * Guards the cached CSRF token.
+     */
+    private static final Object TOKEN_LOCK = new Object();
+
+    /**
+     * The cached CSRF token, or {@code null} if none has been fetched for the current session.
+     */
+    private static String csrfToken;
+
+    /**
+     * The wiki the cached CSRF token belongs to; a rebuilt wiki logs in again and needs a new token.
+     */
+    private static Wiki tokenWiki;
+
+    /**
+     * The cache of user page titles, keyed by namespace.
+     */
+    private static final WCCache<String, List<String>> userCache = new WCCache<>( "users", WCWikiUtils::loadUserPages, 10, 1, WCCacheRefreshPolicy.BACKGROUND );
+
+    /**
+     * Every user page, with whether its user is linked, as returned by {@link #getUserCache()}.
+     * <p>Rebuilt off the main thread whenever the user cache loads or an account link changes, so reading it never
+     * touches the account storage.
+     */
+    private static volatile JsonArray users = new JsonArray();
+
+    /**
+     * Held while rebuilding {@link #users}, so an older rebuild never replaces a newer one.
+     */
+    private static final Object usersLock = new Object();
+
+    /**
+     * The cache of search results, keyed by offset and normalized query.
+     */
+    private static final WCCache<WCSearchKey, WCSearchResult> searchCache = new WCCache<>( "search", WCWikiUtils::fetchSearchResult, 60, 256, WCCacheRefreshPolicy.ON_ACCESS );
 
     /**
      * Get the maximum lag allowed for a request to be processed.
@@ -102,89 +168,213 @@ public class WCWikiUtils {
 
     /**
      * Get the cache of pages that have been requested.
+     * <p>Returns the last loaded snapshot without waiting on the wiki; if it is stale, a refresh is started in the
+     * background.
      *
      * @return The cache of pages that have been requested.
      *
      * @since 0.1.0
+     *
+     * @see WCWikiUtils#getPageIndex()
      */
-    public static ArrayList<String> getPageCache() {
-        long now = System.currentTimeMillis();
-
-        if ( pageCache.isEmpty() || now - getLastRequest() > getCacheTime() ) {
-            WCMessages.debug( "info", "Page cache is empty or cache time has expired. Updating cache..." );
-            pageCache = getAllPages();
-            lastRequest = now;
-            WCMessages.debug( "debug", "Page cache updated with " + pageCache.size() + " entries." );
-
-        } else {
-            WCMessages.debug( "debug", "Using existing page cache..." );
+    public static @NotNull List<String> getPageCache() {
+        return getPageIndex().titles();
 
-        }
+    }
 
-        return pageCache;
+    /**
+     * Get the index of pages that have been requested.
+     * <p>Returns the last loaded snapshot without waiting on the wiki; if it is stale, a refresh is started in the
+     * background.
+     *
+     * @return The index of pages that have been requested.
+     *
+     * @since 0.2.0
+     */
+    public static @NotNull WCPageIndex getPageIndex() {
+        WCPageIndex index = pageCache.getIfPresent( "main" );
+        return index == null ? WCPageIndex.EMPTY : index;
 
     }
 
     /**
      * Get the cache of users that have been requested.
+     * <p>Returns the last loaded snapshot without waiting on the wiki; if it is stale, a refresh is started in the
+     * background.
      *
      * @return The cache of users that have been requested.
      *
      * @since 0.1.0
      */
     public static @NotNull JsonArray getUserCache() {
-        long now = System.currentTimeMillis();
-        JsonArray users = new JsonArray();
+        if ( userCache.getIfPresent( "user" ) == null ) {
+            WCMessages.debug( "info", "User cache has not been loaded yet." );
+            return new JsonArray();
+
+        }
+
+        return users.deepCopy();
 
-        if ( userCache.isEmpty() || now - getLastRequest() > getCacheTime() ) {
-            WCMessages.debug( "info", "User cache is empty or cache time has expired. Updating cache..." );
-            userCache = getAllPages("user");
-            lastRequest = now;
-            WCMessages.debug("info", "User cache updated with " + userCache.size() + " entries." );
+    }
+
+    /**
+     * Rebuilds the linked flags of the user cache in the background, after an account is linked or unlinked.
+     *
+     * @since 0.2.0
+     */
+    public static void accountLinksChanged() {
+        List<String> titles = userCache.getIfPresent( "user" );
+
+        if ( titles == null ) {
+            return;
 
         }
 
-        for ( String userName : userCache ) {
-            JsonObject user = new JsonObject();
-            boolean isLinked = WCAccountBridge.getWikiUserToUUIDMap().containsKey( userName );
-            user.addProperty( "name", userName );
-            user.addProperty( "linked", isLinked );
-            users.add( user );
+        try {
+            WCWikiExecutor.getInstance().execute( () -> rebuildUsers( titles ) );
+
+        } catch ( RejectedExecutionException e ) {
+            WCMessages.debug( "warning", "Could not update the user cache after an account link change: " + e.getMessage() );
+
+        }
+
+    }
+
+    /**
+     * Loads the user page titles of a namespace, and rebuilds the user cache from them.
+     *
+     * @param namespace The namespace; see {@link #getAllPages(String)}.
+     *
+     * @return The user page titles.
+     */
+    private static @NotNull List<String> loadUserPages( @NotNull String namespace ) {
+        List<String> titles = List.copyOf( getAllPages( namespace ) );
+        rebuildUsers( titles );
+        return titles;
+
+    }
+
+    /**
+     * Rebuilds the user cache, reading every current link from the account storage once.
+     *
+     * @param titles The user page titles.
+     */
+    private static void rebuildUsers( @NotNull List<String> titles ) {
+        synchronized ( usersLock ) {
+            Set<String> linked = WCAccountBridge.getWikiUserToUUIDMap().keySet();
+            JsonArray rebuilt = new JsonArray();
+
+            for ( String title : titles ) {
+                JsonObject user = new JsonObject();
+                user.addProperty( "name", title );
+                user.addProperty( "linked", linked.contains( title.replace( "User:", "" ) ) );
+                rebuilt.add( user );
 
-            WCMessages.debug( "debug", "Added user " + userName + " (linked: " + isLinked + ") to cache." );
+            }
+
+            users = rebuilt;
 
         }
 
-        return users;
+    }
+
+    /**
+     * Get the page sync of a namespace, creating it if it does not exist.
+     *
+     * @param namespace The namespace; see {@link #getAllPages(String)}.
+     *
+     * @return The page sync of the namespace.
+     *
+     * @since 0.2.0
+     */
+    public static @NotNull WCPageSync getPageSync( @NotNull String namespace ) {
+        return pageSyncs.computeIfAbsent( namespace, WCPageSync::new );
 
     }
 
     /**
-     * Get the last time a request was made.
+     * Get every cache used by WikiCraft.
      *
-     * @return The last time a request was made.
+     * @return Every cache used by WikiCraft.
      *
-     * @since 0.1.0
+     * @since 0.2.0
+     */
+    public static @NotNull List<WCCache<?, ?>> getCaches() {
+        return List.of( pageCache, userCache, searchCache, infoCache );
+
+    }
+
+    /**
+     * Starts refreshing the page and user caches in the background, and loads them for the first time.
+     *
+     * @since 0.2.0
+     */
+    public static void startCaches() {
+        for ( WCCache<?, ?> cache : getCaches() ) {
+            cache.start();
+
+        }
+
+        pageCache.refresh( "main" );
+        userCache.refresh( "user" );
+
+    }
+
+    /**
+     * Stops refreshing caches in the background.
+     *
+     * @since 0.2.0
      */
-    static long getLastRequest() {
-        return lastRequest;
+    public static void stopCaches() {
+        for ( WCCache<?, ?> cache : getCaches() ) {
+            cache.stop();
+
+        }
 
     }
 
     /**
-     * Get the time in milliseconds that a request can be cached for.
+     * Applies the request limits and every cache's settings from config.yml, keeping what is already cached.
+     * <p>Call this on the main thread whenever config.yml is reloaded or changed.
      *
-     * @return The time in milliseconds that a request can be cached for.
+     * @since 0.2.0
+     */
+    public static void applySettings() {
+        WCWikiExecutor.getInstance().reloadLimits();
+
+        for ( WCCache<?, ?> cache : getCaches() ) {
+            cache.reloadSettings();
+            cache.start();
+
+        }
+
+    }
+
+    /**
+     * Applies every setting from config.yml, then reloads the page and user caches.
+     * <p>Every page is listed again, as the wiki may have changed.
      *
-     * @since 0.1.0
+     * @since 0.2.0
      */
-    static long getCacheTime() {
-        return CACHE_TIME;
+    public static void reloadCaches() {
+        applySettings();
+
+        for ( WCPageSync sync : pageSyncs.values() ) {
+            sync.reset();
+
+        }
+
+        searchCache.invalidateAll();
+        renderCache.invalidateAll();
+        pageCache.refresh( "main" );
+        userCache.refresh( "user" );
 
     }
 
     /**
      * Checks if the given account exists on the wiki.
+     * <p>Makes one {@code list=allusers} request for a single user, starting from the name, so the answer never
+     * depends on how many accounts the wiki has.
      *
      * @param name The name of the account to check.
      * @return {@code true} if the account exists, {@code false} otherwise.
@@ -194,22 +384,18 @@ public class WCWikiUtils {
     public static boolean accountExists( String name ) {
         try {
             WCMessages.debug( "info", "Checking if " + name + " exists..." );
-            ArrayList<String> users = getAllAccounts();
-
-            if ( users == null || users.isEmpty() ) {
-                WCMessages.debug( "warning", "No accounts found!" );
-                return false;
-
-            }
-
-            for ( String user : users ) {
-                WCMessages.debug( "info", "Checking account: " + user );
 
-                if ( user.equals( name ) ) {
-                    WCMessages.debug( "info", "Account found: " + WCUtils.userURL( user ) );
-                    return true;
+            WCUserBatch batch = WCUserBatch.parse( query( List.of(
+                "formatversion", "2",
+                "list", "allusers",
+                "aufrom", name,
+                "aulimit", "1",
+                "maxlag", String.valueOf( getMaxLag() )
+            ) ) );
 
-                }
+            if ( batch.getNames().contains( name ) ) {
+                WCMessages.debug( "info", "Account found: " + WCUtils.userURL( name ) );
+                return true;
 
             }
 
@@ -225,81 +411,161 @@ public class WCWikiUtils {
     }
 
     /**
-     * Gets a list of all accounts in the configured wiki.
+     * Search the wiki for a given query.
+     * <p>Only the first page of results is returned; see {@link #search(String, int)}.
      *
-     * @return A list of all accounts in the configured wiki.
+     * @param query The query to search for.
+     * @return The first {@code max-results} pages that match the query.
      *
      * @since 0.1.0
      */
-    private static @Nullable ArrayList<String> getAllAccounts() {
+    public static @NotNull ArrayList<String> searchWiki( String query ) {
+        return new ArrayList<>( search( query, 0 ).getTitles() );
+
+    }
+
+    /**
+     * Search the wiki for a page of results.
+     * <p>Makes a single request for {@code max-results} titles, along with the total number of hits. Results are
+     * cached by offset and normalized query, though the query is sent as typed; see the {@code caches.search} section of config.yml. Cached results are
+     * dropped whenever a page sync finds pages created or deleted, so they never list pages since removed.
+     *
+     * @param query  The query to search for.
+     * @param offset The offset of the first result to return.
+     *
+     * @return The page of results, or {@link WCSearchResult#EMPTY} if the search failed.
+     *
+     * @since 0.2.0
+     */
+    public static @NotNull WCSearchResult search( String query, int offset ) {
         try {
-            WCMessages.debug( "info", "Getting all MediaWiki accounts..." );
+            return searchCache.get( new WCSearchKey( query, offset ) );
 
-            ResponseBody response = WCWiki.getWiki().basicGET(
-                "query",
-                "formatversion", "2",
-                "list", "allusers",
-                "aulimit", "max",
-                "maxlag", String.valueOf( getMaxLag() )
-            ).body();
+        } catch ( Exception e ) {
+            WCMessages.debug( "error", "Wiki search failed: " + e.getMessage() );
+            return WCSearchResult.EMPTY;
 
-            if ( response == null ) {
-                WCMessages.debug( "warning", "Wiki API returned no response." );
-                return null;
+        }
 
-            }
+    }
+
+    /**
+     * List a page of titles from the main namespace, in the order of the page index.
+     * <p>Shows {@code max-results} titles at a time, so a wiki of any size never floods chat. Loads the page index if
+     * it has not been loaded yet, so must not be called on the main thread.
+     *
+     * @param offset The offset of the first title to return. Negative offsets are treated as {@code 0}.
+     *
+     * @return The page of titles, or {@link WCSearchResult#EMPTY} if the pages could not be listed.
+     *
+     * @since 0.2.0
+     *
+     * @see WCPageIndex#titles()
+     */
+    public static @NotNull WCSearchResult listPages( int offset ) {
+        try {
+            List<String> titles = pageCache.get( "main" ).titles();
+            int first = Math.min( Math.max( 0, offset ), titles.size() );
+            int last = Math.min( first + WCConfigUtils.getMaxResults(), titles.size() );
 
-            ArrayList<String> list = new ArrayList<>();
-            JsonElement json = JsonParser.parseString( response.string() )
-                .getAsJsonObject()
-                .getAsJsonObject( "query" )
-                .getAsJsonArray( "allusers" );
+            return new WCSearchResult( titles.subList( first, last ), titles.size(), first, last < titles.size() ? last : -1 );
 
-            response.close();
+        } catch ( Exception e ) {
+            WCMessages.debug( "error", "Listing pages failed: " + e.getMessage() );
+            return WCSearchResult.EMPTY;
 
-            for ( JsonElement element : json.getAsJsonArray() ) {
-                list.add( element.getAsJsonObject().get( "name" ).getAsString() );
+        }
 
-            }
+    }
+
+    /**
+     * Normalizes a search query, so queries differing only in case or spacing share a cache entry.
+     * <p>Only used to compare cache keys; the wiki is sent the query as typed.
+     *
+     * @param query The query to normalize.
+     *
+     * @return The query in lower case, with surrounding spaces removed and inner runs of spaces collapsed.
+     *
+     * @since 0.2.0
+     */
+    @Contract ( pure = true )
+    public static @NotNull String normalizeQuery( @Nullable String query ) {
+        return query == null ? "" : query.strip().replaceAll( "\\s+", " " ).toLowerCase( Locale.ROOT );
+
+    }
 
-            WCMessages.debug( "info", "Found " + list.size() + " accounts." );
+    /**
+     * Drops every cached search result, after a page sync finds pages created or deleted on the wiki.
+     * <p>Filtering cached results against the page index instead would leave their hit counts and offsets wrong.
+     *
+     * @since 0.2.0
+     */
+    static void invalidateSearches() {
+        searchCache.invalidateAll();
 
-            return list;
+    }
 
-        } catch ( Exception e ) {
-            WCMessages.debug( "severe", "Failed to retrieve accounts: " + e.getMessage() );
-            return null;
+    /**
+     * Updates the caches after WikiCraft itself creates, edits or deletes a page.
+     * <p>Cached search results are dropped, as the page's content may have changed what matches, as is the page's
+     * cached information. The page index is updated straight away rather than at its next sync.
+     *
+     * @param page   The title of the page.
+     * @param exists {@code true} if the page exists after the change, {@code false} if it was deleted.
+     *
+     * @since 0.2.0
+     */
+    public static void pageChanged( @NotNull String page, boolean exists ) {
+        searchCache.invalidateAll();
+        infoCache.invalidate( page );
+
+        WCPageIndex index = pageCache.getIfPresent( "main" );
+
+        if ( index != null && index.contains( page ) != exists && WCWiki.getWiki().whichNS( page ).v == NS.MAIN.v ) {
+            pageCache.put( "main", index.withChanges( Map.of( page, exists ) ) );
 
         }
 
+        WCMessages.debug( "info", "Updated caches after a change to " + page + "." );
+
     }
 
     /**
-     * Search the wiki for a given query.
+     * Search the wiki for a page of results, bypassing the search cache.
      *
-     * @param query The query to search for.
-     * @return A list of all pages that match the query.
+     * @param key The offset and query.
+     * @return The page of results.
      *
-     * @since 0.1.0
+     * @throws UncheckedIOException If the wiki could not be reached, or returned an error.
+     *
+     * @since 0.2.0
      */
-    public static @NotNull ArrayList<String> searchWiki( String query ) {
-        try {
-            WCMessages.debug( "info", "Searching wiki for: " + query );
-            ArrayList<String> results = WCWiki.getWiki().search( query, 5000 );
+    private static @NotNull WCSearchResult fetchSearchResult( @NotNull WCSearchKey key ) {
+        int offset = key.getOffset();
+        String query = key.getQuery();
 
-            if ( results.isEmpty() ) {
-                WCMessages.debug( "info", "No results found for query: " + query );
+        WCMessages.debug( "info", "Searching wiki for: " + query + " (from result " + offset + ")" );
 
-            } else {
-                WCMessages.debug( "info", "Found " + results.size() + " results for: " + query );
+        try {
+            WCSearchResult result = WCSearchResult.parse( query( List.of(
+                "list", "search",
+                "srsearch", query,
+                "srlimit", String.valueOf( WCConfigUtils.getMaxResults() ),
+                "sroffset", String.valueOf( offset ),
+                "srinfo", "totalhits",
+                "srprop", "",
+                "formatversion", "2",
+                "maxlag", String.valueOf( getMaxLag() )
+            ) ), offset );
 
-            }
+            WCMessages.debug( "info", "Found " + result.getTotalHits() + " results for: " + query );
+            return result;
 
-            return results;
+        } catch ( IOException e ) {
+            throw new UncheckedIOException( e );
 
-        } catch ( Exception e ) {
-            WCMessages.debug( "error", "Wiki search failed: " + e.getMessage() );
-            return new ArrayList<>();
+        } catch ( IllegalStateException e ) {
+            throw new UncheckedIOException( new IOException( e.getMessage(), e ) );
 
         }
 
@@ -307,6 +573,7 @@ public class WCWikiUtils {
 
     /**
      * Get the result count for a given query.
+     * <p>The count is reported by the wiki alongside the first page of results, so no extra request is made.
      *
      * @param query The query to search for.
      * @return The result count for the given query.
@@ -315,7 +582,7 @@ public class WCWikiUtils {
      */
     public static int getResultCount( String query ) {
         WCMessages.debug( "info", "Getting result count for: " + query );
-        int count = searchWiki( query ).size();
+        int count = search( query, 0 ).getTotalHits();
         WCMessages.debug( "info", "Found " + count + " results for query " + query );
         return count;
 
@@ -335,6 +602,8 @@ public class WCWikiUtils {
 
     /**
      * Get all pages in a specified namespace
+     * <p>Follows {@code apcontinue}, so every page is returned however large the wiki; use
+     * {@link #forEachPage(String, Consumer)} to avoid holding every title at once.
      *
      * @param namespace The namespace to get pages from.
      *                  <p>Expected values are:
@@ -348,117 +617,519 @@ public class WCWikiUtils {
      *                  </ul>
      * @return A list of all pages in the specified namespace.
      *
+     * @throws UncheckedIOException If the wiki could not be reached, or returned an error.
+     *
      * @since 0.1.0
      */
     public static @NotNull ArrayList<String> getAllPages( @NotNull String namespace ) {
+        ArrayList<String> pages = new ArrayList<>();
+
+        try {
+            forEachPage( namespace, pages::addAll );
+
+        } catch ( IOException e ) {
+            throw new UncheckedIOException( e );
+
+        }
+
+        return pages;
+
+    }
+
+    /**
+     * Streams every page in a specified namespace to a consumer, one batch at a time.
+     * <p>Follows {@code apcontinue} until the wiki has no more pages, so wikis of any size are listed in full while
+     * only a single batch is held in memory. Stops early if the calling thread is interrupted.
+     *
+     * @param namespace The namespace to get pages from; see {@link #getAllPages(String)}.
+     * @param consumer  Receives each batch of titles, in the order the wiki returns them.
+     *
+     * @return The number of titles streamed.
+     *
+     * @throws IOException If the wiki could not be reached, or returned an error.
+     *
+     * @since 0.2.0
+     */
+    public static int forEachPage( @NotNull String namespace, @NotNull Consumer<List<String>> consumer ) throws IOException {
         WCMessages.debug( "info", "Getting all pages in " + namespace );
 
-        ArrayList<String> pages = switch ( namespace.toLowerCase() ) {
-            case "category" -> {
-                WCMessages.debug( "info", "Getting category pages..." );
-                yield WCWiki.getWiki().allPages( "", false, false, 5000, NS.CATEGORY );
+        int count = 0;
+        String continueFrom = null;
 
-            }
-            case "file" -> {
-                WCMessages.debug( "info", "Getting file pages..." );
-                yield WCWiki.getWiki().allPages( "", false, false, 5000, NS.FILE );
+        do {
+            if ( Thread.currentThread().isInterrupted() ) {
+                WCMessages.debug( "info", "Stopped listing pages in " + namespace + " after " + count + " pages." );
+                return count;
 
             }
-            case "help" -> {
-                WCMessages.debug( "info", "Getting help pages..." );
-                yield WCWiki.getWiki().allPages( "", false, false, 5000, NS.HELP );
 
-            }
-            case "talk" -> {
-                WCMessages.debug( "info", "Getting talk pages..." );
-                yield WCWiki.getWiki().allPages( "", false, false, 5000, NS.TALK );
+            WCPageBatch batch = fetchPageBatch( getNamespace( namespace ), continueFrom );
 
-            }
-            case "template" -> {
-                WCMessages.debug( "info", "Getting template pages..." );
-                yield WCWiki.getWiki().allPages( "", false, false, 5000, NS.TEMPLATE );
+            if ( !batch.getTitles().isEmpty() ) {
+                consumer.accept( batch.getTitles() );
+                count += batch.getTitles().size();
 
             }
-            case "user" -> {
-                WCMessages.debug( "info", "Getting user pages..." );
-                yield WCWiki.getWiki().allPages( "", false, false, 5000, NS.USER );
+
+            continueFrom = batch.getContinueFrom();
+
+        } while ( continueFrom != null );
+
+        WCMessages.debug( "info", "Found " + count + " pages in " + namespace );
+        return count;
+
+    }
+
+    /**
+     * Fetches a single batch of titles from a {@code list=allpages} query.
+     *
+     * @param namespace    The namespace to get pages from.
+     * @param continueFrom The {@code apcontinue} value of the batch, or {@code null} for the first batch.
+     *
+     * @return The batch of titles.
+     *
+     * @throws IOException If the wiki could not be reached, or returned an error.
+     */
+    private static @NotNull WCPageBatch fetchPageBatch( @NotNull NS namespace, @Nullable String continueFrom ) throws IOException {
+        List<String> params = new ArrayList<>( List.of(
+            "list", "allpages",
+            "apnamespace", String.valueOf( namespace.v ),
+            "aplimit", "max",
+            "formatversion", "2",
+            "maxlag", String.valueOf( getMaxLag() )
+        ) );
+
+        if ( continueFrom != null ) {
+            params.add( "apcontinue" );
+            params.add( continueFrom );
+
+        }
+
+        try {
+            return WCPageBatch.parse( query( params ) );
+
+        } catch ( IllegalStateException e ) {
+            throw new IOException( e.getMessage(), e );
+
+        }
+
+    }
+
+    /**
+     * Sends a {@code query} request to the wiki and reads the whole response.
+     *
+     * @param params The parameters of the request, as alternating names and values.
+     *
+     * @return The body of the response.
+     *
+     * @throws IOException If the wiki could not be reached, or returned no response.
+     *
+     * @since 0.2.0
+     */
+    static @NotNull String query( @NotNull List<String> params ) throws IOException {
+        return request( "query", params );
+
+    }
+
+    /**
+     * Sends a read request to the wiki and reads the whole response.
+     *
+     * @param action The API action, e.g. {@code query} or {@code parse}.
+     * @param params The parameters of the request, as alternating names and values.
+     *
+     * @return The body of the response.
+     *
+     * @throws IOException If the wiki could not be reached, or returned no response.
+     *
+     * @since 0.2.0
+     */
+    static @NotNull String request( @NotNull String action, @NotNull List<String> params ) throws IOException {
+        Response response = WCWiki.getWiki().basicGET( action, params.toArray( new String[ 0 ] ) );
+
+        if ( response == null ) {
+            throw new IOException( "Wiki API returned no response." );
+
+        }
+
+        try ( response ) {
+            if ( !response.isSuccessful() ) {
+                throw new IOException( "Wiki API answered with HTTP " + response.code() + "." );
 
             }
-            default -> {
-                WCMessages.debug( "info", "Getting main pages..." );
-                yield WCWiki.getWiki().allPages( "", false, false, 5000, NS.MAIN );
+
+            ResponseBody body = response.body();
+
+            if ( body == null ) {
+                throw new IOException( "Wiki API returned no response." );
 
             }
 
-        };
+            return body.string();
 
-        WCMessages.debug( "info", "Found " + pages.size() + " pages in " + namespace );
-        return pages;
+        }
+
+    }
+
+    /**
+     * Gets the namespace with a given name.
+     *
+     * @param namespace The name of the namespace; see {@link #getAllPages(String)}.
+     *
+     * @return The namespace, or {@link NS#MAIN} if the name is not recognised.
+     *
+     * @since 0.2.0
+     */
+    static @NotNull NS getNamespace( @NotNull String namespace ) {
+        return switch ( namespace.toLowerCase() ) {
+            case "category" -> NS.CATEGORY;
+            case "file" -> NS.FILE;
+            case "help" -> NS.HELP;
+            case "talk" -> NS.TALK;
+            case "template" -> NS.TEMPLATE;
+            case "user" -> NS.USER;
+            default -> NS.MAIN;
+
+        };
 
     }
 
     /**
      * Retrieves information about a specific wiki page.
+     * <p>Everything is read in a single request, and cached by title; see the {@code caches.info} section of
+     * config.yml.
      *
      * @param page The title or name of the wiki page to retrieve information for.
-     * @return A HashMap containing key-value pairs of page information. Currently returns an empty HashMap.
+     * @return The information about the page.
+     *
+     * @throws java.util.concurrent.CompletionException If the information could not be loaded.
      *
      * @since 0.1.0
      */
-    @Contract ( pure = true )
-    public static @NotNull HashMap<String, String> getPageInfo( String page ) {
-        HashMap<String, String> info = new HashMap<>();
+    public static @NotNull WCPageInfo getPageInfo( @NotNull String page ) {
+        return infoCache.get( page );
+
+    }
+
+    /**
+     * Checks whether a wiki page exists.
+     * <p>Checks made at about the same time are sent to the wiki together; see {@link WCTitleBatcher}. Waits on the
+     * wiki, so must not be called on the main thread.
+     *
+     * @param page The title of the page.
+     * @return {@code true} if the page exists, {@code false} otherwise.
+     *
+     * @throws UncheckedIOException If the wiki could not be reached, or returned an error.
+     *
+     * @since 0.2.0
+     */
+    public static boolean pageExists( @NotNull String page ) {
+        try {
+            return WCTitleBatcher.getInstance().existsNow( page );
+
+        } catch ( IOException e ) {
+            throw new UncheckedIOException( e );
+
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException( new IOException( "Interrupted while checking whether " + page + " exists", e ) );
+
+        }
+
+    }
+
+    /**
+     * Retrieves information about a specific wiki page, bypassing the page info cache.
+     *
+     * @param page The title of the page.
+     * @return The information about the page.
+     *
+     * @throws UncheckedIOException If the wiki could not be reached, or returned an error.
+     *
+     * @since 0.2.0
+     */
+    private static @NotNull WCPageInfo fetchPageInfo( @NotNull String page ) {
+        WCMessages.debug( "info", "Getting info for " + page );
 
         try {
-            WCMessages.debug( "info", "Getting info for " + page );
+            WCPageInfo info = WCPageInfo.parse( query( List.of(
+                "prop", "info|categories|revisions",
+                "titles", page,
+                "inprop", "url",
+                "cllimit", "max",
+                "rvprop", "ids|user|timestamp",
+                "formatversion", "2",
+                "maxlag", String.valueOf( getMaxLag() )
+            ) ), page );
 
-            if ( !WCWiki.getWiki().exists( page ) ) {
-                WCMessages.debug( "error", "Page " + page + " does not exist." );
-                return info;
+            if ( !info.exists() ) {
+                WCMessages.debug( "info", "Page " + page + " does not exist." );
 
             }
 
-            info.put( "title", page );
-            info.put( "url", WCUtils.pageURL( page ) );
-            info.put( "categories", String.join( ", ", WCWiki.getWiki().getCategoriesOnPage( page ) ) );
-            info.put( "last_editor", WCWiki.getWiki().getLastEditor( page ) );
+            return info;
 
-        } catch ( Exception e ) {
-            WCMessages.debug( "error", "Failed to get info for " + page + ": " + e.getMessage() );
+        } catch ( IOException e ) {
+            throw new UncheckedIOException( e );
+
+        } catch ( IllegalStateException e ) {
+            throw new UncheckedIOException( new IOException( e.getMessage(), e ) );
 
         }
 
-        return info;
+    }
+
+    /**
+     * Gets the cache of rendered pages.
+     *
+     * @return The cache of rendered pages.
+     *
+     * @since 0.2.0
+     */
+    public static @NotNull WCRenderCache getRenderCache() {
+        return renderCache;
 
     }
 
     /**
-     * Gets a valid token for the wiki.
+     * Gets the ID of the latest revision of a page, with a single {@code prop=info} request.
+     *
+     * @param page The title of the page.
+     * @return The ID of the latest revision, or {@code 0} if the page does not exist.
      *
-     * @return A valid token for the wiki.
+     * @throws IOException If the wiki could not be reached, or returned an error.
+     *
+     * @since 0.2.0
      */
-    public static @Nullable String getToken() {
+    public static long getRevisionId( @NotNull String page ) throws IOException {
         try {
-            WCMessages.debug( "info", "Getting CSRF token..." );
+            return WCPageInfo.parse( query( List.of(
+                "prop", "info",
+                "titles", page,
+                "formatversion", "2"
+            ) ), page ).getRevisionId();
 
-            Response tokenResponse = WCWiki.getWiki().basicGET(
-                "query",
-                "meta", "tokens",
-                "type", "csrf"
-            );
+        } catch ( IllegalStateException e ) {
+            throw new IOException( e.getMessage(), e );
 
-            String token = JsonParser.parseString( tokenResponse.body().string() )
-                .getAsJsonObject()
-                .getAsJsonObject( "query" )
-                .getAsJsonObject( "tokens" )
-                .get( "csrftoken" )
-                .getAsString();
+        }
 
-            return token;
+    }
 
-        } catch ( Exception e ) {
-            WCMessages.debug( "error", "Failed to get CSRF token: " + e.getMessage() );
-            return null;
+    /**
+     * Gets the CSRF token of the current wiki session.
+     * <p>The token is fetched once and reused by every write until the wiki is rebuilt or rejects it.
+     *
+     * @return The CSRF token, or {@code null} if it could not be fetched.
+     *
+     * @since 0.1.0
+     */
+    public static @Nullable String getToken() {
+        Wiki wiki = WCWiki.getWiki();
+
+        synchronized ( TOKEN_LOCK ) {
+            if ( csrfToken != null && tokenWiki == wiki ) {
+                return csrfToken;
+
+            }
+
+            try {
+                WCMessages.debug( "info", "Getting CSRF token..." );
+
+                JsonObject json = JsonParser.parseString( query( List.of(
+                    "meta", "tokens",
+                    "type", "csrf",
+                    "formatversion", "2"
+                ) ) ).getAsJsonObject();
+
+                csrfToken = json.getAsJsonObject( "query" )
+                    .getAsJsonObject( "tokens" )
+                    .get( "csrftoken" )
+                    .getAsString();
+                tokenWiki = wiki;
+
+                return csrfToken;
+
+            } catch ( Exception e ) {
+                WCMessages.debug( "error", "Failed to get CSRF token: " + e.getMessage() );
+                return null;
+
+            }
+
+        }
+
+    }
+
+    /**
+     * Forgets the cached CSRF token, so the next write fetches a new one.
+     *
+     * @param rejected The token the wiki rejected; a newer token fetched by another thread is kept.
+     */
+    private static void invalidateToken( @Nullable String rejected ) {
+        synchronized ( TOKEN_LOCK ) {
+            if ( csrfToken != null && csrfToken.equals( rejected ) ) {
+                csrfToken = null;
+                tokenWiki = null;
+
+            }
+
+        }
+
+    }
+
+    /**
+     * Sends a write request to the wiki with the cached CSRF token.
+     * <p>If the wiki rejects the token, e.g. because the session expired, a new token is fetched and the request is
+     * sent once more.
+     *
+     * @param action The API action, e.g. {@code edit}.
+     * @param form   The parameters of the request, as alternating names and values, without the token.
+     *
+     * @return The response, parsed as JSON.
+     *
+     * @throws WCWikiException If the wiki returned an error.
+     * @throws IOException      If the wiki could not be reached or answered with an HTTP error, or no token could be
+     *                          fetched.
+     *
+     * @since 0.2.0
+     */
+    static @NotNull JsonObject post( @NotNull String action, @NotNull List<String> form ) throws IOException {
+        for ( int attempt = 0; ; attempt++ ) {
+            String token = getToken();
+
+            if ( token == null ) {
+                throw new IOException( "No CSRF token could be fetched." );
+
+            }
+
+            HashMap<String, String> params = new HashMap<>();
+
+            for ( int i = 0; i + 1 < form.size(); i += 2 ) {
+                params.put( form.get( i ), form.get( i + 1 ) );
+
+            }
+
+            params.put( "token", token );
+
+            JsonObject json;
+
+            try {
+                json = JsonParser.parseString( send( action, params ) ).getAsJsonObject();
+
+            } catch ( JsonParseException | IllegalStateException e ) {
+                throw new IOException( "Wiki API returned a response that is not JSON.", e );
+
+            }
+
+            if ( !json.has( "error" ) ) {
+                return json;
+
+            }
+
+            JsonObject error = json.getAsJsonObject( "error" );
+            String code = error.has( "code" ) ? error.get( "code" ).getAsString() : "unknown";
+            String info = error.has( "info" ) ? error.get( "info" ).getAsString() : "";
+
+            if ( code.equals( "badtoken" ) && attempt == 0 ) {
+                WCMessages.debug( "warning", "Wiki rejected the CSRF token; fetching a new one..." );
+                invalidateToken( token );
+                continue;
+
+            }
+
+            throw new WCWikiException( code, info );
+
+        }
+
+    }
+
+    /**
+     * Sends a {@code POST} request to the wiki and reads the whole response.
+     *
+     * @param action The API action, e.g. {@code edit}.
+     * @param form   The parameters of the request.
+     *
+     * @return The body of the response.
+     *
+     * @throws IOException If the wiki could not be reached, answered with an HTTP error, or returned no response.
+     */
+    private static @NotNull String send( @NotNull String action, @NotNull HashMap<String, String> form ) throws IOException {
+        Response response = WCWiki.getWiki().basicPOST( action, form );
+
+        if ( response == null ) {
+            throw new IOException( "Wiki API returned no response." );
+
+        }
+
+        try ( response ) {
+            ResponseBody body = response.body();
+
+            if ( body == null ) {
+                throw new IOException( "Wiki API returned no response." );
+
+            }
+
+            return body.string();
+
+        }
+
+    }
+
+    /**
+     * Edits a wiki page, creating it if it does not exist.
+     * <p>Makes a request to the wiki, and must not be called on the main thread.
+     *
+     * @param page    The title of the page.
+     * @param text    The new content of the page.
+     * @param summary The edit summary.
+     *
+     * @throws WCWikiException If the wiki returned an error, or did not save the edit, e.g. because a CAPTCHA was
+     *                          required.
+     * @throws IOException      If the wiki could not be reached.
+     *
+     * @since 0.2.0
+     */
+    public static void edit( @NotNull String page, @NotNull String text, @NotNull String summary ) throws IOException {
+        JsonObject json = post( "edit", List.of(
+            "title", page,
+            "text", text,
+            "summary", summary,
+            "bot", "true",
+            "formatversion", "2",
+            "maxlag", String.valueOf( getMaxLag() )
+        ) );
+
+        JsonObject edit = json.has( "edit" ) ? json.getAsJsonObject( "edit" ) : new JsonObject();
+        String result = edit.has( "result" ) ? edit.get( "result" ).getAsString() : "";
+
+        if ( !result.equals( "Success" ) ) {
+            throw new WCWikiException( "editfailure", result.isEmpty() ? "The wiki did not save the edit." : "The wiki did not save the edit (" + result + ")." );
+
+        }
+
+    }
+
+    /**
+     * Deletes a wiki page.
+     * <p>Makes a request to the wiki, and must not be called on the main thread.
+     *
+     * @param page   The title of the page.
+     * @param reason The reason for the deletion.
+     *
+     * @throws WCWikiException If the wiki returned an error, e.g. {@code missingtitle} or {@code permissiondenied}.
+     * @throws IOException      If the wiki could not be reached.
+     *
+     * @since 0.2.0
+     */
+    public static void delete( @NotNull String page, @NotNull String reason ) throws IOException {
+        JsonObject json = post( "delete", List.of(
+            "title", page,
+            "reason", reason,
+            "formatversion", "2",
+            "maxlag", String.valueOf( getMaxLag() )
+        ) );
+
+        if ( !json.has( "delete" ) ) {
+            throw new WCWikiException( "deletefailure", "The wiki did not delete the page." );
 
         }
 
@@ -0,0 +1,316 @@
+package io.github.iherongh.wikicraft;
+
+import io.github.iherongh.wikicraft.account.WCAccountIndex;
+import io.github.iherongh.wikicraft.utils.WCUtils;
+import io.github.iherongh.wikicraft.wiki.WCCache;
+import io.github.iherongh.wikicraft.wiki.WCCacheRefreshPolicy;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hammers the state shared between the server thread and wiki request threads from many threads at once.
+ * <p>Each test fails if an update is lost or a {@link java.util.ConcurrentModificationException} is thrown. Runs
+ * against a stand-in for the plugin with an empty config.yml, so every setting takes its default.
+ *
+ * @author iHeronGH
+ *
+ * @version 0.2.0
+ *
+ * @since 0.2.0
+ */
+class WCConcurrencyStressTest {
+
+    /**
+     * The number of threads each test runs on.
+     */
+    private static final int THREADS = 8;
+
+    /**
+     * The number of operations each thread makes.
+     */
+    private static final int OPERATIONS = 20_000;
+
+    /**
+     * The logger of the stand-in plugin, held so it is not collected and its level lost.
+     */
+    private static final Logger logger = Logger.getLogger( "WikiCraft" );
+
+    /**
+     * Installs a stand-in for the plugin, logging only warnings and reading an empty config.yml.
+     *
+     * @throws ReflectiveOperationException If the plugin instance could not be set.
+     */
+    @BeforeAll
+    static void setUpPlugin() throws ReflectiveOperationException {
+        WikiCraft plugin = Mockito.mock( WikiCraft.class );
+        logger.setLevel( Level.WARNING );
+
+        Mockito.when( plugin.getConfig() ).thenReturn( new YamlConfiguration() );
+        Mockito.when( plugin.getLogger() ).thenReturn( logger );
+
+        Field instance = WikiCraft.class.getDeclaredField( "instance" );
+        instance.setAccessible( true );
+        instance.set( null, plugin );
+
+    }
+
+    /**
+     * Records request times for a few players from every thread, checking cooldowns as it goes.
+     * <p>Each player must end up with the latest time recorded for them, whichever thread recorded it.
+     *
+     * @throws Exception If a thread failed.
+     */
+    @Test
+    void requestCooldownsKeepLatestTime() throws Exception {
+        UUID[] players = new UUID[ 16 ];
+
+        for ( int i = 0; i < players.length; i++ ) {
+            players[ i ] = new UUID( 42, i );
+
+        }
+
+        long base = System.currentTimeMillis();
+
+        runConcurrently( thread -> {
+            for ( int i = 0; i < OPERATIONS; i++ ) {
+                UUID player = players[ i % players.length ];
+                WCUtils.setLastRequestTime( player, base + ThreadLocalRandom.current().nextInt( 1_000_000 ) );
+                WCUtils.isOnRequestCooldown( player );
+
+            }
+
+            // Every thread records the same final time for its player last, so it must win
+            WCUtils.setLastRequestTime( players[ thread ], base + 2_000_000 + thread );
+
+        } );
+
+        for ( int thread = 0; thread < THREADS; thread++ ) {
+            assertEquals( base + 2_000_000 + thread, WCUtils.getLastRequestTimeMap().get( players[ thread ] ) );
+
+        }
+
+    }
+
+    /**
+     * Links and unlinks accounts from half the threads while the other half read every link.
+     * <p>No link may be lost, and both sides of every link must agree afterwards.
+     *
+     * @throws Exception If a thread failed.
+     */
+    @Test
+    void accountIndexKeepsEveryLink() throws Exception {
+        WCAccountIndex index = new WCAccountIndex();
+        int writers = THREADS / 2;
+        int links = OPERATIONS / 10;
+
+        runConcurrently( thread -> {
+            if ( thread < writers ) {
+                for ( int i = 0; i < links; i++ ) {
+                    String wikiUser = "Player-" + thread + "-" + i;
+                    index.link( new UUID( thread, i ), wikiUser, i );
+
+                    if ( i % 4 == 0 ) {
+                        index.unlink( wikiUser );
+
+                    }
+
+                }
+
+                return;
+
+            }
+
+            for ( int i = 0; i < links / 10; i++ ) {
+                index.getUUIDToWikiUserMap().forEach( ( uuid, wikiUser ) -> index.getUUID( wikiUser ) );
+                index.getWikiUserToUUIDMap().size();
+                index.getEntries();
+                index.toJson();
+
+            }
+
+        } );
+
+        assertEquals( writers * links, index.size() );
+        assertEquals( writers * ( links - links / 4 ), index.getUUIDToWikiUserMap().size() );
+        assertEquals( writers * ( links - links / 4 ), index.getWikiUserToUUIDMap().size() );
+
+        for ( Map.Entry<UUID, String> link : index.getUUIDToWikiUserMap().entrySet() ) {
+            assertEquals( link.getKey(), index.getUUID( link.getValue() ) );
+
+        }
+
+    }
+
+    /**
+     * Reads, stores and invalidates cache entries from every thread.
+     * <p>Every read must see the value for its key, every read must be counted as a hit or a miss, and the cache
+     * must never grow past its maximum size.
+     *
+     * @throws Exception If a thread failed.
+     */
+    @Test
+    void cacheServesCorrectValues() throws Exception {
+        AtomicLong reads = new AtomicLong();
+        WCCache<Integer, Integer> cache = new WCCache<>( "stress", key -> key * 2, 60, 64, WCCacheRefreshPolicy.ON_ACCESS );
+
+        runConcurrently( thread -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+
+            for ( int i = 0; i < OPERATIONS; i++ ) {
+                int key = random.nextInt( 128 );
+                int operation = random.nextInt( 100 );
+
+                if ( operation < 80 ) {
+                    assertEquals( key * 2, cache.get( key ) );
+                    reads.incrementAndGet();
+
+                } else if ( operation < 90 ) {
+                    cache.put( key, key * 2 );
+
+                } else if ( operation < 99 ) {
+                    cache.invalidate( key );
+
+                } else {
+                    cache.invalidateAll();
+
+                }
+
+            }
+
+        } );
+
+        assertEquals( reads.get(), cache.getHits() + cache.getMisses() );
+        assertTrue( cache.size() <= 64, "Cache grew to " + cache.size() + " entries" );
+
+    }
+
+    /**
+     * Invalidates a key while it is being loaded.
+     * <p>The load must still answer its caller, but must not store the value it loaded before the invalidation.
+     *
+     * @throws Exception If the load failed.
+     */
+    @Test
+    void invalidateDiscardsLoadInFlight() throws Exception {
+        assertLoadDiscarded( cache -> cache.invalidate( 1 ) );
+
+    }
+
+    /**
+     * Invalidates every key while one is being loaded.
+     * <p>The load must still answer its caller, but must not store the value it loaded before the invalidation.
+     *
+     * @throws Exception If the load failed.
+     */
+    @Test
+    void invalidateAllDiscardsLoadInFlight() throws Exception {
+        assertLoadDiscarded( WCCache::invalidateAll );
+
+    }
+
+    /**
+     * Loads key {@code 1} on another thread, invalidates the cache while the load waits, then lets the load finish.
+     *
+     * @param invalidation Invalidates the cache mid-load.
+     *
+     * @throws Exception If the load failed.
+     */
+    private static void assertLoadDiscarded( Consumer<WCCache<Integer, Integer>> invalidation ) throws Exception {
+        CountDownLatch loading = new CountDownLatch( 1 );
+        CountDownLatch release = new CountDownLatch( 1 );
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        WCCache<Integer, Integer> cache = new WCCache<>( "stress", key -> {
+            loading.countDown();
+
+            try {
+                release.await();
+
+            } catch ( InterruptedException e ) {
+                throw new IllegalStateException( e );
+
+            }
+
+            return key * 2;
+
+        }, 60, 64, WCCacheRefreshPolicy.ON_ACCESS );
+
+        try {
+            Future<Integer> load = executor.submit( () -> cache.get( 1 ) );
+
+            loading.await();
+            invalidation.accept( cache );
+            release.countDown();
+
+            assertEquals( 2, load.get() );
+            assertEquals( 0, cache.size() );
+
+        } finally {
+            executor.shutdownNow();
+
+        }
+
+    }
+
+    /**
+     * Runs a task on {@link #THREADS} threads, starting them all at once and waiting for every one to finish.
+     *
+     * @param task The task, given the index of the thread it runs on.
+     *
+     * @throws Exception If the task threw on any thread.
+     */
+    private static void runConcurrently( IntConsumer task ) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool( THREADS );
+        CountDownLatch start = new CountDownLatch( 1 );
+        List<Future<?>> futures = new ArrayList<>();
+
+        try {
+            for ( int thread = 0; thread < THREADS; thread++ ) {
+                int index = thread;
+
+                futures.add( executor.submit( () -> {
+                    start.await();
+                    task.accept( index );
+                    return null;
+
+                } ) );
+
+            }
+
+            start.countDown();
+
+            // Rethrows the first failure, e.g. a ConcurrentModificationException or a failed assertion
+            for ( Future<?> future : futures ) {
+                future.get();
+
+            }
+
+        } finally {
+            executor.shutdownNow();
+
+        }
+
+    }
+
+}
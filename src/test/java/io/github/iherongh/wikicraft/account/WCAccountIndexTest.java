@@ -0,0 +1,127 @@
+package io.github.iherongh.wikicraft.account;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Loads account bridges holding duplicate entries, then links, unlinks and re-links them.
+ * <p>After every change, both maps of current links must agree and each side must have at most one link.
+ *
+ * @author iHeronGH
+ *
+ * @version 0.2.0
+ *
+ * @since 0.2.0
+ */
+class WCAccountIndexTest {
+
+    /**
+     * The UUID of the earlier, unlinked entry.
+     */
+    private static final UUID FIRST = new UUID( 42, 1 );
+
+    /**
+     * The UUID of the later, linked entry.
+     */
+    private static final UUID SECOND = new UUID( 42, 2 );
+
+    /**
+     * The MediaWiki account both entries name.
+     */
+    private static final String WIKI_USER = "Player";
+
+    /**
+     * Loads an unlinked entry followed by a linked one for the same MediaWiki account.
+     * <p>The linked entry must be the one found by the MediaWiki account, so unlinking it succeeds.
+     */
+    @Test
+    void unlinkFindsLinkedDuplicate() {
+        WCAccountIndex index = loadDuplicates();
+
+        assertEquals( SECOND, index.getUUID( WIKI_USER ) );
+        assertTrue( index.unlink( WIKI_USER ) );
+
+        assertNull( index.getUUID( WIKI_USER ) );
+        assertNull( index.getWikiUser( SECOND ) );
+        assertFalse( index.unlink( WIKI_USER ) );
+        assertLinksAgree( index );
+
+    }
+
+    /**
+     * Loads the same bridge and re-links the earlier entry, which must unlink the later one.
+     */
+    @Test
+    void relinkDisplacesLinkedDuplicate() {
+        WCAccountIndex index = loadDuplicates();
+
+        assertEquals( "success", index.relink( FIRST, 1 ) );
+
+        assertEquals( FIRST, index.getUUID( WIKI_USER ) );
+        assertEquals( WIKI_USER, index.getWikiUser( FIRST ) );
+        assertNull( index.getWikiUser( SECOND ) );
+        assertLinksAgree( index );
+
+    }
+
+    /**
+     * Loads the same bridge, unlinks the MediaWiki account, then re-links each UUID in turn.
+     */
+    @Test
+    void unlinkThenRelinkEach() {
+        WCAccountIndex index = loadDuplicates();
+
+        assertTrue( index.unlink( WIKI_USER ) );
+        assertEquals( "success", index.relink( FIRST, 1 ) );
+        assertEquals( FIRST, index.getUUID( WIKI_USER ) );
+        assertLinksAgree( index );
+
+        assertEquals( "success", index.relink( SECOND, 2 ) );
+        assertEquals( SECOND, index.getUUID( WIKI_USER ) );
+        assertNull( index.getWikiUser( FIRST ) );
+        assertLinksAgree( index );
+
+    }
+
+    /**
+     * Loads an unlinked entry for a MediaWiki account followed by a linked entry for the same account.
+     *
+     * @return The loaded index.
+     */
+    private static WCAccountIndex loadDuplicates() {
+        JsonArray accounts = new JsonArray();
+        accounts.add( new WCAccountLink( FIRST, WIKI_USER, false, 0, 0 ).toJson() );
+        accounts.add( new WCAccountLink( SECOND, WIKI_USER, true, 0, 0 ).toJson() );
+
+        JsonObject data = new JsonObject();
+        data.add( "accounts", accounts );
+
+        return WCAccountIndex.fromJson( data );
+
+    }
+
+    /**
+     * Checks that both maps of current links hold the same links.
+     *
+     * @param index The index to check.
+     */
+    private static void assertLinksAgree( WCAccountIndex index ) {
+        assertEquals( index.getUUIDToWikiUserMap().size(), index.getWikiUserToUUIDMap().size() );
+
+        for ( Map.Entry<UUID, String> link : index.getUUIDToWikiUserMap().entrySet() ) {
+            assertEquals( link.getKey(), index.getUUID( link.getValue() ) );
+
+        }
+
+    }
+
+}